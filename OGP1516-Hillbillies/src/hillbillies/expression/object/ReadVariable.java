@@ -9,11 +9,13 @@ import hillbillies.program.Program;
 public class ReadVariable<E> extends Expression<E> {
 
 	private String variableName;
+	private final int slot;
 	
-	public ReadVariable(SourceLocation sourceLocation, String variableName) 
+	public ReadVariable(SourceLocation sourceLocation, String variableName, int slot) 
 			throws IllegalArgumentException {
 		super(sourceLocation);
 		this.setVariableName(variableName);
+		this.slot = slot;
 	}
 
 	@Basic @Raw
@@ -21,6 +23,11 @@ public class ReadVariable<E> extends Expression<E> {
 		return this.variableName;
 	}
 
+	@Basic @Raw
+	public int getSlot() {
+		return this.slot;
+	}
+
 	public static boolean isValidVariableName(String variableName) {
 		return (variableName != null);
 	}
@@ -35,7 +42,7 @@ public class ReadVariable<E> extends Expression<E> {
 	@SuppressWarnings("unchecked")
 	@Override
 	public E evaluate(Program program) {
-		return (E) program.getGlobalVariables().get(variableName);
+		return (E) program.readVariable(getSlot());
 	}
 
 	@Override
@@ -2,7 +2,6 @@ package hillbillies.expression.position;
 
 import hillbillies.expression.Expression;
 import hillbillies.model.Entity;
-import hillbillies.model.World;
 import hillbillies.part3.programs.SourceLocation;
 import hillbillies.program.Program;
 import hillbillies.world.Position;
@@ -15,9 +14,8 @@ public class Log extends Expression<Position> {
 
 	@Override
 	public Position evaluate(Program program) {
-		Entity entity = World.getClosestElement(
-				program.getWorld().getAllLogs(), 
-				program.getUnit().getPosition());
+		Entity entity = program.getWorld().getClosestEntity(
+				program.getUnit().getPosition(), hillbillies.model.Log.class);
 		return (entity == null ? null : entity.getPosition());
 	}
 	
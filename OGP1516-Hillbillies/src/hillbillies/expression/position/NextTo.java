@@ -2,7 +2,6 @@ package hillbillies.expression.position;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 
 import hillbillies.expression.Expression;
 import hillbillies.expression.position.checker.PositionChecker;
@@ -26,7 +25,7 @@ public class NextTo extends PositionChecker {
 			}
 		}
 		if (!allNeighbours.isEmpty()) {
-			return allNeighbours.get(new Random().nextInt(allNeighbours.size()));
+			return allNeighbours.get(program.getUnit().getRandom().nextInt(allNeighbours.size()));
 		}
 		return null;
 	}
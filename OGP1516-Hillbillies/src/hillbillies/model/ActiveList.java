@@ -0,0 +1,184 @@
+package hillbillies.model;
+
+import java.util.Arrays;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Model;
+
+/**
+ * A class of dense lists collecting items in order of increasing handle,
+ * that can be iterated while items enter and leave the list.
+ *
+ * @invar  The handles of the slots of this list are strictly increasing.
+ * @invar  Each item occurs in at most one slot of this list.
+ *
+ * @note   An item that leaves this list only empties its slot, which keeps its
+ *         handle, so that the item reclaims the same slot if it enters the list
+ *         again before the list is compacted. Iterating this list therefore
+ *         takes time linear in the number of slots, which is kept below twice
+ *         the number of items, and skipping an empty slot costs a single check.
+ *
+ * @author  Pieter-Jan Van den Broecke: EltCw
+ * 		    Emiel Vandeloo: WtkCw
+ * @version Final version Part 3: 20/05/2016
+ *
+ * https://github.com/EmielVandeloo/Hillbillies.git
+ */
+class ActiveList<T> {
+
+	/**
+	 * Variable referencing the item in each slot of this list, or null if
+	 * that slot is empty.
+	 */
+	private Object[] items = new Object[16];
+
+	/**
+	 * Variable referencing the handle of each slot of this list.
+	 */
+	private int[] handles = new int[16];
+
+	/**
+	 * Variable registering the number of slots in use.
+	 */
+	private int nbSlots = 0;
+
+	/**
+	 * Variable registering the number of items in this list.
+	 */
+	private int size = 0;
+
+	/**
+	 * Variable registering the slot of the current iteration, or -1 if this
+	 * list is not being iterated.
+	 */
+	private int cursor = -1;
+
+	/**
+	 * Variable registering the highest handle the current iteration visits.
+	 */
+	private int lastHandle;
+
+	/**
+	 * Return the number of items in this list.
+	 */
+	@Basic
+	int size() {
+		return this.size;
+	}
+
+	/**
+	 * Add the given item with the given handle to this list.
+	 *
+	 * @param  item
+	 *         The item to add.
+	 * @param  handle
+	 *         The handle of the given item.
+	 * @post   This list holds the given item in the slot of the given handle,
+	 *         if it didn't hold an item with that handle already.
+	 * @note   An item added with a handle beyond the last slot is appended in
+	 *         constant time. An item added during an iteration is visited by that
+	 *         iteration if and only if its handle comes after the current item and
+	 *         doesn't exceed the last handle of that iteration.
+	 */
+	void add(T item, int handle) {
+		int index = indexOf(handle);
+		if (index >= 0) {
+			if (items[index] == null) {
+				items[index] = item;
+				size++;
+			}
+			return;
+		}
+		index = -index - 1;
+		if (nbSlots == items.length) {
+			items = Arrays.copyOf(items, 2 * nbSlots);
+			handles = Arrays.copyOf(handles, 2 * nbSlots);
+		}
+		System.arraycopy(items, index, items, index + 1, nbSlots - index);
+		System.arraycopy(handles, index, handles, index + 1, nbSlots - index);
+		items[index] = item;
+		handles[index] = handle;
+		nbSlots++;
+		size++;
+		if (cursor >= 0 && index <= cursor) {
+			cursor++;
+		}
+	}
+
+	/**
+	 * Remove the item with the given handle from this list.
+	 *
+	 * @param  handle
+	 *         The handle of the item to remove.
+	 * @post   This list no longer holds an item with the given handle.
+	 */
+	void remove(int handle) {
+		int index = indexOf(handle);
+		if (index >= 0 && items[index] != null) {
+			items[index] = null;
+			size--;
+		}
+	}
+
+	/**
+	 * Start iterating this list, up to and including the item with the given handle.
+	 *
+	 * @param  lastHandle
+	 *         The highest handle to visit.
+	 */
+	void startIteration(int lastHandle) {
+		compact();
+		this.cursor = -1;
+		this.lastHandle = lastHandle;
+	}
+
+	/**
+	 * Return the next item of the current iteration, or null if all items
+	 * have been visited.
+	 *
+	 * @post   If null is returned, this list is no longer being iterated.
+	 */
+	@SuppressWarnings("unchecked")
+	T next() {
+		while (++cursor < nbSlots && handles[cursor] <= lastHandle) {
+			if (items[cursor] != null) {
+				return (T) items[cursor];
+			}
+		}
+		cursor = -1;
+		return null;
+	}
+
+	/**
+	 * Return the index of the slot with the given handle, or -(i + 1) with i
+	 * the index at which a slot with the given handle has to be inserted.
+	 */
+	@Model
+	private int indexOf(int handle) {
+		if (nbSlots == 0 || handles[nbSlots - 1] < handle) {
+			return -nbSlots - 1;
+		}
+		return Arrays.binarySearch(handles, 0, nbSlots, handle);
+	}
+
+	/**
+	 * Drop the empty slots of this list if they outnumber the items.
+	 */
+	@Model
+	private void compact() {
+		if (2 * size >= nbSlots) {
+			return;
+		}
+		int index = 0;
+		for (int i = 0; i < nbSlots; i++) {
+			if (items[i] != null) {
+				items[index] = items[i];
+				handles[index] = handles[i];
+				index++;
+			}
+		}
+		Arrays.fill(items, index, nbSlots, null);
+		nbSlots = index;
+	}
+
+}
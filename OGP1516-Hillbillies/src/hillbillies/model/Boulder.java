@@ -50,7 +50,7 @@ public class Boulder extends ItemEntity {
 	 *         to the given world at the given position.
 	 */
 	public static void drop(World world, Position position) {
-		if (ItemEntity.willDrop()) {
+		if (ItemEntity.willDrop(world.getRandom())) {
 			new Boulder(world, position).spawn();
 		}
 	}
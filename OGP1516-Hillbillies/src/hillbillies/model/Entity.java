@@ -41,6 +41,18 @@ public abstract class Entity {
 	 */
 	private boolean falling = false;
 
+	/**
+	 * Variable registering the position at which this entity will land
+	 * if it is falling.
+	 */
+	private Position landingPosition;
+
+	/**
+	 * Variable registering the version of the world of this entity for
+	 * which the landing position of this entity was computed.
+	 */
+	private int landingVersion;
+
 	/**
 	 * Variable registering the maximal amount of this
 	 * type allowed in the game world.
@@ -176,6 +188,8 @@ public abstract class Entity {
 	 *         The new position for this entity.
 	 * @post   The position of this entity is equal to
 	 *         the given position.
+	 * @effect If this entity is attached to a world, that world registers
+	 *         the new position of this entity.
 	 * @throws IllegalArgumentException
 	 *         The given position is not a valid position for any
 	 *         entity.
@@ -186,6 +200,9 @@ public abstract class Entity {
 			throw new IllegalArgumentException();
 		}
 		this.position = position;
+		if (getWorld() != null && position != null) {
+			getWorld().updateEntityPosition(this);
+		}
 	}
 
 	/**
@@ -209,9 +226,54 @@ public abstract class Entity {
 	 * Make this unit stop falling.
 	 * 
 	 * @post   The new falling state of this entity is equal to false.
+	 * @post   This entity no longer has a landing position.
 	 */
 	public void stopFalling() {
 		this.falling = false;
+		this.landingPosition = null;
+	}
+
+	/**
+	 * Return the position at which this entity will land if it keeps falling.
+	 * 
+	 * @return The landing position of this falling entity in its world, computed
+	 *         when it started falling or when the world last changed since.
+	 *       | if (isFalling())
+	 *       |   then result.equals(getWorld().getLandingPosition(getPosition()))
+	 * @return Null if this entity is not falling, or if it is not attached to a world.
+	 *       | if (! isFalling() || getWorld() == null)
+	 *       |   then result == null
+	 * @note   The terrain in the column below this entity is only scanned once per
+	 *         version of its world, instead of checking for ground every step.
+	 */
+	public Position getLandingPosition() {
+		if (! isFalling() || getWorld() == null || getPosition() == null) {
+			return null;
+		}
+		if (landingPosition == null || landingVersion != getWorld().getWorldVersion()) {
+			landingPosition = getWorld().getLandingPosition(getPosition());
+			landingVersion = getWorld().getWorldVersion();
+		}
+		return landingPosition;
+	}
+
+	/**
+	 * Return the time, in seconds, this entity still falls before it lands.
+	 * 
+	 * @return The vertical distance from the position of this entity to its
+	 *         landing position, divided by the falling speed. Zero if this
+	 *         entity is not falling.
+	 *       | if (! isFalling())
+	 *       |   then result == 0
+	 *       | else result == Math.max(0, (getPosition().z() - getLandingPosition().z())
+	 *       |                               / -World.FALL_VECTOR[2])
+	 */
+	public double getTimeToLanding() {
+		Position landing = getLandingPosition();
+		if (landing == null) {
+			return 0;
+		}
+		return Math.max(0, (getPosition().z() - landing.z()) / -World.FALL_VECTOR[2]);
 	}
 
 	/**
@@ -252,11 +314,14 @@ public abstract class Entity {
 	 * 
 	 * @param  deltaTime
 	 *         The time step by which to execute this entity's fall behavior.
-	 * @effect Update the position according to the given time step and the
-	 *         fall vector.
-	 * @effect If this entity has reached ground, the entity stops falling and
-	 *         the position is set to the center position of the cube this entity
-	 *         currently occupies.
+	 * @effect If this entity lands within the given time step, the entity stops
+	 *         falling and its position is set to its landing position.
+	 *       | if (getTimeToLanding() <= deltaTime)
+	 *       |   then stopFalling()
+	 *       |   then setPosition(getLandingPosition())
+	 * @effect Otherwise, the position is updated according to the given time step
+	 *         and the fall vector.
+	 *       | else updatePosition(deltaTime, World.FALL_VECTOR)
 	 */
 	public void fallBehavior(double deltaTime) {
 		if (getPosition() == null || getWorld() == null) {
@@ -266,26 +331,16 @@ public abstract class Entity {
 			startFalling();
 		}
 		if (isFalling()) {
-			updatePosition(deltaTime, World.FALL_VECTOR);	
-			if (hasReachedGround()) {
+			Position landing = getLandingPosition();
+			if (getTimeToLanding() <= deltaTime) {
 				stopFalling();
-				setPosition(getPosition().getCenterPosition());
+				setPosition(landing);
+			} else {
+				updatePosition(deltaTime, World.FALL_VECTOR);
 			}
 		}
 	}
 
-	/**
-	 * Check whether this entity has reached ground.
-	 * 
-	 * @return True if and only if this entity finds itself in the bottom
-	 *         half of the cube it currently occupies, and if there is an
-	 *         underlying solid in the world to which this entity is attached.
-	 */
-	private boolean hasReachedGround() {
-		return (getPosition().z() % 1) > 0 && (getPosition().z() % 1) < 0.5 && 
-			 getWorld().hasUnderlyingSolid(getPosition());
-	}
-
 	/**
 	 * Update the position of this entity according to the given time step and the given
 	 * vector.
@@ -303,10 +358,8 @@ public abstract class Entity {
 		if (! isValidVector(vector)) {
 			throw new IllegalArgumentException();
 		}
-		Position updatedPosition = new Position();
-		for (int i = 0; i < 3; i++) {
-			updatedPosition.setAt(i, getPosition().getAt(i) + vector[i] * deltaTime);
-		}
+		Position updatedPosition = getPosition().add(
+				vector[0] * deltaTime, vector[1] * deltaTime, vector[2] * deltaTime);
 		try {
 			setPosition(updatedPosition);
 		} catch (IllegalArgumentException e) {
@@ -0,0 +1,314 @@
+package hillbillies.model;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import java.util.Set;
+
+import be.kuleuven.cs.som.annotate.Basic;
+
+/**
+ * A class of registries collecting the entities of a world in dense lists,
+ * one list per entity type and one list holding all entities.
+ *
+ * @invar  Each registered entity has a unique handle that doesn't change
+ *         as long as it stays registered.
+ * @invar  Each registered entity occurs exactly once in the dense list of all
+ *         entities and exactly once in the dense list of its type.
+ *
+ * @note   Removed entities are only dropped from the dense lists at the end of
+ *         the next tick. Until then they are skipped by all views, so entities
+ *         can be added and removed while a view is being iterated, without
+ *         copying. Entities added during an iteration are not visited by that
+ *         iteration.
+ *
+ * @author  Pieter-Jan Van den Broecke: EltCw
+ * 		    Emiel Vandeloo: WtkCw
+ * @version Final version Part 3: 20/05/2016
+ *
+ * https://github.com/EmielVandeloo/Hillbillies.git
+ */
+class EntityRegistry {
+
+	/**
+	 * Variable referencing the handle of each registered entity.
+	 */
+	private final Map<Entity, Integer> handles = new HashMap<>();
+
+	/**
+	 * Variable referencing the dense list of all entities, in order of registration.
+	 */
+	private final DenseList all = new DenseList();
+
+	/**
+	 * Variable referencing the dense list of each registered entity type.
+	 */
+	private final Map<String, DenseList> types = new LinkedHashMap<>();
+
+	/**
+	 * Variable registering the handle to give to the next registered entity.
+	 */
+	private int nextHandle = 0;
+
+	/**
+	 * Variable referencing the entities that were removed, but that are still
+	 * present in the dense lists.
+	 */
+	private final Set<Entity> removed = new HashSet<>();
+
+	/**
+	 * Return the number of registered entities.
+	 */
+	@Basic
+	int size() {
+		return handles.size();
+	}
+
+	/**
+	 * Return the number of registered entities of the given type.
+	 */
+	int size(String type) {
+		DenseList list = types.get(type);
+		return (list == null ? 0 : list.size);
+	}
+
+	/**
+	 * Return the number of registered entities that are instances of the given class.
+	 */
+	int size(Class<?> type) {
+		int size = 0;
+		for (DenseList list : types.values()) {
+			if (! list.entities.isEmpty() && type.isInstance(list.entities.get(0))) {
+				size += list.size;
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Check whether the given entity is registered.
+	 */
+	boolean contains(Object entity) {
+		return handles.containsKey(entity);
+	}
+
+	/**
+	 * Check whether an entity of the given type was ever registered.
+	 */
+	boolean hasType(String type) {
+		return types.containsKey(type);
+	}
+
+	/**
+	 * Return the handle of the given entity.
+	 *
+	 * @return The handle of the given entity. -1 if the given entity is not registered.
+	 */
+	int getHandle(Entity entity) {
+		Integer handle = handles.get(entity);
+		return (handle == null ? -1 : handle);
+	}
+
+	/**
+	 * Return the handle of the entity registered last.
+	 *
+	 * @return The highest handle ever given to a registered entity. -1 if no
+	 *         entity was ever registered.
+	 */
+	int getLastHandle() {
+		return nextHandle - 1;
+	}
+
+	/**
+	 * Register the given entity.
+	 *
+	 * @param  entity
+	 *         The entity to register.
+	 * @return True if and only if the given entity was not yet registered.
+	 */
+	boolean add(Entity entity) {
+		if (contains(entity)) {
+			return false;
+		}
+		handles.put(entity, nextHandle++);
+		boolean isPresent = removed.remove(entity);
+		all.add(entity, isPresent);
+		DenseList list = types.get(entity.getEntityId());
+		if (list == null) {
+			list = new DenseList();
+			types.put(entity.getEntityId(), list);
+		}
+		list.add(entity, isPresent);
+		return true;
+	}
+
+	/**
+	 * Unregister the given entity.
+	 *
+	 * @param  entity
+	 *         The entity to unregister.
+	 * @return True if and only if the given entity was registered.
+	 * @note   The given entity is dropped from the dense lists at the end of
+	 *         the next tick.
+	 */
+	boolean remove(Entity entity) {
+		if (handles.remove(entity) == null) {
+			return false;
+		}
+		all.size--;
+		types.get(entity.getEntityId()).size--;
+		removed.add(entity);
+		return true;
+	}
+
+	/**
+	 * Return a read-only live view of all registered entities.
+	 */
+	Set<Entity> getAll() {
+		return all.view;
+	}
+
+	/**
+	 * Return a read-only live view of the registered entities of the given type.
+	 *
+	 * @return A view of the registered entities of the given type. An empty view
+	 *         that will reflect later registrations if no such entity was ever
+	 *         registered.
+	 */
+	@SuppressWarnings("unchecked")
+	<T extends Entity> Set<T> getAllOf(String type) {
+		DenseList list = types.get(type);
+		if (list == null) {
+			list = new DenseList();
+			types.put(type, list);
+		}
+		return (Set<T>) list.view;
+	}
+
+	/**
+	 * Return a random registered entity of the given type.
+	 *
+	 * @param  type
+	 *         The type of the entity to return.
+	 * @param  random
+	 *         The randomizer to select the entity with.
+	 * @return A registered entity of the given type. Null if no such entity exists.
+	 * @note   Entries of removed entities are rejected and drawn again, which takes
+	 *         expected constant time as long as most entries are registered.
+	 */
+	Entity getRandomOf(String type, SplittableRandom random) {
+		DenseList list = types.get(type);
+		if (list == null || list.size == 0) {
+			return null;
+		}
+		while (true) {
+			Entity entity = list.entities.get(random.nextInt(list.entities.size()));
+			if (contains(entity)) {
+				return entity;
+			}
+		}
+	}
+
+	/**
+	 * End the current tick, dropping all entities removed since the end of
+	 * the previous tick from the dense lists.
+	 */
+	void endTick() {
+		if (removed.isEmpty()) {
+			return;
+		}
+		all.compact();
+		for (DenseList list : types.values()) {
+			list.compact();
+		}
+		removed.clear();
+	}
+
+	/**
+	 * A class of dense lists of entities, possibly still containing entities
+	 * that are no longer registered.
+	 */
+	private class DenseList {
+
+		/**
+		 * Variable referencing the entities of this list.
+		 */
+		private final List<Entity> entities = new ArrayList<>();
+
+		/**
+		 * Variable registering the number of registered entities in this list.
+		 */
+		private int size = 0;
+
+		/**
+		 * Variable referencing the read-only view of this list.
+		 */
+		private final Set<Entity> view = new View();
+
+		private void add(Entity entity, boolean isPresent) {
+			if (! isPresent) {
+				entities.add(entity);
+			}
+			size++;
+		}
+
+		private void compact() {
+			if (size < entities.size()) {
+				entities.removeIf(entity -> removed.contains(entity));
+			}
+		}
+
+		/**
+		 * A class of read-only views on a dense list.
+		 */
+		private class View extends AbstractSet<Entity> {
+
+			@Override
+			public int size() {
+				return size;
+			}
+
+			@Override
+			public boolean contains(Object object) {
+				if (! (object instanceof Entity) || ! EntityRegistry.this.contains(object)) {
+					return false;
+				}
+				return (DenseList.this == all) ||
+						(types.get(((Entity) object).getEntityId()) == DenseList.this);
+			}
+
+			@Override
+			public Iterator<Entity> iterator() {
+				return new Iterator<Entity>() {
+
+					private final int end = entities.size();
+
+					private int index = 0;
+
+					@Override
+					public boolean hasNext() {
+						while (index < end && ! EntityRegistry.this.contains(entities.get(index))) {
+							index++;
+						}
+						return index < end;
+					}
+
+					@Override
+					public Entity next() {
+						if (! hasNext()) {
+							throw new NoSuchElementException();
+						}
+						return entities.get(index++);
+					}
+				};
+			}
+		}
+	}
+}
@@ -1,13 +1,13 @@
 package hillbillies.model;
 
 import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.Random;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.SplittableRandom;
 import java.util.Set;
 import be.kuleuven.cs.som.annotate.Basic;
 import be.kuleuven.cs.som.annotate.Raw;
 import hillbillies.model.Unit;
-import hillbillies.world.Position;
 
 /**
  * A class of factions.
@@ -28,7 +28,7 @@ import hillbillies.world.Position;
 public class Faction {
 
 	/**
-	 * Variable registering the maximal amount of units allowed in a faction.
+	 * Variable registering the default maximal amount of units allowed in a faction.
 	 */
 	public static final int MAX_UNITS = 50;
 
@@ -55,7 +55,7 @@ public class Faction {
 	 * @invar  Each unit registered in the referenced list is
 	 *         effective and not yet terminated.
 	 */
-	private final Set<Unit> units = new HashSet<Unit>();
+	private final RandomAccessSet<Unit> units = new RandomAccessSet<Unit>();
 
 	/**
 	 * Variable registering the scheduler of this faction.
@@ -116,7 +116,7 @@ public class Faction {
 			this.isTerminated = true;
 			setWorld(null);
 			formerWorld.removeFaction(this);
-			for (Unit unit : units) {
+			for (Unit unit : getAllUnits()) {
 				unit.terminate();
 			}
 			this.scheduler = null;
@@ -217,9 +217,20 @@ public class Faction {
 	 * Generate a pseudo-random name.
 	 * 
 	 * @return A pseudo-random name.
+	 *       | result == getRandomizedName(new SplittableRandom())
 	 */
 	public static String getRandomizedName() {
-		Random random = new Random();
+		return getRandomizedName(new SplittableRandom());
+	}
+
+	/**
+	 * Generate a pseudo-random name with the given randomizer.
+	 * 
+	 * @param  random
+	 *         The randomizer to generate the name with.
+	 * @return A pseudo-random name.
+	 */
+	public static String getRandomizedName(SplittableRandom random) {
 		String name = "The ";
 		String[] adjectives = {"drunken ", "lovely ", "monstrous ", "different ", "basic ", "western ",
 				"agressive ", "bureaucratic ", "invisible ", "tiny ", "national ", "amazing "};
@@ -242,7 +253,7 @@ public class Faction {
 	@Basic
 	@Raw
 	public boolean hasAsUnit(@Raw Unit unit) {
-		return getAllUnits().contains(unit);
+		return units.contains(unit);
 	}
 
 	/**
@@ -268,14 +279,14 @@ public class Faction {
 	 * Check whether this faction has proper units attached to it.
 	 * 
 	 * @return False if the number of units attached to this faction
-	 *         exceeds the maximum number of units for any faction.
+	 *         exceeds the maximum number of units of this faction.
 	 * @return True if and only if this faction can have each of the
 	 *         units attached to it as one of its units,
 	 *         and if each of these units references this faction as
 	 *         the faction to which they are attached.
 	 */
 	public boolean hasProperUnits() {
-		if (getNbUnits() > MAX_UNITS) {
+		if (getNbUnits() > getMaxNbUnits()) {
 			return false;
 		}
 		for (Unit unit : units) {
@@ -293,7 +304,7 @@ public class Faction {
 	 * @return The size of the set collecting all units attached to this faction.
 	 */
 	public int getNbUnits() {
-		return getAllUnits().size();
+		return units.size();
 	}
 
 	/**
@@ -301,7 +312,22 @@ public class Faction {
 	 */
 	@Raw @Basic
 	public Set<Unit> getAllUnits() {
-		return new HashSet<Unit>(units);
+		return new LinkedHashSet<Unit>(units);
+	}
+
+	/**
+	 * Return the maximal amount of units allowed in this faction.
+	 * 
+	 * @return The maximal amount of units per faction of the world of this
+	 *         faction, if this faction is attached to a world.
+	 *       | if (getWorld() != null)
+	 *       |   then result == getWorld().getMaxNbUnitsPerFaction()
+	 * @return The default maximal amount of units allowed in a faction otherwise.
+	 *       | if (getWorld() == null)
+	 *       |   then result == MAX_UNITS
+	 */
+	public int getMaxNbUnits() {
+		return (getWorld() == null ? MAX_UNITS : getWorld().getMaxNbUnitsPerFaction());
 	}
 
 	/**
@@ -317,7 +343,7 @@ public class Faction {
 	 */
 	public void addUnit(@Raw Unit unit) {
 		assert (unit != null) && (unit.getFaction() == this);
-		if ((getNbUnits() < MAX_UNITS) && !hasAsUnit(unit)) {
+		if ((getNbUnits() < getMaxNbUnits()) && !hasAsUnit(unit)) {
 			units.add(unit);
 		}
 	}
@@ -339,6 +365,16 @@ public class Faction {
 		units.remove(unit);
 	}
 
+	/**
+	 * Return the randomizer of this faction.
+	 * 
+	 * @return The randomizer of the world of this faction, if any. A new
+	 *         randomizer otherwise.
+	 */
+	private SplittableRandom getRandom() {
+		return (getWorld() == null ? new SplittableRandom() : getWorld().getRandom());
+	}
+
 	/**
 	 * Return a random member of this faction.
 	 * 
@@ -346,15 +382,7 @@ public class Faction {
 	 *         if no such unit exists.
 	 */
 	public Unit getRandomMember() {
-		int nb = new Random().nextInt(getNbUnits());
-		int i = 0;
-		for (Unit unit : getAllUnits()) {
-			if (nb == i) {
-				return unit;
-			}
-			i++;
-		}
-		return null;
+		return units.getRandom(getRandom());
 	}
 
 	/**
@@ -399,7 +427,7 @@ public class Faction {
 
 		Faction faction;
 		do {
-			faction = factions.get(new Random().nextInt(factions.size()));
+			faction = factions.get(getRandom().nextInt(factions.size()));
 		} while (faction.equals(this));
 
 		return faction;
@@ -410,20 +438,17 @@ public class Faction {
 	 * 
 	 * @param  unit
 	 *         The unit around which to search the closest unit.
-	 * @return The unit for which the distance between that unit and the given
-	 *         unit is minimal. Null if no such unit exists.
+	 * @return The unit of this faction, different from the given unit, for which
+	 *         the distance between that unit and the given unit is minimal. Null if
+	 *         no such unit exists or if this faction is not attached to a world.
 	 */
 	public Unit getClosestMember(Unit unit) {
-		Unit closest = null;
-		double distance = Double.POSITIVE_INFINITY;
-		for (Unit member : getAllUnits()) {
-			double newDistance = Position.getDistance(unit.getPosition(), member.getPosition());
-			if (newDistance < distance && ! member.equals(unit)) {
-				closest = member;
-				distance = newDistance;
-			}
+		if (getWorld() == null) {
+			return null;
 		}
-		return closest;
+		return getWorld().getClosestUnit(unit.getPosition(), 
+				member -> (member.getFaction() == this) && (member != unit), 
+				getNbUnits() - (hasAsUnit(unit) ? 1 : 0));
 	}
 
 	/**
@@ -431,28 +456,17 @@ public class Faction {
 	 * 
 	 * @param  unit
 	 *         The unit around which to search the closest enemy unit.
-	 * @return The unit of a different faction than the given unit for which the distance
-	 *         between that unit and the given unit is minimal. Null if no such unit exists.
+	 * @return The unit of a different faction than this faction for which the distance
+	 *         between that unit and the given unit is minimal. Null if no such unit exists
+	 *         or if this faction is not attached to a world.
 	 */
 	public Unit getClosestEnemy(Unit unit) {
-		Set<Faction> factions = getWorld().getAllFactions();
-		if (factions.size() < 2) {
+		if (getWorld() == null) {
 			return null;
 		}
-		Unit closest = null;
-		double distance = Double.POSITIVE_INFINITY;
-		for (Faction faction : factions) {
-			if (faction.getAllUnits().isEmpty()) {continue;}
-			if (! faction.equals(this)) {
-				Unit newUnit =  faction.getClosestMember(unit);
-				double newDistance = Position.getDistance(unit.getPosition(), newUnit.getPosition());
-				if (newDistance < distance) {
-					closest = newUnit;
-					distance = newDistance;
-				}
-			}
-		}
-		return closest;
+		return getWorld().getClosestUnit(unit.getPosition(), 
+				enemy -> (enemy.getFaction() != this), 
+				getWorld().getAllUnits().size() - getNbUnits());
 	}
 
 	/**
@@ -492,4 +506,17 @@ public class Faction {
 			throw new IllegalArgumentException();
 		this.scheduler = scheduler;
 	}
+
+	/**
+	 * Schedule all given tasks for the units of this faction.
+	 * 
+	 * @param  tasks
+	 *         The tasks to schedule.
+	 * @effect The given tasks are added to the unassigned tasks of the
+	 *         scheduler of this faction at once.
+	 *       | getScheduler().addAll(tasks)
+	 */
+	public void schedule(Collection<Task> tasks) throws IllegalArgumentException, IllegalStateException {
+		getScheduler().addAll(tasks);
+	}
 }
\ No newline at end of file
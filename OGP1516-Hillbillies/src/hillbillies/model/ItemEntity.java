@@ -1,6 +1,6 @@
 package hillbillies.model;
 
-import java.util.Random;
+import java.util.SplittableRandom;
 
 import be.kuleuven.cs.som.annotate.Basic;
 import be.kuleuven.cs.som.annotate.Immutable;
@@ -78,7 +78,7 @@ public abstract class ItemEntity extends Entity {
 	 *        The position for this new item entity.
 	 */
 	public ItemEntity(World world, Position position) {
-		this(world, position, getRandomWeight());
+		this(world, position, getRandomWeight(world == null ? new SplittableRandom() : world.getRandom()));
 	}
 	
 	/**
@@ -107,22 +107,25 @@ public abstract class ItemEntity extends Entity {
 	 * Return a random weight between the minimal and the maximal value of the weight
 	 * for any item entity.
 	 * 
+	 * @param  random
+	 *         The randomizer to generate the weight with.
 	 * @return A random integer value between the minimal and the maximal value of the 
 	 *         weight for any item entity.
 	 */
-	private static int getRandomWeight() {
-		Random random = new Random();
+	private static int getRandomWeight(SplittableRandom random) {
 		return random.nextInt((MAX_WEIGHT - MIN_WEIGHT) + 1) + MIN_WEIGHT;
 	}
 
 	/**
 	 * Return whether an item entity will be dropped or not.
 	 * 
+	 * @param  random
+	 *         The randomizer to decide with.
 	 * @return True if and only if a randomly generated value between 0 and 1
 	 *         is less than the drop chance.
 	 */
-	public static boolean willDrop() {
-		return new Random().nextDouble() < dropChance;
+	public static boolean willDrop(SplittableRandom random) {
+		return random.nextDouble() < dropChance;
 	}
 
 	/**
@@ -150,11 +153,17 @@ public abstract class ItemEntity extends Entity {
 	 * @effect If this item entity is currently falling, its fall behavior is performed.
 	 * @effect Otherwise, if this item entity cannot stand on its current position, its
 	 *         fall behavior is performed.
+	 * @effect If this item entity is an active entity of its world that is not falling
+	 *         afterwards, it is put asleep in its world until the terrain in or under
+	 *         its cube changes.
 	 * @throws IllegalArgumentException
 	 * 		   The item entity does not have proper world or position.
 	 */
 	public void advanceTime(double deltaTime) {
 		fallBehavior(deltaTime);
+		if (! isFalling() && getWorld() != null && getWorld().hasAsEntity(this)) {
+			getWorld().sleep(this);
+		}
 	}
 	
 	/**
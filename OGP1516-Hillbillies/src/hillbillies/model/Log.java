@@ -51,7 +51,7 @@ public class Log extends ItemEntity {
 	 *         to the given world at the given position.
 	 */
 	public static void drop(World world, Position position) {
-		if (ItemEntity.willDrop()) {
+		if (ItemEntity.willDrop(world.getRandom())) {
 			new Log(world, position).spawn();;
 		}
 	}
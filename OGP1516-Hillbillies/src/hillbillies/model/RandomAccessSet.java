@@ -0,0 +1,154 @@
+package hillbillies.model;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+import be.kuleuven.cs.som.annotate.Basic;
+
+/**
+ * A class of sets backed by a dense list, supporting insertion, removal,
+ * membership and random selection in constant time.
+ *
+ * @invar  Each element of this set is stored at exactly one index of the
+ *         dense list, and the index map references that index.
+ *
+ * @author  Pieter-Jan Van den Broecke: EltCw
+ * 		    Emiel Vandeloo: WtkCw
+ * @version Final version Part 3: 20/05/2016
+ *
+ * https://github.com/EmielVandeloo/Hillbillies.git
+ */
+class RandomAccessSet<E> extends AbstractSet<E> {
+
+	/**
+	 * Variable referencing the dense list of elements of this set.
+	 */
+	private final List<E> elements = new ArrayList<>();
+
+	/**
+	 * Variable referencing the index of each element in the dense list.
+	 */
+	private final Map<E, Integer> indices = new HashMap<>();
+
+	/**
+	 * Return the number of elements in this set.
+	 */
+	@Override @Basic
+	public int size() {
+		return elements.size();
+	}
+
+	/**
+	 * Check whether this set contains the given object.
+	 */
+	@Override
+	public boolean contains(Object object) {
+		return indices.containsKey(object);
+	}
+
+	/**
+	 * Add the given element to this set.
+	 *
+	 * @param  element
+	 *         The element to add.
+	 * @return True if and only if this set did not yet contain the given element.
+	 */
+	@Override
+	public boolean add(E element) {
+		if (indices.containsKey(element)) {
+			return false;
+		}
+		indices.put(element, elements.size());
+		elements.add(element);
+		return true;
+	}
+
+	/**
+	 * Remove the given object from this set.
+	 *
+	 * @param  object
+	 *         The object to remove.
+	 * @return True if and only if this set contained the given object.
+	 * @note   The last element of the dense list takes the place of the removed one.
+	 */
+	@Override
+	public boolean remove(Object object) {
+		Integer index = indices.remove(object);
+		if (index == null) {
+			return false;
+		}
+		E last = elements.remove(elements.size() - 1);
+		if (index < elements.size()) {
+			elements.set(index, last);
+			indices.put(last, index);
+		}
+		return true;
+	}
+
+	/**
+	 * Return the element at the given index of the dense list.
+	 *
+	 * @throws IndexOutOfBoundsException
+	 *         The given index is negative or not smaller than the size of this set.
+	 */
+	E get(int index) throws IndexOutOfBoundsException {
+		return elements.get(index);
+	}
+
+	/**
+	 * Return a random element of this set.
+	 *
+	 * @param  random
+	 *         The randomizer to select the element with.
+	 * @return An element of this set. Null if this set is empty.
+	 */
+	E getRandom(SplittableRandom random) {
+		if (elements.isEmpty()) {
+			return null;
+		}
+		return elements.get(random.nextInt(elements.size()));
+	}
+
+	/**
+	 * Return an iterator over the elements of this set.
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+
+			private int index = 0;
+
+			private E current = null;
+
+			@Override
+			public boolean hasNext() {
+				return index < elements.size();
+			}
+
+			@Override
+			public E next() {
+				if (! hasNext()) {
+					throw new NoSuchElementException();
+				}
+				current = elements.get(index++);
+				return current;
+			}
+
+			@Override
+			public void remove() {
+				if (current == null) {
+					throw new IllegalStateException();
+				}
+				RandomAccessSet.this.remove(current);
+				current = null;
+				index--;
+			}
+		};
+	}
+}
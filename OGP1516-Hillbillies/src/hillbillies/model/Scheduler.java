@@ -2,9 +2,12 @@ package hillbillies.model;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -16,6 +19,10 @@ import be.kuleuven.cs.som.annotate.Model;
  * 
  * @invar Each scheduler has proper tasks attached to it.
  *      | hasProperTasks()
+ * 
+ * @note  A scheduler can be shared by units that advance their time on
+ *        different threads. All its tasks are guarded by the scheduler
+ *        itself, and a unit claims its next task in a single atomic step.
  *      
  * @author  Pieter-Jan Van den Broecke: EltCw
  * 		    Emiel Vandeloo: WtkCw
@@ -26,42 +33,43 @@ import be.kuleuven.cs.som.annotate.Model;
 public class Scheduler {
 	
 	/**
-	 * Variable referencing a list collecting all the unassigned tasks
-	 * of this scheduler.
+	 * Variable registering the identifier to give to the next new scheduler.
+	 */
+	private static final AtomicLong nextId = new AtomicLong();
+	
+	/**
+	 * Variable registering the identifier of this scheduler. Schedulers are
+	 * always locked in order of increasing identifiers.
+	 */
+	private final long id = nextId.getAndIncrement();
+	
+	/**
+	 * Variable referencing a heap collecting all the unassigned tasks
+	 * of this scheduler, ordered by decreasing priority.
 	 * 
-	 * @invar The referenced list is effective.
+	 * @invar The referenced heap is effective.
 	 *      | notAssigned != null
-	 * @invar Each task registered in the referenced list is
+	 * @invar Each task registered in the referenced heap is
 	 *        effective and not yet terminated.
 	 *      | for each task in notAssigned:
 	 *      |   ( (task != null) &&
 	 *      |     (! task.isTerminated()) )
-	 * @invar No task is registered at several positions
-	 *        in the referenced list.
-	 *      | for each I,J in 0..notAssigned.size()-1:
-	 *      |   ( (I == J) ||
-	 *      |     (notAssigned.get(I) != notAssigned.get(J))
 	 */
-	private List<Task> notAssigned = new ArrayList<>();
+	private final TaskHeap notAssigned = new TaskHeap();
 	
 	/**
-	 * Variable referencing a list collecting all the assigned tasks
-	 * of this scheduler.
+	 * Variable referencing a set collecting all the assigned tasks
+	 * of this scheduler, in order of assignment.
 	 * 
-	 * @invar The referenced list is effective.
+	 * @invar The referenced set is effective.
 	 *      | assigned != null
-	 * @invar Each task registered in the referenced list is
+	 * @invar Each task registered in the referenced set is
 	 *        effective and not yet terminated.
 	 *      | for each task in assigned:
 	 *      |   ( (task != null) &&
 	 *      |     (! task.isTerminated()) )
-	 * @invar No task is registered at several positions
-	 *        in the referenced list.
-	 *      | for each I,J in 0..assigned.size()-1:
-	 *      |   ( (I == J) ||
-	 *      |     (assigned.get(I) != assigned.get(J))
 	 */
-	private List<Task> assigned = new ArrayList<>();
+	private final Set<Task> assigned = new LinkedHashSet<>();
 	
 	/**
 	 * Initialize this new scheduler with no tasks yet.
@@ -93,19 +101,22 @@ public class Scheduler {
 	 */
 	@Model
 	private boolean hasProperTasks() {
-		for (int i = 1; i <= getNbTasks(); i++) {
-			if (!canHaveAsTask(getTaskAt(i)) || !getTaskAt(i).hasAsScheduler(this))
+		for (Task task : getAllTasks()) {
+			if (!canHaveAsTask(task) || !task.hasAsScheduler(this))
 				return false;
 		}
 		return true;
 	}
 	
 	/**
-	 * Return all assigned tasks.
+	 * Return all assigned tasks, in order of assignment.
+	 * 
+	 * @note   The resulting list is a copy. Changing it does not affect
+	 *         this scheduler.
 	 */
 	@Basic
-	public List<Task> getAssignedTasks() {
-		return this.assigned;
+	public synchronized List<Task> getAssignedTasks() {
+		return new ArrayList<>(this.assigned);
 	}
 	
 	/**
@@ -114,8 +125,8 @@ public class Scheduler {
 	 * @return The size of the list of assigned tasks.
 	 *       | result == ...
 	 */
-	public int getNbAssignedTasks() {
-		return getAssignedTasks().size();
+	public synchronized int getNbAssignedTasks() {
+		return this.assigned.size();
 	}
 	
 	/**
@@ -130,7 +141,7 @@ public class Scheduler {
 	 *       | (index < 1) || (index > getNbTasks())
 	 */
 	@Basic
-	public Task getAssignedTaskAt(int index) throws IndexOutOfBoundsException {
+	public synchronized Task getAssignedTaskAt(int index) throws IndexOutOfBoundsException {
 		if (index < 1 || index > getNbAssignedTasks()) {
 			throw new IndexOutOfBoundsException();
 		}
@@ -138,11 +149,15 @@ public class Scheduler {
 	}
 	
 	/**
-	 * Return all unassigned tasks.
+	 * Return all unassigned tasks, ordered by decreasing priority. Tasks with
+	 * the same priority are ordered by the moment they became unassigned.
+	 * 
+	 * @note   The resulting list is a copy. Changing it does not affect
+	 *         this scheduler.
 	 */
 	@Basic
-	public List<Task> getNotAssignedTasks() {
-		return this.notAssigned;
+	public synchronized List<Task> getNotAssignedTasks() {
+		return this.notAssigned.toSortedList();
 	}
 	
 	/**
@@ -151,8 +166,8 @@ public class Scheduler {
 	 * @return The size of the list of unassigned tasks.
 	 *       | result == ...
 	 */
-	public int getNbNotAssignedTasks() {
-		return getNotAssignedTasks().size();
+	public synchronized int getNbNotAssignedTasks() {
+		return this.notAssigned.size();
 	}
 	
 	/**
@@ -167,10 +182,13 @@ public class Scheduler {
 	 *       | (index < 1) || (index > getNbTasks())
 	 */
 	@Basic
-	public Task getNotAssignedTaskAt(int index) throws IndexOutOfBoundsException {
+	public synchronized Task getNotAssignedTaskAt(int index) throws IndexOutOfBoundsException {
 		if (index < 1 || index > getNbNotAssignedTasks()) {
 			throw new IndexOutOfBoundsException();
 		}
+		if (index == 1) {
+			return this.notAssigned.peek();
+		}
 		return getNotAssignedTasks().get(index-1);
 	}
 	
@@ -180,7 +198,7 @@ public class Scheduler {
 	 * @return All tasks of this scheduler.
 	 *       | ...
 	 */
-	public List<Task> getAllTasks() {
+	public synchronized List<Task> getAllTasks() {
 		List<Task> allTasks = new ArrayList<>();
 		allTasks.addAll(getAssignedTasks());
 		allTasks.addAll(getNotAssignedTasks());
@@ -193,8 +211,8 @@ public class Scheduler {
 	 * @return The size of the list of all tasks of this scheduler
 	 *       | result == ...
 	 */
-	public int getNbTasks() {
-		return getAllTasks().size();
+	public synchronized int getNbTasks() {
+		return getNbAssignedTasks() + getNbNotAssignedTasks();
 	}
 	
 	/**
@@ -234,8 +252,8 @@ public class Scheduler {
 	 *       | for some I in 1..getNbAssignedTasks():
 	 *       |   getAssignedTaskAt(I) == task
 	 */
-	public boolean hasAsAssignedTask(Task task) {
-		return getAssignedTasks().contains(task);
+	public synchronized boolean hasAsAssignedTask(Task task) {
+		return this.assigned.contains(task);
 	}
 	
 	/**
@@ -249,8 +267,8 @@ public class Scheduler {
 	 *       | for some I in 1..getNbNotAssignedTasks():
 	 *       |   getNotAssignedTaskAt(I) == task
 	 */
-	public boolean hasAsNotAssignedTask(Task task) {
-		return getNotAssignedTasks().contains(task);
+	public synchronized boolean hasAsNotAssignedTask(Task task) {
+		return this.notAssigned.contains(task);
 	}
 	
 	/**
@@ -264,8 +282,8 @@ public class Scheduler {
 	 *       | for some I in 1..getNbTasks():
 	 *       |   getTaskAt(I) == task
 	 */
-	public boolean hasAsTask(Task task) {
-		return getAllTasks().contains(task);
+	public synchronized boolean hasAsTask(Task task) {
+		return hasAsAssignedTask(task) || hasAsNotAssignedTask(task);
 	}
 	
 	/**
@@ -279,14 +297,14 @@ public class Scheduler {
 	 *       |   if (hasAsTask(task))
 	 *       |     result == true
 	 */
-	public boolean areTasksPartOf(Collection<Task> tasks) {
+	public synchronized boolean areTasksPartOf(Collection<Task> tasks) {
 //		for (Task task : tasks) {
 //			if (!hasAsTask(task)) {
 //				return false;
 //			}
 //		}
 //		return true;
-		return tasks.stream().allMatch(task->getAllTasks().contains(task));
+		return tasks.stream().allMatch(task->hasAsTask(task));
 	}
 
 	/**
@@ -294,27 +312,68 @@ public class Scheduler {
 	 * 
 	 * @param  task
 	 *         The task to add.
-	 * @effect The given task is added to the list of unassigned tasks.
-	 *       | getNotAssignedTasks().add(task)
-	 * @effect The list of unassigned tasks is sorted.
-	 *       | sort()
+	 * @post   The given task is an unassigned task of this scheduler, coming after
+	 *         all unassigned tasks with the same priority.
+	 *       | new.hasAsNotAssignedTask(task)
 	 * @throws IllegalArgumentException
 	 *         The given task is not a valid task for any scheduler.
 	 *       | !canHaveAsTask(task)
 	 * @throws IllegalStateException
 	 *         This scheduler already references the given task as one of its tasks.
 	 *       | hasAsTask(task)
+	 * @note   The given task references this scheduler before it is inserted, so
+	 *         that a concurrent change of its priority, which locks the schedulers
+	 *         the task references, also repositions it in this scheduler.
 	 */
-	public void addToNotAssignedTasks(Task task) throws IllegalArgumentException, IllegalStateException {
+	public synchronized void addToNotAssignedTasks(Task task) throws IllegalArgumentException, IllegalStateException {
 		if (!canHaveAsTask(task)) {
 			throw new IllegalStateException();
 		}
 		if (hasAsTask(task)) {
 			throw new IllegalStateException();
 		}
-		getNotAssignedTasks().add(task);
 		task.addScheduler(this);
-		sort();
+		this.notAssigned.add(task);
+	}
+	
+	/**
+	 * Add all given tasks to the list of unassigned tasks of this scheduler.
+	 * 
+	 * @param  tasks
+	 *         The tasks to add.
+	 * @post   Each of the given tasks is an unassigned task of this scheduler.
+	 *       | for each task in tasks:
+	 *       |   new.hasAsNotAssignedTask(task)
+	 * @note   The given tasks are merged into the unassigned tasks in a single
+	 *         pass, which is much cheaper than adding them one by one when many
+	 *         tasks are submitted at once.
+	 * @throws IllegalArgumentException
+	 *         The given collection is not effective, or one of the given tasks is
+	 *         not a valid task for any scheduler.
+	 *       | tasks == null || 
+	 *       | for some task in tasks: !canHaveAsTask(task)
+	 * @throws IllegalStateException
+	 *         This scheduler already references one of the given tasks as one of its
+	 *         tasks, or the given collection holds the same task more than once.
+	 * @note   No task is added if one of the given tasks cannot be added.
+	 */
+	public synchronized void addAll(Collection<Task> tasks) throws IllegalArgumentException, IllegalStateException {
+		if (tasks == null) {
+			throw new IllegalArgumentException();
+		}
+		Set<Task> distinct = new HashSet<>(tasks.size() * 2);
+		for (Task task : tasks) {
+			if (!canHaveAsTask(task)) {
+				throw new IllegalArgumentException();
+			}
+			if (!distinct.add(task) || task.hasAsScheduler(this)) {
+				throw new IllegalStateException();
+			}
+		}
+		for (Task task : tasks) {
+			task.addScheduler(this);
+		}
+		this.notAssigned.addAll(tasks);
 	}
 	
 	/**
@@ -322,17 +381,17 @@ public class Scheduler {
 	 * 
 	 * @param  task
 	 *         The task to remove.
-	 * @effect The given task is removed from the list of unassigned tasks.
-	 *       | getNotAssignedTasks().remove(task)
+	 * @post   The given task is no longer an unassigned task of this scheduler.
+	 *       | ! new.hasAsNotAssignedTask(task)
 	 * @throws IllegalStateException
 	 *         The scheduler does not have the given task as one of its unassigned tasks.
 	 *       | !hasAsNotAssignedTask(task)
 	 */
-	public void removeFromNotAssignedTasks(Task task) throws IllegalStateException {
+	public synchronized void removeFromNotAssignedTasks(Task task) throws IllegalStateException {
 		if (!hasAsNotAssignedTask(task)) {
 			throw new IllegalStateException();
 		}
-		getNotAssignedTasks().remove(task);
+		this.notAssigned.remove(task);
 		task.removeScheduler(this);
 	}
 	
@@ -341,8 +400,8 @@ public class Scheduler {
 	 * 
 	 * @param  task
 	 *         The task to add.
-	 * @effect The given task is added to the list of assigned tasks.
-	 *       | getAssignedTasks().add(task)
+	 * @post   The given task is an assigned task of this scheduler.
+	 *       | new.hasAsAssignedTask(task)
 	 * @throws IllegalArgumentException
 	 *         The given task is not a valid task for any scheduler.
 	 *       | !canHaveAsTask(task)
@@ -350,15 +409,15 @@ public class Scheduler {
 	 *         This scheduler already references the given task as one of its tasks.
 	 *       | hasAsTask(task)
 	 */
-	public void addToAssignedTasks(Task task) throws IllegalArgumentException, IllegalStateException {
+	public synchronized void addToAssignedTasks(Task task) throws IllegalArgumentException, IllegalStateException {
 		if (!canHaveAsTask(task)) {
 			throw new IllegalArgumentException();
 		}
 		if (hasAsTask(task)) {
 			throw new IllegalStateException();
 		}
-		getAssignedTasks().add(task);
 		task.addScheduler(this);
+		this.assigned.add(task);
 	}
 	
 	/**
@@ -366,17 +425,17 @@ public class Scheduler {
 	 * 
 	 * @param  task
 	 *         The task to remove.
-	 * @effect The given task is removed from the list of assigned tasks.
-	 *       | getAssignedTasks().remove(task)
+	 * @post   The given task is no longer an assigned task of this scheduler.
+	 *       | ! new.hasAsAssignedTask(task)
 	 * @throws IllegalStateException
 	 *         The scheduler does not have the given task as one of its assigned tasks.
 	 *       | !hasAsAssignedTask(task)
 	 */
-	public void removeFromAssignedTasks(Task task) throws IllegalStateException {
+	public synchronized void removeFromAssignedTasks(Task task) throws IllegalStateException {
 		if (!hasAsAssignedTask(task)) {
 			throw new IllegalStateException();
 		}
-		getAssignedTasks().remove(task);
+		this.assigned.remove(task);
 		task.removeScheduler(this);
 	}
 	
@@ -392,7 +451,7 @@ public class Scheduler {
 	 * @effect The new task is added to the list of unassigned tasks.
 	 *       | addToNotAssignedTasks(newTask)
 	 */
-	public void replace(Task oldTask, Task newTask) throws IllegalArgumentException {
+	public synchronized void replace(Task oldTask, Task newTask) throws IllegalArgumentException {
 		removeFromNotAssignedTasks(oldTask);
 		try {
 			addToNotAssignedTasks(newTask);
@@ -403,11 +462,59 @@ public class Scheduler {
 	}
 	
 	/**
-	 * Sort the list of unassigned tasks.
+	 * Set the priority of the given task to the given priority, while holding
+	 * the locks of all schedulers of that task.
+	 * 
+	 * @param  task
+	 *         The task whose priority is to be set.
+	 * @param  priority
+	 *         The new priority for the given task.
+	 * @post   The priority of the given task is equal to the given priority.
+	 *       | new.task.getPriority() == priority
+	 * @post   Each scheduler of the given task orders it among its unassigned
+	 *         tasks according to its new priority.
+	 * @note   If the schedulers of the given task change while their locks are
+	 *         being taken, the locks of the new set of schedulers are taken and
+	 *         the priority is set again, so that no scheduler keeps the task at
+	 *         a place that belongs to its old priority.
+	 */
+	static void setPriority(Task task, int priority) {
+		Set<Scheduler> schedulers;
+		do {
+			schedulers = new HashSet<>(task.getSchedulers());
+			List<Scheduler> locks = getLockOrder(schedulers);
+			runLocked(locks, 0, () -> {
+				task.updatePriority(priority);
+				for (Scheduler scheduler : locks) {
+					scheduler.notAssigned.update(task);
+				}
+			});
+		} while (! schedulers.equals(task.getSchedulers()));
+	}
+	
+	/**
+	 * Return the given schedulers in the order in which they must be locked.
+	 */
+	@Model
+	private static List<Scheduler> getLockOrder(Collection<Scheduler> schedulers) {
+		List<Scheduler> locks = new ArrayList<>(schedulers);
+		locks.sort((first, second) -> Long.compare(first.id, second.id));
+		return locks;
+	}
+	
+	/**
+	 * Run the given action while holding the locks of the given schedulers,
+	 * starting from the given index.
 	 */
 	@Model
-	private void sort() {
-		Collections.sort(getNotAssignedTasks());
+	private static void runLocked(List<Scheduler> locks, int index, Runnable action) {
+		if (index == locks.size()) {
+			action.run();
+		} else {
+			synchronized (locks.get(index)) {
+				runLocked(locks, index + 1, action);
+			}
+		}
 	}
 	
 	/**
@@ -416,7 +523,7 @@ public class Scheduler {
 	 * @return True if and only if the number of unassigned tasks of this scheduler is greater than zero.
 	 *       | result == getNbNotAssignedTasks > 0
 	 */
-	public boolean isTaskAvailable() {
+	public synchronized boolean isTaskAvailable() {
 		return getNbNotAssignedTasks() > 0;
 	}
 	
@@ -428,35 +535,46 @@ public class Scheduler {
 	 *       |   then result == getNotAssignedTaskAt(1)
 	 *       | else result == null
 	 */
-	public Task getTopPriorityTask() {
-		if (getNbNotAssignedTasks() < 1) {
-			return null;
-		}
-		return getNotAssignedTaskAt(1);
+	public synchronized Task getTopPriorityTask() {
+		return this.notAssigned.peek();
 	}
 	
 	/**
-	 * Assign the given task to the given unit.
-	 *  
-	 * @param  task
-	 *         The task to assign.
+	 * Claim the most important task of this scheduler for the given unit.
+	 * 
 	 * @param  unit
-	 *         The unit to assign the task to.
-	 * @effect The given task is removed from the list of unassigned tasks.
-	 *       | removeFromNotAssignedTasks(task)
-	 * @effect The given task is added to the list of assigned tasks.
-	 *       | addToAssignedTasks(task)
-	 * @effect The task of the given unit is set to the given task.
-	 *       | unit.setTask(task)
-	 * @effect The executing unit of the given task is set to the given unit.
-	 *       | task.setExecutingUnit(unit)
+	 *         The unit to claim the most important task for.
+	 * @return The top priority task at the moment of the claim. Null if there
+	 *         is no such task.
+	 *       | result == getTopPriorityTask()
+	 * @post   If a task is claimed, it is an assigned task of this scheduler
+	 *         instead of an unassigned task.
+	 *       | if (result != null)
+	 *       |   then (new.hasAsAssignedTask(result) && 
+	 *       |         ! new.hasAsNotAssignedTask(result))
+	 * @effect If a task is claimed, the task of the given unit is set to that task.
+	 *       | if (result != null)
+	 *       |   then unit.setTask(result)
+	 * @effect If a task is claimed, the executing unit of that task is set to the
+	 *         given unit.
+	 *       | if (result != null)
+	 *       |   then result.setExecutingUnit(unit)
+	 * @note   Taking the task from the unassigned tasks and registering it as
+	 *         assigned happen in a single atomic step, so that units claiming
+	 *         tasks on different threads never claim the same task.
 	 */
-	@Model
-	private void assign(Task task, Unit unit) throws IllegalArgumentException {
-		removeFromNotAssignedTasks(task);
-		addToAssignedTasks(task);
+	public Task claimTopPriorityTask(Unit unit) {
+		Task task;
+		synchronized (this) {
+			task = this.notAssigned.poll();
+			if (task == null) {
+				return null;
+			}
+			this.assigned.add(task);
+		}
 		unit.setTask(task);
 		task.setExecutingUnit(unit);
+		return task;
 	}
 	
 	/**
@@ -464,15 +582,11 @@ public class Scheduler {
 	 * 
 	 * @param  unit
 	 *         The unit to assign the most important task to.
-	 * @effect If the number of unassigned tasks is positive, the top priority
-	 *         task is assigned to the given unit.
-	 *       | if (getNbNotAssignedTasks() > 0)
-	 *       |   then assign(getTopPriorityTask(), unit) 
+	 * @effect The top priority task is claimed for the given unit.
+	 *       | claimTopPriorityTask(unit)
 	 */
 	public void assignTopPriorityTask(Unit unit) {
-		if (getTopPriorityTask() != null) {
-			assign(getTopPriorityTask(), unit);
-		}
+		claimTopPriorityTask(unit);
 	}
 	
 	/**
@@ -485,26 +599,43 @@ public class Scheduler {
 	 *       | task.setExecutingUnit(null)
 	 * @post   The priority of the given task is reduced.
 	 *       | (new task).getPriority() < task.getPriority()
-	 * @effect The given task is removed from the list of assigned tasks.
-	 *       | removeFromAssignedTasks(task)
-	 * @effect The given task is added to the list of unassigned tasks.
-	 *       | addToNotAssignedTasks(task)
+	 * @post   The given task is an unassigned task of this scheduler instead
+	 *         of an assigned task, coming after all unassigned tasks with the
+	 *         same priority.
+	 *       | ! new.hasAsAssignedTask(task) && new.hasAsNotAssignedTask(task)
 	 * @throws IllegalArgumentException
 	 *         This scheduler does not have the given task as one of its assigned tasks.
 	 *       | !hasAsNotAssignedTask(task)
+	 * @note   The check, the new priority and the move to the unassigned tasks
+	 *         happen while holding the locks of this scheduler and of all other
+	 *         schedulers of the task. Of two concurrent transfers of the same
+	 *         task, only one succeeds.
 	 */
 	public void transferUnfinishedTask(Task task) throws IllegalArgumentException {
-		if (!hasAsAssignedTask(task)) {
-			throw new IllegalArgumentException();
-		}
-		task.setExecutingUnit(null);
-		if (task.getPriority() < 10 && task.getPriority() > -10) {
-			task.setPriority(-10);
-		} else {
-			task.setPriority(task.getPriority() - Math.abs(task.getPriority()/4));
+		Set<Scheduler> schedulers = new HashSet<>(task.getSchedulers());
+		schedulers.add(this);
+		List<Scheduler> locks = getLockOrder(schedulers);
+		runLocked(locks, 0, () -> {
+			if (!this.assigned.contains(task)) {
+				throw new IllegalArgumentException();
+			}
+			task.setExecutingUnit(null);
+			if (task.getPriority() < 10 && task.getPriority() > -10) {
+				task.updatePriority(-10);
+			} else {
+				task.updatePriority(task.getPriority() - Math.abs(task.getPriority()/4));
+			}
+			for (Scheduler scheduler : locks) {
+				scheduler.notAssigned.update(task);
+			}
+			this.assigned.remove(task);
+			this.notAssigned.add(task);
+		});
+		if (! schedulers.equals(task.getSchedulers())) {
+			// Another scheduler took the task meanwhile, and may have queued
+			// it with its old priority.
+			setPriority(task, task.getPriority());
 		}
-		removeFromAssignedTasks(task);
-		addToNotAssignedTasks(task);
 	}
 	
 	public List<Task> getAllTasksSatisfying(Predicate<Task> condition) {
@@ -0,0 +1,399 @@
+package hillbillies.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Model;
+import hillbillies.world.Position;
+
+/**
+ * A class of uniform grids bucketing the entities of a world per cube.
+ *
+ * @invar  Each entity registered in this grid is registered in exactly
+ *         one bucket, being the bucket of the cube it was last placed in.
+ *
+ * @author  Pieter-Jan Van den Broecke: EltCw
+ * 		    Emiel Vandeloo: WtkCw
+ * @version Final version Part 3: 20/05/2016
+ *
+ * https://github.com/EmielVandeloo/Hillbillies.git
+ */
+class SpatialGrid {
+
+	/**
+	 * Variable referencing the size of this grid in the X-direction.
+	 */
+	private final int sizeX;
+
+	/**
+	 * Variable referencing the size of this grid in the Y-direction.
+	 */
+	private final int sizeY;
+
+	/**
+	 * Variable referencing the size of this grid in the Z-direction.
+	 */
+	private final int sizeZ;
+
+	/**
+	 * Variable referencing the buckets of this grid, one per cube. A bucket
+	 * is only allocated once an entity enters its cube, and is kept afterwards.
+	 * Each bucket iterates its entities in order of entry, so that queries on
+	 * this grid return the same order from run to run.
+	 */
+	private final Set<Entity>[] buckets;
+
+	/**
+	 * Variable referencing the index of the bucket each registered entity
+	 * currently occupies.
+	 */
+	private final Map<Entity, Integer> cellOf = new HashMap<>();
+
+	/**
+	 * Initialize this new grid with the given dimensions and no entities.
+	 *
+	 * @param  sizeX
+	 *         The number of cubes in the x-direction.
+	 * @param  sizeY
+	 *         The number of cubes in the y-direction.
+	 * @param  sizeZ
+	 *         The number of cubes in the z-direction.
+	 * @throws IllegalArgumentException
+	 *         One of the given sizes is not strictly positive.
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	SpatialGrid(int sizeX, int sizeY, int sizeZ) throws IllegalArgumentException {
+		if (sizeX <= 0 || sizeY <= 0 || sizeZ <= 0) {
+			throw new IllegalArgumentException();
+		}
+		this.sizeX = sizeX;
+		this.sizeY = sizeY;
+		this.sizeZ = sizeZ;
+		this.buckets = new Set[sizeX * sizeY * sizeZ];
+	}
+
+	/**
+	 * Return the number of entities registered in this grid.
+	 */
+	@Basic
+	int getNbEntities() {
+		return cellOf.size();
+	}
+
+	/**
+	 * Check whether this grid registers the given entity.
+	 *
+	 * @param  entity
+	 *         The entity to check.
+	 * @return True if and only if the given entity occupies a bucket of this grid.
+	 */
+	boolean contains(Entity entity) {
+		return cellOf.containsKey(entity);
+	}
+
+	/**
+	 * Register the given entity in the bucket of the cube it currently occupies.
+	 *
+	 * @param  entity
+	 *         The entity to register.
+	 * @effect If the given entity was already registered, it is moved to the
+	 *         bucket of the cube it currently occupies.
+	 * @throws IllegalArgumentException
+	 *         The given entity or its position is not effective, or its position
+	 *         lies outside of this grid.
+	 */
+	void add(Entity entity) throws IllegalArgumentException {
+		if (entity == null || entity.getPosition() == null) {
+			throw new IllegalArgumentException();
+		}
+		int cell = getCellOf(entity.getPosition());
+		Integer current = cellOf.get(entity);
+		if (current != null) {
+			if (current == cell) {
+				return;
+			}
+			removeFromBucket(entity, current);
+		}
+		addToBucket(entity, cell);
+		cellOf.put(entity, cell);
+	}
+
+	/**
+	 * Move the given entity to the bucket of the cube it currently occupies,
+	 * if it is registered in this grid.
+	 *
+	 * @param  entity
+	 *         The entity to move.
+	 * @effect If the given entity is registered in this grid, it is registered
+	 *         again at its current position.
+	 */
+	void update(Entity entity) {
+		if (contains(entity)) {
+			add(entity);
+		}
+	}
+
+	/**
+	 * Remove the given entity from this grid.
+	 *
+	 * @param  entity
+	 *         The entity to remove.
+	 * @post   This grid no longer registers the given entity.
+	 */
+	void remove(Entity entity) {
+		Integer cell = cellOf.remove(entity);
+		if (cell != null) {
+			removeFromBucket(entity, cell);
+		}
+	}
+
+	/**
+	 * Return all entities occupying the cube at the given position.
+	 *
+	 * @param  position
+	 *         A position inside the cube to look up.
+	 * @return An unmodifiable view of the entities in that cube. An empty set
+	 *         if the position lies outside of this grid.
+	 */
+	Set<Entity> entitiesInCube(Position position) {
+		if (! isInside((int) position.x(), (int) position.y(), (int) position.z())) {
+			return Collections.emptySet();
+		}
+		Set<Entity> bucket = buckets[getCellOf(position)];
+		if (bucket == null) {
+			return Collections.emptySet();
+		}
+		return Collections.unmodifiableSet(bucket);
+	}
+
+	/**
+	 * Return all entities occupying a cube between the given corner cubes,
+	 * both inclusive.
+	 *
+	 * @param  min
+	 *         A position in the corner cube with the lowest coordinates.
+	 * @param  max
+	 *         A position in the corner cube with the highest coordinates.
+	 * @return A list of all entities whose cube lies inside the box spanned by
+	 *         the given positions, clipped to the borders of this grid.
+	 */
+	List<Entity> entitiesInBox(Position min, Position max) {
+		List<Entity> result = new ArrayList<>();
+		int minX = Math.max(0, (int) Math.floor(min.x()));
+		int minY = Math.max(0, (int) Math.floor(min.y()));
+		int minZ = Math.max(0, (int) Math.floor(min.z()));
+		int maxX = Math.min(sizeX - 1, (int) Math.floor(max.x()));
+		int maxY = Math.min(sizeY - 1, (int) Math.floor(max.y()));
+		int maxZ = Math.min(sizeZ - 1, (int) Math.floor(max.z()));
+		for (int x = minX; x <= maxX; x++) {
+			for (int y = minY; y <= maxY; y++) {
+				for (int z = minZ; z <= maxZ; z++) {
+					Set<Entity> bucket = buckets[getCell(x, y, z)];
+					if (bucket != null) {
+						result.addAll(bucket);
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Return all entities within the given radius of the given position.
+	 *
+	 * @param  position
+	 *         The position to search around.
+	 * @param  radius
+	 *         The maximal distance between the given position and the
+	 *         position of a resulting entity.
+	 * @return A list of all entities in the box of cubes enclosing the sphere with
+	 *         the given radius, whose distance to the given position does not
+	 *         exceed the given radius.
+	 */
+	List<Entity> entitiesWithinRadius(Position position, double radius) {
+		Position min = new Position(position.x() - radius, position.y() - radius, position.z() - radius);
+		Position max = new Position(position.x() + radius, position.y() + radius, position.z() + radius);
+		List<Entity> result = entitiesInBox(min, max);
+		result.removeIf(entity -> Position.getDistance(position, entity.getPosition()) > radius);
+		return result;
+	}
+
+	/**
+	 * Return the given number of entities satisfying the given filter that are
+	 * closest to the given position, ordered by increasing distance.
+	 *
+	 * @param  position
+	 *         The position to search around.
+	 * @param  k
+	 *         The maximal number of entities to return.
+	 * @param  filter
+	 *         The condition a resulting entity has to satisfy.
+	 * @param  nbCandidates
+	 *         An upper bound on the number of registered entities satisfying the
+	 *         given filter.
+	 * @return A list of at most k entities satisfying the given filter, such that
+	 *         no other entity satisfying the given filter is closer to the given
+	 *         position than the last entity of the list.
+	 * @note   The search visits the cubes in shells of increasing Chebyshev distance
+	 *         around the cube containing the given position. An entity in a shell at
+	 *         distance r is never closer than r - 1 to the given position, so the
+	 *         search stops as soon as the k-th candidate lies within distance r, once
+	 *         the given number of candidates has been seen, or once every registered
+	 *         entity has been visited. A filter that no entity can satisfy therefore
+	 *         costs nothing if the given number of candidates is zero.
+	 */
+	List<Entity> nearest(Position position, int k, Predicate<? super Entity> filter, int nbCandidates) {
+		List<Entity> found = new ArrayList<>();
+		List<Double> distances = new ArrayList<>();
+		if (k <= 0 || nbCandidates <= 0) {
+			return found;
+		}
+		int cx = clamp((int) Math.floor(position.x()), sizeX);
+		int cy = clamp((int) Math.floor(position.y()), sizeY);
+		int cz = clamp((int) Math.floor(position.z()), sizeZ);
+		int maxRadius = Math.max(sizeX, Math.max(sizeY, sizeZ));
+		int visited = 0;
+		int matched = 0;
+		for (int r = 0; r <= maxRadius && visited < getNbEntities() && matched < nbCandidates; r++) {
+			for (int x = cx - r; x <= cx + r; x++) {
+				for (int y = cy - r; y <= cy + r; y++) {
+					boolean onSide = (Math.abs(x - cx) == r || Math.abs(y - cy) == r);
+					int step = (onSide ? 1 : Math.max(1, 2 * r));
+					for (int z = cz - r; z <= cz + r; z += step) {
+						if (! isInside(x, y, z) || buckets[getCell(x, y, z)] == null) {
+							continue;
+						}
+						for (Entity entity : buckets[getCell(x, y, z)]) {
+							visited++;
+							if (filter.test(entity)) {
+								matched++;
+								insertSorted(found, distances, entity, 
+										Position.getDistance(position, entity.getPosition()), k);
+							}
+						}
+					}
+				}
+			}
+			if (found.size() == k && distances.get(k - 1) <= r) {
+				break;
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Insert the given entity in the given list, sorted by the given distances,
+	 * keeping at most the given number of entities.
+	 */
+	@Model
+	private static void insertSorted(List<Entity> found, List<Double> distances, 
+			Entity entity, double distance, int k) {
+		int index = found.size();
+		while (index > 0 && distances.get(index - 1) > distance) {
+			index--;
+		}
+		if (index >= k) {
+			return;
+		}
+		found.add(index, entity);
+		distances.add(index, distance);
+		if (found.size() > k) {
+			found.remove(k);
+			distances.remove(k);
+		}
+	}
+
+	/**
+	 * Return the given coordinate clipped to the range [0, size[.
+	 */
+	@Model
+	private static int clamp(int coordinate, int size) {
+		return Math.max(0, Math.min(size - 1, coordinate));
+	}
+
+	/**
+	 * Return the number of cubes in the x-direction.
+	 */
+	@Basic @Immutable
+	int getSizeX() {
+		return sizeX;
+	}
+
+	/**
+	 * Return the number of cubes in the y-direction.
+	 */
+	@Basic @Immutable
+	int getSizeY() {
+		return sizeY;
+	}
+
+	/**
+	 * Return the number of cubes in the z-direction.
+	 */
+	@Basic @Immutable
+	int getSizeZ() {
+		return sizeZ;
+	}
+
+	/**
+	 * Check whether the given cube coordinates lie inside this grid.
+	 */
+	@Model
+	boolean isInside(int x, int y, int z) {
+		return x >= 0 && x < sizeX && y >= 0 && y < sizeY && z >= 0 && z < sizeZ;
+	}
+
+	/**
+	 * Return the index of the bucket of the cube with the given coordinates.
+	 */
+	@Model
+	int getCell(int x, int y, int z) {
+		return (x * sizeY + y) * sizeZ + z;
+	}
+
+	/**
+	 * Return the index of the bucket of the cube containing the given position.
+	 *
+	 * @throws IllegalArgumentException
+	 *         The given position lies outside of this grid.
+	 */
+	@Model
+	private int getCellOf(Position position) throws IllegalArgumentException {
+		int x = (int) position.x();
+		int y = (int) position.y();
+		int z = (int) position.z();
+		if (! isInside(x, y, z)) {
+			throw new IllegalArgumentException();
+		}
+		return getCell(x, y, z);
+	}
+
+	/**
+	 * Add the given entity to the bucket with the given index.
+	 */
+	@Model
+	private void addToBucket(Entity entity, int cell) {
+		if (buckets[cell] == null) {
+			buckets[cell] = new LinkedHashSet<>();
+		}
+		buckets[cell].add(entity);
+	}
+
+	/**
+	 * Remove the given entity from the bucket with the given index.
+	 */
+	@Model
+	private void removeFromBucket(Entity entity, int cell) {
+		if (buckets[cell] != null) {
+			buckets[cell].remove(entity);
+		}
+	}
+}
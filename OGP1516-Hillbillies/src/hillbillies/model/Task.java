@@ -1,10 +1,11 @@
 package hillbillies.model;
 
-import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import be.kuleuven.cs.som.annotate.Basic;
 import be.kuleuven.cs.som.annotate.Model;
 import be.kuleuven.cs.som.annotate.Raw;
+import hillbillies.program.CompiledStatement;
 import hillbillies.statement.Statement;
 import hillbillies.world.Position;
 
@@ -23,6 +24,8 @@ import hillbillies.world.Position;
  * @invar  The selected position of each task must be a valid selected position for any
  *         task.
  *       | isValidSelectedPosition(getSelectedPosition())
+ * @invar  Each task can have its compiled statement as its compiled statement.
+ *       | canHaveAsCompiledStatement(getCompiledStatement())
  * 
  * @author  Pieter-Jan Van den Broecke: EltCw
  * 		    Emiel Vandeloo: WtkCw
@@ -45,13 +48,18 @@ public class Task implements Comparable<Task> {
 	/**
 	 * Variable registering the priority of this task.
 	 */
-	private int priority;
+	private volatile int priority;
 
 	/**
 	 * Variable registering the statement of this task.
 	 */
 	private Statement statement;
 
+	/**
+	 * Variable referencing the compiled form of the statement of this task.
+	 */
+	private CompiledStatement compiledStatement;
+
 	/**
 	 * Variable registering the selected position of this task.
 	 */
@@ -65,7 +73,7 @@ public class Task implements Comparable<Task> {
 	/**
 	 * Variable referencing the set of schedulers to which this task is attached.
 	 */
-	private Set<Scheduler> schedulers = new HashSet<>();
+	private Set<Scheduler> schedulers = ConcurrentHashMap.newKeySet();
 	
 	/**
 	 * Initialize this new task with given name, priority, activity 
@@ -227,6 +235,10 @@ public class Task implements Comparable<Task> {
 	 * @post   The priority of this new task is equal to
 	 *         the given priority.
 	 *       | new.getPriority() == priority
+	 * @effect The priority is set while holding the locks of the schedulers
+	 *         of this task, which move this task to its proper place among
+	 *         their unassigned tasks.
+	 *       | Scheduler.setPriority(this, priority)
 	 * @throws IllegalArgumentException
 	 *         The given priority is not a valid priority for any
 	 *         task.
@@ -236,6 +248,22 @@ public class Task implements Comparable<Task> {
 	public void setPriority(int priority) throws IllegalArgumentException {
 		if (! isValidPriority(priority))
 			throw new IllegalArgumentException();
+		Scheduler.setPriority(this, priority);
+	}
+	
+	/**
+	 * Set the priority of this task to the given priority, without notifying
+	 * its schedulers.
+	 * 
+	 * @param  priority
+	 *         The new priority for this task.
+	 * @post   The priority of this new task is equal to the given priority.
+	 *       | new.getPriority() == priority
+	 * @note   This method is only to be invoked by a scheduler holding the locks
+	 *         of all schedulers of this task.
+	 */
+	@Raw
+	void updatePriority(int priority) {
 		this.priority = priority;
 	}
 
@@ -277,9 +305,57 @@ public class Task implements Comparable<Task> {
 	public void setStatement(Statement statement) throws IllegalArgumentException {
 		if (! isValidStatement(statement))
 			throw new IllegalArgumentException();
+		if (statement != this.statement)
+			this.compiledStatement = null;
 		this.statement = statement;
 	}
 
+	/**
+	 * Return the compiled statement of this task.
+	 */
+	@Basic @Raw
+	public CompiledStatement getCompiledStatement() {
+		return this.compiledStatement;
+	}
+
+	/**
+	 * Check whether this task can have the given compiled statement as
+	 * its compiled statement.
+	 *  
+	 * @param  compiledStatement
+	 *         The compiled statement to check.
+	 * @return True if and only if the given compiled statement is not effective,
+	 *         or if it is compiled from the statement of this task.
+	 *       | result == (compiledStatement == null || 
+	 *       |     compiledStatement.getStatement() == getStatement())
+	 */
+	@Raw
+	public boolean canHaveAsCompiledStatement(CompiledStatement compiledStatement) {
+		return (compiledStatement == null || compiledStatement.getStatement() == getStatement());
+	}
+
+	/**
+	 * Set the compiled statement of this task to the given compiled statement.
+	 * 
+	 * @param  compiledStatement
+	 *         The new compiled statement for this task.
+	 * @post   The compiled statement of this task is equal to
+	 *         the given compiled statement.
+	 *       | new.getCompiledStatement() == compiledStatement
+	 * @throws IllegalArgumentException
+	 *         This task cannot have the given compiled statement as its
+	 *         compiled statement.
+	 *       | ! canHaveAsCompiledStatement(compiledStatement)
+	 * @note   Units executing a task with a compiled statement run the
+	 *         compiled instructions instead of interpreting the statement.
+	 */
+	@Raw
+	public void setCompiledStatement(CompiledStatement compiledStatement) throws IllegalArgumentException {
+		if (! canHaveAsCompiledStatement(compiledStatement))
+			throw new IllegalArgumentException();
+		this.compiledStatement = compiledStatement;
+	}
+
 	/**
 	 * Return the selected position of this task.
 	 */
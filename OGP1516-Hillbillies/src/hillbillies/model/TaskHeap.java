@@ -0,0 +1,338 @@
+package hillbillies.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Model;
+
+/**
+ * A class of indexed binary heaps of tasks, ordered by decreasing priority.
+ * Tasks with the same priority are ordered by the moment they were added,
+ * the task added first coming first.
+ *
+ * @invar  Each task of this heap is stored at exactly one slot of the heap
+ *         array, and the index map references that slot.
+ * @invar  No task of this heap comes before the task at the parent slot
+ *         of its own slot.
+ *
+ * @note   Adding, removing, repositioning and polling a task take logarithmic
+ *         time. Checking whether a task belongs to this heap and looking up
+ *         the first task take constant time.
+ *
+ * @author  Pieter-Jan Van den Broecke: EltCw
+ * 		    Emiel Vandeloo: WtkCw
+ * @version Final version Part 3: 20/05/2016
+ *
+ * https://github.com/EmielVandeloo/Hillbillies.git
+ */
+class TaskHeap implements Iterable<Task> {
+
+	/**
+	 * Variable referencing the heap array of tasks of this heap.
+	 */
+	private Task[] tasks = new Task[16];
+
+	/**
+	 * Variable referencing the sequence number of the task at each slot
+	 * of the heap array.
+	 */
+	private long[] sequences = new long[16];
+
+	/**
+	 * Variable registering the number of tasks in this heap.
+	 */
+	private int size = 0;
+
+	/**
+	 * Variable referencing the slot of each task in the heap array.
+	 */
+	private final Map<Task, Integer> indices = new HashMap<>();
+
+	/**
+	 * Variable registering the sequence number to give to the next added task.
+	 */
+	private long nextSequence = 0;
+
+	/**
+	 * Return the number of tasks in this heap.
+	 */
+	@Basic
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Check whether this heap contains the given task.
+	 */
+	boolean contains(Task task) {
+		return indices.containsKey(task);
+	}
+
+	/**
+	 * Return the first task of this heap.
+	 *
+	 * @return The task with the highest priority that was added first among
+	 *         the tasks with that priority. Null if this heap is empty.
+	 */
+	Task peek() {
+		return (size == 0 ? null : tasks[0]);
+	}
+
+	/**
+	 * Add the given task to this heap.
+	 *
+	 * @param  task
+	 *         The task to add.
+	 * @return True if and only if this heap did not yet contain the given task.
+	 * @post   The given task comes after all tasks of this heap with the same
+	 *         priority.
+	 */
+	boolean add(Task task) {
+		if (contains(task)) {
+			return false;
+		}
+		ensureCapacity(size + 1);
+		append(task);
+		siftUp(size - 1);
+		return true;
+	}
+
+	/**
+	 * Add all given tasks to this heap.
+	 *
+	 * @param  newTasks
+	 *         The tasks to add.
+	 * @return The number of given tasks this heap did not yet contain.
+	 * @post   The given tasks come after all tasks of this heap with the same
+	 *         priority, in the order in which they are given.
+	 * @note   All given tasks are appended to the heap array first. If that
+	 *         makes up a large part of the heap, the heap is rebuilt bottom-up
+	 *         in linear time. Otherwise, each new task is moved up on its own.
+	 */
+	int addAll(Collection<Task> newTasks) {
+		ensureCapacity(size + newTasks.size());
+		int start = size;
+		for (Task task : newTasks) {
+			if (! contains(task)) {
+				append(task);
+			}
+		}
+		int added = size - start;
+		int depth = 32 - Integer.numberOfLeadingZeros(size);
+		if ((long) added * depth > size) {
+			for (int i = size / 2 - 1; i >= 0; i--) {
+				siftDown(i);
+			}
+		} else {
+			for (int i = start; i < size; i++) {
+				siftUp(i);
+			}
+		}
+		return added;
+	}
+
+	/**
+	 * Remove the given task from this heap.
+	 *
+	 * @param  task
+	 *         The task to remove.
+	 * @return True if and only if this heap contained the given task.
+	 * @note   The last task of the heap array takes the place of the removed
+	 *         one, and is moved up or down from there.
+	 */
+	boolean remove(Task task) {
+		Integer index = indices.remove(task);
+		if (index == null) {
+			return false;
+		}
+		size--;
+		if (index < size) {
+			move(size, index);
+			tasks[size] = null;
+			if (! siftUp(index)) {
+				siftDown(index);
+			}
+		} else {
+			tasks[size] = null;
+		}
+		return true;
+	}
+
+	/**
+	 * Remove and return the first task of this heap.
+	 *
+	 * @return The first task of this heap. Null if this heap is empty.
+	 */
+	Task poll() {
+		Task first = peek();
+		if (first != null) {
+			remove(first);
+		}
+		return first;
+	}
+
+	/**
+	 * Move the given task to its proper place after a change of its priority.
+	 *
+	 * @param  task
+	 *         The task to move.
+	 * @note   The given task keeps its place among the tasks with the same
+	 *         priority, as if it had that priority when it was added.
+	 */
+	void update(Task task) {
+		Integer index = indices.get(task);
+		if (index != null && ! siftUp(index)) {
+			siftDown(index);
+		}
+	}
+
+	/**
+	 * Return a list of all tasks in this heap, in order.
+	 */
+	List<Task> toSortedList() {
+		List<Integer> slots = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			slots.add(i);
+		}
+		slots.sort((i, j) -> (precedes(i, j) ? -1 : (precedes(j, i) ? 1 : 0)));
+		List<Task> result = new ArrayList<>(size);
+		for (int slot : slots) {
+			result.add(tasks[slot]);
+		}
+		return result;
+	}
+
+	/**
+	 * Return an iterator over the tasks of this heap, in no particular order.
+	 */
+	@Override
+	public Iterator<Task> iterator() {
+		return new Iterator<Task>() {
+
+			private int index = 0;
+
+			@Override
+			public boolean hasNext() {
+				return index < size;
+			}
+
+			@Override
+			public Task next() {
+				if (! hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return tasks[index++];
+			}
+		};
+	}
+
+	/**
+	 * Make sure the heap array can hold the given number of tasks.
+	 */
+	@Model
+	private void ensureCapacity(int capacity) {
+		if (capacity > tasks.length) {
+			int length = Math.max(capacity, tasks.length * 2);
+			tasks = Arrays.copyOf(tasks, length);
+			sequences = Arrays.copyOf(sequences, length);
+		}
+	}
+
+	/**
+	 * Store the given task in the first free slot of the heap array, without
+	 * moving it to its proper place.
+	 */
+	@Model
+	private void append(Task task) {
+		tasks[size] = task;
+		sequences[size] = nextSequence++;
+		indices.put(task, size);
+		size++;
+	}
+
+	/**
+	 * Check whether the task at the first given slot comes before the task
+	 * at the second given slot.
+	 */
+	@Model
+	private boolean precedes(int first, int second) {
+		int firstPriority = tasks[first].getPriority();
+		int secondPriority = tasks[second].getPriority();
+		if (firstPriority != secondPriority) {
+			return firstPriority > secondPriority;
+		}
+		return sequences[first] < sequences[second];
+	}
+
+	/**
+	 * Move the task at the given slot up until its parent comes before it.
+	 *
+	 * @return True if and only if the task was moved.
+	 */
+	@Model
+	private boolean siftUp(int index) {
+		int start = index;
+		while (index > 0) {
+			int parent = (index - 1) / 2;
+			if (! precedes(index, parent)) {
+				break;
+			}
+			swap(index, parent);
+			index = parent;
+		}
+		return index != start;
+	}
+
+	/**
+	 * Move the task at the given slot down until it comes before its children.
+	 */
+	@Model
+	private void siftDown(int index) {
+		while (true) {
+			int first = index;
+			int left = 2 * index + 1;
+			int right = left + 1;
+			if (left < size && precedes(left, first)) {
+				first = left;
+			}
+			if (right < size && precedes(right, first)) {
+				first = right;
+			}
+			if (first == index) {
+				return;
+			}
+			swap(index, first);
+			index = first;
+		}
+	}
+
+	/**
+	 * Swap the tasks at the given slots.
+	 */
+	@Model
+	private void swap(int first, int second) {
+		Task task = tasks[first];
+		long sequence = sequences[first];
+		move(second, first);
+		tasks[second] = task;
+		sequences[second] = sequence;
+		indices.put(task, second);
+	}
+
+	/**
+	 * Move the task at the first given slot to the second given slot.
+	 */
+	@Model
+	private void move(int from, int to) {
+		tasks[to] = tasks[from];
+		sequences[to] = sequences[from];
+		indices.put(tasks[to], to);
+	}
+}
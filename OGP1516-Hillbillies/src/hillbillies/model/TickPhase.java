@@ -0,0 +1,29 @@
+package hillbillies.model;
+
+/**
+ * An enumeration of the phases of a time step of a world.
+ * 
+ * @author  Pieter-Jan Van den Broecke: EltCw
+ * 		    Emiel Vandeloo: WtkCw
+ * @version Final version Part 3: 20/05/2016
+ * 
+ * https://github.com/EmielVandeloo/Hillbillies.git
+ */
+public enum TickPhase {
+	
+	/**
+	 * The phase in which the units of a world prepare their paths.
+	 */
+	PREPARE,
+	
+	/**
+	 * The phase in which the entities of a world are advanced.
+	 */
+	ADVANCE,
+	
+	/**
+	 * The phase in which removed entities are dropped from the registry of a world.
+	 */
+	CLEANUP;
+
+}
@@ -0,0 +1,252 @@
+package hillbillies.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Model;
+
+/**
+ * A class of hierarchical timing wheels, collecting items that are due at
+ * a given deadline.
+ * 
+ * @invar  Each scheduled item occupies exactly one slot of this wheel.
+ * 
+ * @note   The lowest level of this wheel has one slot per tick of the
+ *         resolution, each higher level has slots spanning all slots of the
+ *         level below it. Items are cascaded to a lower level once the wheel
+ *         reaches their slot, so scheduling and cancelling an item take
+ *         constant time, and advancing the wheel takes time linear in the
+ *         number of ticks passed and the number of items that are due.
+ *
+ * @author  Pieter-Jan Van den Broecke: EltCw
+ * 		    Emiel Vandeloo: WtkCw
+ * @version Final version Part 3: 20/05/2016
+ *
+ * https://github.com/EmielVandeloo/Hillbillies.git
+ */
+class TimerWheel<T> {
+	
+	/**
+	 * Variable registering the number of bits of the slot index on each level.
+	 */
+	private static final int BITS = 6;
+	
+	/**
+	 * Variable registering the number of slots on each level.
+	 */
+	private static final int SLOTS = 1 << BITS;
+	
+	/**
+	 * Variable registering the number of levels of each wheel.
+	 */
+	private static final int LEVELS = 4;
+
+	/**
+	 * Initialize this new wheel with the given resolution and no items.
+	 * 
+	 * @param  resolution
+	 *         The length of a tick of the new wheel.
+	 * @post   The resolution of this new wheel is equal to the given resolution.
+	 * @throws IllegalArgumentException
+	 *         The given resolution is not strictly positive.
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	TimerWheel(long resolution) throws IllegalArgumentException {
+		if (resolution <= 0) {
+			throw new IllegalArgumentException();
+		}
+		this.resolution = resolution;
+		this.slots = new Set[LEVELS][SLOTS];
+	}
+	
+	/**
+	 * Return the length of a tick of this wheel.
+	 */
+	@Basic
+	long getResolution() {
+		return this.resolution;
+	}
+	
+	/**
+	 * Variable registering the length of a tick of this wheel.
+	 */
+	private final long resolution;
+	
+	/**
+	 * Variable referencing the slots of each level of this wheel. A slot is
+	 * only allocated once an item enters it, and is kept afterwards.
+	 */
+	private final Set<T>[][] slots;
+	
+	/**
+	 * Variable referencing the items that are due too far in the future to
+	 * fit on the highest level of this wheel.
+	 */
+	private final Set<T> overflow = new LinkedHashSet<>();
+	
+	/**
+	 * Variable referencing the deadline of each scheduled item.
+	 */
+	private final Map<T, Long> deadlines = new HashMap<>();
+	
+	/**
+	 * Variable referencing the slot each scheduled item currently occupies.
+	 */
+	private final Map<T, Set<T>> slotOf = new HashMap<>();
+	
+	/**
+	 * Variable registering the tick this wheel has advanced to.
+	 */
+	private long currentTick = 0L;
+	
+	/**
+	 * Return the number of items scheduled in this wheel.
+	 */
+	int size() {
+		return deadlines.size();
+	}
+	
+	/**
+	 * Check whether the given item is scheduled in this wheel.
+	 */
+	boolean contains(Object item) {
+		return deadlines.containsKey(item);
+	}
+	
+	/**
+	 * Return the deadline of the given item.
+	 * 
+	 * @throws IllegalArgumentException
+	 *         The given item is not scheduled in this wheel.
+	 */
+	long getDeadline(T item) throws IllegalArgumentException {
+		Long deadline = deadlines.get(item);
+		if (deadline == null) {
+			throw new IllegalArgumentException();
+		}
+		return deadline;
+	}
+	
+	/**
+	 * Schedule the given item at the given deadline.
+	 * 
+	 * @param  item
+	 *         The item to schedule.
+	 * @param  deadline
+	 *         The time at which the given item is due.
+	 * @post   The given item is scheduled at the given deadline, replacing
+	 *         any previous deadline of that item.
+	 * @throws IllegalArgumentException
+	 *         The given item is not effective.
+	 */
+	void schedule(T item, long deadline) throws IllegalArgumentException {
+		if (item == null) {
+			throw new IllegalArgumentException();
+		}
+		cancel(item);
+		deadlines.put(item, deadline);
+		insert(item, deadline);
+	}
+	
+	/**
+	 * Cancel the given item.
+	 * 
+	 * @param  item
+	 *         The item to cancel.
+	 * @return True if and only if the given item was scheduled in this wheel.
+	 * @post   The given item is no longer scheduled in this wheel.
+	 */
+	boolean cancel(Object item) {
+		if (deadlines.remove(item) == null) {
+			return false;
+		}
+		slotOf.remove(item).remove(item);
+		return true;
+	}
+	
+	/**
+	 * Advance this wheel to the given time, removing all items that are due.
+	 * 
+	 * @param  now
+	 *         The time to advance to.
+	 * @return A list of all items whose deadline does not exceed the given time,
+	 *         ordered by the tick in which they are due. None of these items is
+	 *         still scheduled in this wheel.
+	 * @note   Items that are due in the same tick as the given time but after
+	 *         it stay in their slot, and the wheel doesn't advance past that tick.
+	 */
+	List<T> advanceTo(long now) {
+		List<T> due = new ArrayList<>();
+		long target = Math.floorDiv(now, resolution);
+		while (true) {
+			Set<T> slot = slots[0][(int) (currentTick & (SLOTS - 1))];
+			if (slot != null && ! slot.isEmpty()) {
+				Iterator<T> iterator = slot.iterator();
+				while (iterator.hasNext()) {
+					T item = iterator.next();
+					if (deadlines.get(item) <= now) {
+						iterator.remove();
+						deadlines.remove(item);
+						slotOf.remove(item);
+						due.add(item);
+					}
+				}
+			}
+			if (currentTick >= target) {
+				return due;
+			}
+			currentTick++;
+			cascade(1);
+		}
+	}
+	
+	/**
+	 * Move the items of the slot of the given level that the current tick
+	 * has reached to the lower levels, if the current tick starts that slot.
+	 */
+	@Model
+	private void cascade(int level) {
+		if (level > LEVELS || (currentTick & ((1L << (BITS * level)) - 1)) != 0) {
+			return;
+		}
+		cascade(level + 1);
+		Set<T> slot = (level == LEVELS ? overflow : 
+			slots[level][(int) ((currentTick >>> (BITS * level)) & (SLOTS - 1))]);
+		if (slot == null || slot.isEmpty()) {
+			return;
+		}
+		List<T> items = new ArrayList<>(slot);
+		slot.clear();
+		for (T item : items) {
+			insert(item, deadlines.get(item));
+		}
+	}
+	
+	/**
+	 * Insert the given item in the slot matching the given deadline.
+	 */
+	@Model
+	private void insert(T item, long deadline) {
+		long tick = Math.max(currentTick, Math.floorDiv(deadline, resolution));
+		long delta = tick - currentTick;
+		Set<T> slot = overflow;
+		for (int level = 0; level < LEVELS; level++) {
+			if (delta < (1L << (BITS * (level + 1)))) {
+				int index = (int) ((tick >>> (BITS * level)) & (SLOTS - 1));
+				if (slots[level][index] == null) {
+					slots[level][index] = new LinkedHashSet<>();
+				}
+				slot = slots[level][index];
+				break;
+			}
+		}
+		slot.add(item);
+		slotOf.put(item, slot);
+	}
+}
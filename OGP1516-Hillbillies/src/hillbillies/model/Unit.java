@@ -2,8 +2,7 @@ package hillbillies.model;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
-import java.util.Set;
+import java.util.SplittableRandom;
 import hillbillies.model.character.JobSelector;
 import be.kuleuven.cs.som.annotate.Basic;
 import be.kuleuven.cs.som.annotate.Immutable;
@@ -14,6 +13,7 @@ import hillbillies.model.character.JobStat;
 import hillbillies.path.Path;
 import hillbillies.path.PathFinder;
 import hillbillies.program.Program;
+import hillbillies.world.Coordinate;
 import hillbillies.world.Position;
 
 /**
@@ -219,6 +219,35 @@ public class Unit extends Entity {
 	 */
 	private Path path;
 
+	/**
+	 * Variable referencing a path prepared in advance from the target
+	 * position of this unit to its objective position.
+	 */
+	private Path preparedPath;
+
+	/**
+	 * Variable registering the key of the cube the prepared path of this unit
+	 * starts from.
+	 */
+	private long preparedPathStart;
+
+	/**
+	 * Variable registering the key of the cube the prepared path of this unit
+	 * leads to.
+	 */
+	private long preparedPathEnd;
+
+	/**
+	 * Variable referencing the objective position this unit has chosen to move
+	 * to, while it waits for its world to prepare the path towards it.
+	 */
+	private Position pendingObjective;
+
+	/**
+	 * Variable referencing the randomizer of this unit.
+	 */
+	private SplittableRandom random = new SplittableRandom();
+
 	/**
 	 * Variable referencing a list containing all current attackers of this unit.
 	 */
@@ -923,6 +952,7 @@ public class Unit extends Entity {
 	@Raw
 	public void setNbHitPoints(int nbHitPoints) {
 		assert isValidNbHitPoints(nbHitPoints);
+		wake();
 		this.nbHitPoints = nbHitPoints;
 	}
 
@@ -1088,6 +1118,7 @@ public class Unit extends Entity {
 	 */
 	@Raw @Model
 	private void setTargetPosition(Position position) throws IllegalArgumentException {
+		wake();
 		if (position != null && ! hasSupport(position)) {
 			throw new IllegalArgumentException();
 		}
@@ -1117,6 +1148,7 @@ public class Unit extends Entity {
 	 */
 	@Raw @Model
 	private void setObjectivePosition(Position position) throws IllegalArgumentException {
+		wake();
 		if (position != null && ! hasSupport(position)) {
 			throw new IllegalArgumentException();
 		}
@@ -1170,6 +1202,7 @@ public class Unit extends Entity {
 	 */
 	@Model @Raw
 	private void setStartFallingPosition(Position position) {
+		wake();
 		this.startFallingPosition = position;
 	}
 
@@ -1220,6 +1253,7 @@ public class Unit extends Entity {
 	 */
 	@Override
 	public void advanceTime(double deltaTime) {
+		wake();
 		int div1 = getNbExperiencePoints() / 10;
 		if (isFalling()) {
 			fallBehavior(deltaTime);
@@ -1240,9 +1274,8 @@ public class Unit extends Entity {
 				walk(deltaTime);
 			} else if (hasTask()) {
 				getProgram().execute(deltaTime);
-			} else if (getScheduler().isTaskAvailable()) {
+			} else if (getScheduler().claimTopPriorityTask(this) != null) {
 				stopDefaultBehaviour();
-				getScheduler().assignTopPriorityTask(this);
 				getProgram().execute(deltaTime);
 			} else if (doesDefaultBehavior()) {
 				chooseDefaultBehavior();
@@ -1255,9 +1288,56 @@ public class Unit extends Entity {
 		}
 		if (getNbHitPoints() <= 0) {
 			terminate();
+		} else if (canSleep()) {
+			getWorld().sleep(this, getJobTime());
 		}
 	}
 
+	/**
+	 * Check whether this unit can sleep until its current job needs its
+	 * attention again.
+	 * 
+	 * @return True if and only if this unit is an active unit of its world that
+	 *         is working or resting, without attacking, defending or falling.
+	 *         Such a unit only counts down its job time until the job is
+	 *         finished or the next point is recovered.
+	 *       | result == (getWorld() != null && getWorld().hasAsEntity(this) &&
+	 *       |     (isWorking() || isResting()) && ! isAttacking() && 
+	 *       |     ! isDefending() && ! isFalling())
+	 */
+	@Model @Raw
+	private boolean canSleep() {
+		return getWorld() != null && getWorld().hasAsEntity(this) &&
+				(isWorking() || isResting()) && ! isAttacking() && ! isDefending() && ! isFalling();
+	}
+
+	/**
+	 * Wake this unit up if it is asleep in its world.
+	 * 
+	 * @effect If this unit is attached to a world, it is woken up in that world.
+	 *       | if (getWorld() != null)
+	 *       |   then getWorld().wake(this)
+	 */
+	@Model @Raw
+	private void wake() {
+		if (getWorld() != null) {
+			getWorld().wake(this);
+		}
+	}
+
+	/**
+	 * Let the job time of this unit catch up with the given time it has slept.
+	 * 
+	 * @param  sleptTime
+	 *         The game time, in seconds, this unit has slept.
+	 * @effect The job time of this unit is decreased by the given time.
+	 *       | setJobTime(getJobTime() - (float) sleptTime)
+	 */
+	@Raw
+	void catchUp(double sleptTime) {
+		setJobTime(getJobTime() - (float) sleptTime);
+	}
+
 	/**
 	 * Make this unit walk for a given time period.
 	 * 
@@ -1269,7 +1349,7 @@ public class Unit extends Entity {
 	 *       | if (doesDefaultBehaviour() && ! isSprinting() && getNbStaminaPoints() > 0)
 	 *       |   then
 	 *       |     let
-	 *       |       random = new Random().nextDouble()
+	 *       |       random = getRandom().nextDouble()
 	 *       |     in
 	 *       |       if (random < (number>0))
 	 *       |         then startSprinting()
@@ -1295,7 +1375,7 @@ public class Unit extends Entity {
 	 *       |   then setObjectivePosition(null)
 	 *       | if (hasReachedTarget() && ! hasReachedObjective)
 	 *       |   then if (getPath().needsUpdate(getWorld().getWorldVersion()))
-	 *       |     then setPath(getWorld().calculatePathBetween(getPosition(), getObjectivePosition())
+	 *       |     then setPath(calculatePathTo(getObjectivePosition()))
 	 *       |   if (getPath.popNextPosition() == null)
 	 *       |     then setTargetPosition(null)
 	 *       |     then setObjectivePosition(null)
@@ -1304,8 +1384,7 @@ public class Unit extends Entity {
 	@Raw @Model
 	private void walk(double deltaTime) {
 		if (doesDefaultBehavior() && ! isSprinting() && getNbStaminaPoints() > 0) {
-			double random = new Random().nextDouble();
-			if (random < deltaTime / 10.0) {
+			if (getRandom().nextDouble() < deltaTime / 10.0) {
 				startSprinting();
 			}
 		}
@@ -1330,7 +1409,7 @@ public class Unit extends Entity {
 				setObjectivePosition(null);
 			} else {
 				if (getPath().needsUpdate(getWorld().getWorldVersion())) {
-					setPath(getWorld().calculatePathBetween(getPosition(), getObjectivePosition()));
+					setPath(calculatePathTo(getObjectivePosition()));
 				}
 				Position next = getPath().popNextPosition();
 				if (next == null) {
@@ -1364,7 +1443,7 @@ public class Unit extends Entity {
 	 */
 	@Model
 	private void increaseByExperience() {
-		int random = new Random().nextInt(3);
+		int random = getRandom().nextInt(3);
 		if (random == 0) {
 			setStrength(getStrength() + 1);
 		} else if (random == 1) {
@@ -1388,9 +1467,10 @@ public class Unit extends Entity {
 	 * @effect All this unit's jobs are reset and its default behavior is stopped.
 	 *       | resetAllJobs()
 	 *       | stopDefaultBehaviour()
-	 * @effect This unit's start and target positions are set to null.
+	 * @effect This unit's start, target and objective positions are set to null.
 	 *       | setStartPosition(null)
 	 *       | setTargetPosition(null)
+	 *       | setObjectivePosition(null)
 	 * @effect This unit's current speed is set to 3.
 	 *       | setCurrentSpeed(3)
 	 * @effect The entity's fall behavior is performed.
@@ -1410,6 +1490,7 @@ public class Unit extends Entity {
 		resetAllJobs();
 		setStartPosition(null);
 		setTargetPosition(null);
+		setObjectivePosition(null);
 		setCurrentSpeed(3);
 		super.fallBehavior(deltaTime);
 		if (!isFalling()) {
@@ -1450,6 +1531,7 @@ public class Unit extends Entity {
 	 */
 	@Raw
 	public void startMoving() {
+		wake();
 		this.moving = true;
 	}
 
@@ -1461,6 +1543,7 @@ public class Unit extends Entity {
 	 */
 	@Raw
 	public void stopMoving() {
+		wake();
 		this.moving = false;
 	}
 
@@ -1490,46 +1573,119 @@ public class Unit extends Entity {
 	 * 
 	 * @param  objective
 	 *         The objective position of this unit.
+	 * @effect This unit first starts moving to its pending objective, if any.
+	 *       | startPendingMove()
 	 * @effect If the given objective is not effective or not a valid position for any entity,
 	 *         no action is performed.
 	 *       | if (!isValidPosition(objective))
 	 *       |   then return
-	 * @effect The path to follow is set to the calculated path.
-	 *       | setPath(getWorld().calculatePathBetween(getPosition(), objective.getCenterPosition()))
-	 * @effect If there doesn't exist a path between this unit's position and the given objective, this
-	 *         unit stops its movement and no further action is performed.
-	 *       | let
-	 *       |   pos = getPath().popNextPosition()
-	 *       | in
-	 *       |   if (pos == null)
-	 *       |     then stopMovement()
-	 *       |     then return
-	 *         Otherwise, the objective position is set to the given objective and the unit starts pathing.
-	 *       | else
-	 *       |   setObjectivePosition(objective.getCenterPosition())
-	 *       |   moveToAdjacent(pos)
+	 * @effect This unit starts moving to the center of the given objective along the
+	 *         path calculated from its position.
+	 *       | startMoveTo(objective.getCenterPosition(), 
+	 *       |     getWorld().calculatePathBetween(getPosition(), objective.getCenterPosition()))
 	 * @throws IllegalArgumentException
 	 *         The given objective is not effective.
 	 *       | objective == null
 	 */
 	@Raw
 	public void moveTo(Position objective) throws IllegalArgumentException {
+		startPendingMove();
 		if (objective == null) {
 			throw new IllegalArgumentException();
 		}
 		if (!isValidPosition(objective)) {
 			return;
 		}
-		setPath(getWorld().calculatePathBetween(getPosition(), objective.getCenterPosition()));
+		Position center = objective.getCenterPosition();
+		startMoveTo(center, getWorld().calculatePathBetween(getPosition(), center));
+	}
+
+	/**
+	 * Make this unit start moving to the given objective position along the given path.
+	 * 
+	 * @param  objective
+	 *         The objective position of this unit.
+	 * @param  path
+	 *         The path from the position of this unit to the given objective.
+	 * @effect The path to follow is set to the given path.
+	 *       | setPath(path)
+	 * @effect If the given path is empty, this unit stops its movement.
+	 *       | if (getPath().popNextPosition() == null)
+	 *       |   then stopMovement()
+	 * @effect Otherwise, the objective position is set to the given objective and
+	 *         the unit starts pathing.
+	 *       | else
+	 *       |   setObjectivePosition(objective)
+	 *       |   moveToAdjacent(getPath().popNextPosition())
+	 */
+	@Model @Raw
+	private void startMoveTo(Position objective, Path path) {
+		setPath(path);
 		Position pos = getPath().popNextPosition();
 		if (pos == null) {
 			stopMovement();
 			return;
 		}
-		setObjectivePosition(objective.getCenterPosition());
+		setObjectivePosition(objective);
 		moveToAdjacent(pos);
 	}
 
+	/**
+	 * Move this unit to the given objective position, letting its world prepare
+	 * the path towards it if that world prepares paths.
+	 * 
+	 * @param  objective
+	 *         The objective position of this unit.
+	 * @effect If the world of this unit prepares paths, the center of the given
+	 *         objective becomes the pending objective of this unit, and this unit
+	 *         waits for its world to prepare the path towards it.
+	 *       | if (getWorld().isPreparingPaths())
+	 *       |   then getWorld().requestPath(this)
+	 * @effect Otherwise, this unit moves to the given objective.
+	 *       | else moveTo(objective)
+	 * @throws IllegalArgumentException
+	 *         The given objective is not effective.
+	 *       | objective == null
+	 * @note   A unit waiting for its path starts moving at the start of the next
+	 *         time step of its world, before any entity is advanced, or as soon as
+	 *         it is given another command or the terrain of its world changes,
+	 *         whichever comes first. Its path therefore always follows the terrain
+	 *         as it was when the objective was chosen, and the unit ends up in the
+	 *         same state as a unit that calculated its path right away.
+	 */
+	@Model @Raw
+	private void moveToPrepared(Position objective) throws IllegalArgumentException {
+		if (objective == null) {
+			throw new IllegalArgumentException();
+		}
+		if (! getWorld().isPreparingPaths()) {
+			moveTo(objective);
+		} else if (isValidPosition(objective)) {
+			this.pendingObjective = objective.getCenterPosition();
+			getWorld().requestPath(this);
+		}
+	}
+
+	/**
+	 * Make this unit start moving to its pending objective, if any.
+	 * 
+	 * @effect If this unit has a pending objective and is still part of a world,
+	 *         it starts moving to that objective along its prepared path, or along
+	 *         a newly calculated path if that prepared path is no longer valid.
+	 *       | if (pendingObjective != null && getWorld() != null && ! isTerminated())
+	 *       |   then startMoveTo(pendingObjective, calculatePathTo(pendingObjective))
+	 * @post   This unit no longer has a pending objective.
+	 *       | new.pendingObjective == null
+	 */
+	void startPendingMove() {
+		Position objective = this.pendingObjective;
+		this.pendingObjective = null;
+		if (objective == null || getWorld() == null || isTerminated()) {
+			return;
+		}
+		startMoveTo(objective, calculatePathTo(objective));
+	}
+
 	/**
 	 * Move this unit to an adjacent cube.
 	 * 
@@ -1551,10 +1707,7 @@ public class Unit extends Entity {
 	 * @effect Else, the  objective position of the unit is set to the sum of its current position
 	 *         coordinates and x,y,z respectively.
 	 *       | let
-	 *       |   Position targetPosition = new Position()
-	 *       |   targetPosition.setX(getPosition().x() + x)
-	 *	     |   targetPosition.setY(getPosition().y() + y)
-	 *	     |   targetPosition.setZ(getPosition().z() + z)
+	 *       |   targetPosition = getPosition().add(x, y, z)
 	 *       | in
 	 *       |   setObjectivePosition(targetPosition)
 	 * @effect If there is no corner between the unit's current position and the target position,
@@ -1564,17 +1717,17 @@ public class Unit extends Entity {
 	 *       | else 
 	 *       |   setObjectivePosition(null)
 	 *       |   return
+	 * @effect This unit first starts moving to its pending objective, if any.
+	 *       | startPendingMove()
 	 */
 	@Raw
 	public void moveToAdjacent(int x, int y, int z) {
+		startPendingMove();
 		if (getTargetPosition() != null) {
 			return;
 		}
-		Position targetPosition = new Position();
+		Position targetPosition = getPosition().add(x, y, z);
 		try {
-			targetPosition.setX(getPosition().x() + x);
-			targetPosition.setY(getPosition().y() + y);
-			targetPosition.setZ(getPosition().z() + z);
 			setObjectivePosition(targetPosition);
 			if (!PathFinder.isCornerAllowed(getWorld(), getPosition(), targetPosition)) {
 				setObjectivePosition(null);
@@ -1640,6 +1793,120 @@ public class Unit extends Entity {
 		this.path = path;
 	}
 
+	/**
+	 * Return the randomizer of this unit.
+	 */
+	@Basic @Raw
+	public SplittableRandom getRandom() {
+		return this.random;
+	}
+
+	/**
+	 * Set the randomizer of this unit to the given randomizer.
+	 * 
+	 * @param  random
+	 *         The new randomizer for this unit.
+	 * @post   The new randomizer of this unit is equal to the given randomizer.
+	 *       | new.getRandom() == random
+	 * @throws IllegalArgumentException
+	 *         The given randomizer is not effective.
+	 *       | random == null
+	 */
+	void setRandom(SplittableRandom random) throws IllegalArgumentException {
+		if (random == null) {
+			throw new IllegalArgumentException();
+		}
+		this.random = random;
+	}
+
+	/**
+	 * Calculate a path from the current position of this unit to the given objective.
+	 * 
+	 * @param  objective
+	 *         The position to calculate a path to.
+	 * @return The path prepared by this unit, if it starts at the cube of this unit,
+	 *         leads to the cube of the given objective and is not outdated.
+	 *       | if (preparedPath != null && ! preparedPath.needsUpdate(getWorld().getWorldVersion())
+	 *       |       && preparedPathStart == getPosition().getCubeKey()
+	 *       |       && preparedPathEnd == objective.getCubeKey())
+	 *       |   then result == preparedPath
+	 * @return A newly calculated path between the current position of this unit and
+	 *         the given objective otherwise.
+	 *       | else result == getWorld().calculatePathBetween(getPosition(), objective)
+	 * @post   This unit no longer has a prepared path.
+	 */
+	@Model
+	private Path calculatePathTo(Position objective) {
+		Path prepared = this.preparedPath;
+		this.preparedPath = null;
+		if (prepared != null && ! prepared.needsUpdate(getWorld().getWorldVersion()) 
+				&& preparedPathStart == getPosition().getCubeKey()
+				&& preparedPathEnd == objective.getCubeKey()) {
+			return prepared;
+		}
+		return getWorld().calculatePathBetween(getPosition(), objective);
+	}
+
+	/**
+	 * Prepare the path this unit will need next.
+	 * 
+	 * @effect If this unit has a pending objective, a path from its position to that
+	 *         objective is prepared.
+	 *       | if (pendingObjective != null)
+	 *       |   then preparePathBetween(getPosition(), pendingObjective)
+	 * @effect Otherwise, if this unit is walking towards an objective and its current
+	 *         path is outdated, a path from its target position to its objective
+	 *         position is prepared.
+	 *       | else if (getPath() != null && getTargetPosition() != null && getObjectivePosition() != null
+	 *       |       && getPath().needsUpdate(getWorld().getWorldVersion()))
+	 *       |   then preparePathBetween(getTargetPosition(), getObjectivePosition())
+	 * @note   This method only reads the terrain of the world of this unit and only
+	 *         changes the prepared path of this unit. It can therefore be invoked for
+	 *         different units of the same world concurrently, as long as no thread
+	 *         changes that world in the meantime.
+	 */
+	void preparePath() {
+		if (getWorld() == null) {
+			return;
+		}
+		if (pendingObjective != null) {
+			preparePathBetween(getPosition(), pendingObjective);
+			return;
+		}
+		if (getPath() == null || getTargetPosition() == null || getObjectivePosition() == null) {
+			return;
+		}
+		if (getPath().needsUpdate(getWorld().getWorldVersion())) {
+			preparePathBetween(getTargetPosition(), getObjectivePosition());
+		}
+	}
+
+	/**
+	 * Prepare a path between the given start and end position.
+	 * 
+	 * @param  start
+	 *         The position the path starts from.
+	 * @param  end
+	 *         The position the path leads to.
+	 * @post   This unit has a prepared path between the cubes of the given positions,
+	 *         calculated at the current world version. If such a path was already
+	 *         prepared, it is kept.
+	 *       | new.preparedPath != null && new.preparedPathStart == start.getCubeKey()
+	 *       |   && new.preparedPathEnd == end.getCubeKey()
+	 */
+	@Model
+	private void preparePathBetween(Position start, Position end) {
+		long startKey = start.getCubeKey();
+		long endKey = end.getCubeKey();
+		if (preparedPath != null && ! preparedPath.needsUpdate(getWorld().getWorldVersion()) 
+				&& preparedPathStart == startKey && preparedPathEnd == endKey) {
+			return;
+		}
+		this.preparedPath = getWorld().calculatePathBetween(start, end);
+		this.preparedPathStart = startKey;
+		this.preparedPathEnd = endKey;
+	}
+
 	/**
 	 * Update the position of this unit according to the time step and its current speed.
 	 * 
@@ -1682,12 +1949,10 @@ public class Unit extends Entity {
 	 */
 	@Model @Raw
 	private void updatePosition(double deltaTime, double speed, double[] unitSpeed) {
-		Position updatedUnitPosition = new Position();
 		setCurrentSpeed(speed);
 		setWalkingOrientation(unitSpeed);
-		for (int i = 0; i < 3; i++) {
-			updatedUnitPosition.setAt(i, getPosition().getAt(i) + unitSpeed[i] * deltaTime);
-		}
+		Position updatedUnitPosition = getPosition().add(
+				unitSpeed[0] * deltaTime, unitSpeed[1] * deltaTime, unitSpeed[2] * deltaTime);
 		try {
 			setPosition(updatedUnitPosition);
 		} catch (IllegalArgumentException e) {
@@ -1936,6 +2201,7 @@ public class Unit extends Entity {
 	 */
 	@Raw
 	public void startWorking(){
+		wake();
 		this.working = true;
 	}
 
@@ -1947,6 +2213,7 @@ public class Unit extends Entity {
 	 */
 	@Raw
 	public void stopWorking(){
+		wake();
 		this.working = false;
 	}
 
@@ -1975,9 +2242,12 @@ public class Unit extends Entity {
 	 *       | then startWorking()
 	 *         The job time of the unit is set to the work time.
 	 *       | then setJobTime(getWorkTime())
+	 * @effect This unit first starts moving to its pending objective, if any.
+	 *       | startPendingMove()
 	 */
 	@Raw @Deprecated
 	public void work() {
+		startPendingMove();
 		if ((getObjectivePosition() == null) && !isAttacking() && !isWorking() && !doesDefaultBehavior()
 				&& !isFalling()) {
 			resetAllJobs();
@@ -2067,9 +2337,12 @@ public class Unit extends Entity {
 	 *         of the cube to work at.
 	 *       | setOrientation(Math.atan2(getWorkPosition().y() - getPosition().getCubePosition().y(), 
 						getWorkPosition().x() - getPosition().getCubePosition().x()))
+	 * @effect This unit first starts moving to its pending objective, if any.
+	 *       | startPendingMove()
 	 */
 	@Raw
 	public void workAt(int x, int y, int z) {
+		startPendingMove();
 		Position position = new Position(x,y,z);
 		if (getWorld().getAllNeighboursAndSame(getPosition().getCubePosition()).contains(position)) {
 			if ((getObjectivePosition() == null) && !isAttacking() && !isWorking() && !doesDefaultBehavior()
@@ -2274,12 +2547,12 @@ public class Unit extends Entity {
 	 *       | let
 	 *       |   allPositions = getWorld().getAllNeighboursAndSame(getPosition())
 	 *       | in
-	 *       |   result == allPositions.get(new Random().nextInt(allPositions.size()))
+	 *       |   result == allPositions.get(getRandom().nextInt(allPositions.size()))
 	 */
 	@Raw @Model
 	private Position selectRandomWorkPosition() {
 		List<Position> allPositions = getWorld().getAllNeighboursAndSame(getPosition());
-		int random = new Random().nextInt(allPositions.size());
+		int random = getRandom().nextInt(allPositions.size());
 		return allPositions.get(random);
 
 	}
@@ -2308,6 +2581,7 @@ public class Unit extends Entity {
 	 */
 	@Raw
 	public void startAttacking() {
+		wake();
 		this.attacking = true;
 	}
 
@@ -2319,6 +2593,7 @@ public class Unit extends Entity {
 	 */
 	@Raw
 	public void stopAttacking() {
+		wake();
 		this.attacking = false;
 	}
 
@@ -2380,6 +2655,7 @@ public class Unit extends Entity {
 		if (!canHaveAsOpponent(opponent)) {
 			throw new IllegalArgumentException();
 		}
+		wake();
 		this.opponent = opponent;
 	}
 
@@ -2420,6 +2696,7 @@ public class Unit extends Entity {
 	 */
 	@Model @Raw
 	private void addAsAttacker(Unit unit) {
+		wake();
 		getAllAttackers().add(unit);
 	}
 
@@ -2434,6 +2711,7 @@ public class Unit extends Entity {
 	 *       |   then getAllAttackers().remove(unit)
 	 */
 	private void removeAsAttacker(Unit unit) {
+		wake();
 		if (getAllAttackers().contains(unit)) {
 			getAllAttackers().remove(unit);
 		}
@@ -2454,12 +2732,15 @@ public class Unit extends Entity {
 	 *         cube, the attack is controlled.
 	 *       | if (isAdjacentToOrSame(getPosition(), defender.getPosition())
 	 *       |   then controlAttack(defender)
+	 * @effect This unit first starts moving to its pending objective, if any.
+	 *       | startPendingMove()
 	 * @throws IllegalArgumentException
 	 *         The given defender is not effective.
 	 *       | defender == null
 	 */
 	@Raw
 	public void attack(@Raw Unit defender) throws IllegalArgumentException {
+		startPendingMove();
 		if (defender == null) {
 			throw new IllegalArgumentException();
 		}
@@ -2509,6 +2790,8 @@ public class Unit extends Entity {
 	 * 
 	 * @param  defender
 	 *         The defending unit.
+	 * @effect The defender first starts moving to its pending objective, if any.
+	 *       | defender.startPendingMove()
 	 * @effect The defender's attacking state is controlled.
 	 *       | defender.controlAttackingState()
 	 * @effect This unit's and the defender's jobs are reset.
@@ -2526,6 +2809,7 @@ public class Unit extends Entity {
 	 */
 	@Raw @Model
 	private void controlAttack(Unit defender) {
+		defender.startPendingMove();
 		// Special case: attacker attacks an attacking unit.
 		defender.controlAttackingState();
 		resetAllJobs();
@@ -2673,26 +2957,27 @@ public class Unit extends Entity {
 	/**
 	 * Return a list of possible defenders.
 	 * 
-	 * @return All units of the list of all units in this world that stand on the same position
-	 *         or on a neighbouring position as the position that this unit currently stands on.
+	 * @return All units in this world that occupy the same cube or a neighbouring
+	 *         cube as the cube that this unit currently occupies.
 	 *       | let
-	 *       |   possiblePositions = getWorld().getAllNeighboursAndSame(getPosition())
-	 *       |   possibleUnits = possibleUnits = getWorld().getAllUnits()
-	 *       |   possibleDefenders = possibleDefenders = new ArrayList<Unit>()
+	 *       |   possibleEntities = getWorld().entitiesInBox(getPosition() - (1,1,1),
+	 *       |       getPosition() + (1,1,1))
+	 *       |   possibleDefenders = new ArrayList<Unit>()
 	 *       | in
-	 *       |   for each unit in possibleUnits
-	 *       |     if (possiblePositions.contains(unit.getPosition()))
-	 *       |       then possibleDefenders.add(unit)
+	 *       |   for each entity in possibleEntities
+	 *       |     if (entity instanceof Unit)
+	 *       |       then possibleDefenders.add(entity)
 	 *       | result == possibleDefenders
 	 */
 	@Raw @Model
 	private List<Unit> getPossibleDefenders(){
-		List<Position> possiblePositions = getWorld().getAllNeighboursAndSame(getPosition());
-		Set<Unit> possibleUnits = getWorld().getAllUnits();
+		Position position = getPosition();
+		Position min = new Position(position.x() - 1, position.y() - 1, position.z() - 1);
+		Position max = new Position(position.x() + 1, position.y() + 1, position.z() + 1);
 		List<Unit> possibleDefenders = new ArrayList<Unit>();
-		for (Unit unit : possibleUnits) {
-			if (possiblePositions.contains(unit.getPosition())) {
-				possibleDefenders.add(unit);
+		for (Entity entity : getWorld().entitiesInBox(min, max)) {
+			if (entity instanceof Unit) {
+				possibleDefenders.add((Unit) entity);
 			}
 		}
 		return possibleDefenders;
@@ -2717,7 +3002,7 @@ public class Unit extends Entity {
 	 *         is a unit in that list that belongs to a different faction
 	 *         than this unit.
 	 *       | let
-	 *       |   nb = new Random().nextInt(possibleDefenders.size())
+	 *       |   nb = getRandom().nextInt(possibleDefenders.size())
 	 *       | in
 	 *       |   result == possibleDefenders.get(nb)
 	 */
@@ -2733,8 +3018,7 @@ public class Unit extends Entity {
 		if (flag == false) {
 			return null;
 		}
-		Random random = new Random();
-		int nb = random.nextInt(possibleDefenders.size());
+		int nb = getRandom().nextInt(possibleDefenders.size());
 		return possibleDefenders.get(nb);
 	}
 
@@ -2783,12 +3067,16 @@ public class Unit extends Entity {
 	 * 
 	 * @param  attacker
 	 * 		   The unit that you have to defend against.
+	 * @effect This unit first starts moving to its pending objective, if any.
+	 *       | startPendingMove()
 	 * @effect If this unit dodged the attack: move to an accessible adjacent position
-	 *         on the same z-level.
-	 * 		 | if (random.nextDouble() < getChanceToDodge(attacker, this))
+	 *         on the same z-level, if there is one.
+	 * 		 | if (random.nextDouble() < getChanceToDodge(attacker, this) &&
+	 * 		 |     getWorld().getRandomAccessibleNeighbouringPositionOnSameZ(getPosition()) != null)
 	 * 		 |   then moveTo(getWorld().getRandomAccessibleNeighbouringPositionOnSameZ(getPosition()))
-	 * @return True if the unit could successfully dodge.
-	 * 		 | if (random.nextDouble() < getChanceToDodge(attacker, this))
+	 * @return True if the unit could successfully dodge to an adjacent position.
+	 * 		 | if (random.nextDouble() < getChanceToDodge(attacker, this) &&
+	 * 		 |     getWorld().getRandomAccessibleNeighbouringPositionOnSameZ(getPosition()) != null)
 	 * 		 |   then result == true
 	 * @return True if the unit could successfully block the attack.
 	 * 		 | if (random.nextDouble() < getChanceToBlock(attacker, this))
@@ -2800,11 +3088,15 @@ public class Unit extends Entity {
 	 */    
 	@Model @Raw
 	private boolean defend(@Raw Unit attacker) {
-		Random random = new Random();
+		startPendingMove();
+		SplittableRandom random = getRandom();
 		double dodgeLuck = random.nextDouble();
 		if (dodgeLuck < getChanceToDodge(attacker, this)) {
-			moveTo(getWorld().getRandomAccessibleNeighbouringPositionOnSameZ(getPosition()));
-			return true;
+			Position dodge = getWorld().getRandomAccessibleNeighbouringPositionOnSameZ(getPosition());
+			if (dodge != null) {
+				moveTo(dodge);
+				return true;
+			}
 		}
 		double blockLuck = random.nextDouble();
 		if (blockLuck < getChanceToBlock(attacker, this)) {
@@ -2867,6 +3159,7 @@ public class Unit extends Entity {
 	 */
 	@Raw
 	public void startResting() {
+		wake();
 		this.resting = true;
 	}
 
@@ -2878,6 +3171,7 @@ public class Unit extends Entity {
 	 */
 	@Raw
 	public void stopResting(){
+		wake();
 		this.resting = false;
 	}
 
@@ -2925,9 +3219,12 @@ public class Unit extends Entity {
 	 *         time needed to recover one stamina point.
 	 * 		 | then if (getNbStaminaPoints() < getMaxNbStaminaPoints())
 	 * 		 |        then setJobTime(getStaminaRestTime())
+	 * @effect This unit first starts moving to its pending objective, if any.
+	 *       | startPendingMove()
 	 */
 	@Raw
 	public void rest() {
+		startPendingMove();
 		if ((getObjectivePosition() == null) && !isAttacking() && !isResting() && !doesDefaultBehavior()
 				&& !isFalling()) {
 			resetAllJobs();
@@ -3041,6 +3338,7 @@ public class Unit extends Entity {
 	 */
 	@Raw
 	public void startDefaultBehaviour() {
+		wake();
 		if (! isMoving() && ! hasJob()) {
 			this.doesDefaultBehavior = true;
 		}
@@ -3049,6 +3347,8 @@ public class Unit extends Entity {
 	/**
 	 * Make this unit stop performing default behavior.
 	 * 
+	 * @effect This unit first starts moving to its pending objective, if any.
+	 *       | startPendingMove()
 	 * @effect This unit's objective position is set to this unit's
 	 *         current target position.
 	 *       | setObjectivePosition(getTargetPosition())
@@ -3063,6 +3363,7 @@ public class Unit extends Entity {
 	 */
 	@Raw
 	public void stopDefaultBehaviour() {
+		startPendingMove();
 		if (getObjectivePosition() != null) {
 			setObjectivePosition(getTargetPosition());
 		}
@@ -3081,14 +3382,13 @@ public class Unit extends Entity {
 	@Model @Raw
 	private void chooseDefaultBehavior() {
 		this.didDefaultBehaviour = true;
-		Random random = new Random();
-		int i = random.nextInt(4);
+		int i = getRandom().nextInt(4);
 		if (i == 0) {
 			workWithDefaultAt();
 		} else if (i == 1) {
 			restWithDefault();
 		} else if (i == 2) {
-			moveTo(getWorld().getRandomReachablePositionStartingFrom(getPosition()));
+			moveToPrepared(getWorld().getRandomReachablePositionStartingFrom(getPosition()));
 		} else if (i== 3) {
 			attackWithDefault();
 		}
@@ -3251,7 +3551,17 @@ public class Unit extends Entity {
 	 *       | ...
 	 */
 	public static String getRandomizedName() {
-		Random random = new Random();
+		return getRandomizedName(new SplittableRandom());
+	}
+
+	/**
+	 * Generate a pseudo-random name for a unit with the given randomizer.
+	 * 
+	 * @param  random
+	 *         The randomizer to generate the name with.
+	 * @return A pseudo-random name for a unit.
+	 */
+	public static String getRandomizedName(SplittableRandom random) {
 		String name = "";
 		String[] adjectives = {"Drunken ", "Lovely ", "Monstrous ", "Fat ", "Gross ", "Great ",
 				"Agressive ", "Stoic ", "Black ", "Little ", "Greedy ", "Amazing "};
@@ -3277,17 +3587,31 @@ public class Unit extends Entity {
 	 * @return A random value between the lower and the upper limit.
 	 *       | let
 	 *       |   delta = upper - lower
-	 *       |   random = new Random().nextInt(delta)+1
+	 *       |   random = getRandom().nextInt(delta)+1
 	 *       | in
 	 *       |   result == random
 	 */
 	public static int getRandomizedValueBetween(int lower, int upper) {
+		return getRandomizedValueBetween(lower, upper, new SplittableRandom());
+	}
+
+	/**
+	 * Generate a random value between the given bounds with the given randomizer.
+	 * 
+	 * @param  lower
+	 *         The lower bound.
+	 * @param  upper
+	 *         The upper bound.
+	 * @param  random
+	 *         The randomizer to generate the value with.
+	 * @return See {@link #getRandomizedValueBetween(int, int)}.
+	 */
+	public static int getRandomizedValueBetween(int lower, int upper, SplittableRandom random) {
 		if (upper < lower) {
-			getRandomizedValueBetween(upper, lower);
+			getRandomizedValueBetween(upper, lower, random);
 		}
 		int delta = upper - lower;
-		int random = new Random().nextInt(delta)+1;
-		return random;
+		return random.nextInt(delta)+1;
 	}	
 
 	// INVENTORY
@@ -3410,8 +3734,9 @@ public class Unit extends Entity {
 	 *      | new.getTask() == task
 	 */
 	public void setTask(Task task) {
+		wake();
 		this.task = task;
-		setProgram(task == null ? null : new Program(task.getStatement()));
+		setProgram(task == null ? null : new Program(task.getStatement(), task.getCompiledStatement()));
 	}
 	
 	// PROGRAM
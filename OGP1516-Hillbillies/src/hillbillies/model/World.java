@@ -1,12 +1,13 @@
 package hillbillies.model;
 
-import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.LinkedHashSet;
 import java.util.Map;
-import java.util.Random;
+import java.util.SplittableRandom;
 import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -39,14 +40,14 @@ import hillbillies.world.Position;
 public class World {
 	
 	/**
-	 * Variable containing the maximum amount of factions
-	 * allowed in this world.
+	 * Variable containing the default maximum amount of factions
+	 * allowed in a world.
 	 */
 	public static final int MAX_FACTIONS = 5;
 	
 	/**
-	 * Variable containing the maximum amount of units allowed
-	 * in this world.
+	 * Variable containing the default maximum amount of units allowed
+	 * in a world.
 	 */
 	public static final int MAX_UNITS = 100;
 	
@@ -98,19 +99,109 @@ public class World {
 	private Cube[][][] world;
 	
 	/**
-	 * Variable registering the game time passed.
+	 * Variable registering the number of nanoseconds in a second.
+	 */
+	private static final long NANOS_PER_SECOND = 1000000000L;
+	
+	/**
+	 * Variable registering the game time passed in this world, in nanoseconds.
 	 */
-	private static BigDecimal gameTime = new BigDecimal(0.0);
+	private long gameTime = 0L;
+	
+	/**
+	 * Variable registering the number of time steps this world has advanced.
+	 */
+	private long nbTicks = 0L;
+	
+	/**
+	 * Variable registering the game time, in nanoseconds, at which all units
+	 * of this world are forced to rest next.
+	 */
+	private long nextForcedRest = JobStat.THREEMINUTEREST * NANOS_PER_SECOND;
+	
+	/**
+	 * Variable registering the game time, in nanoseconds, at the start of the
+	 * current time step of this world.
+	 */
+	private long tickStart = 0L;
+	
+	/**
+	 * Variable registering the number of nanoseconds in a tick of the timing
+	 * wheel of each world.
+	 */
+	private static final long NANOS_PER_TIMER_TICK = 1000000L;
+	
+	/**
+	 * Variable referencing a timing wheel collecting the units of this world
+	 * that are asleep, at the game time their job needs their attention again.
+	 * 
+	 * @invar  The referenced wheel is effective.
+	 * @invar  Each unit scheduled in the referenced wheel is asleep in this world.
+	 */
+	private final TimerWheel<Unit> timers = new TimerWheel<>(NANOS_PER_TIMER_TICK);
+	
+	/**
+	 * Variable referencing the game time, in nanoseconds, at which each entity
+	 * that is asleep in this world fell asleep.
+	 */
+	private final Map<Entity, Long> sleepingSince = new HashMap<>();
+	
+	/**
+	 * Variable referencing a dense list collecting the entities of this world
+	 * that are advanced in each time step, in order of their handles.
+	 * 
+	 * @invar  The referenced list is effective.
+	 * @invar  Each entity of this world is in the referenced list if and only if
+	 *         it is not asleep.
+	 */
+	private final ActiveList<Entity> active = new ActiveList<>();
+	
+	/**
+	 * Variable registering the time, in nanoseconds of wall-clock time, this
+	 * world has spent in each phase of its time steps.
+	 */
+	private final long[] phaseTimes = new long[TickPhase.values().length];
 
 	/**
-	 * Variable referencing a set collecting all the entities
+	 * Variable referencing a registry collecting all the entities
 	 * of this world.
 	 * 
-	 * @invar  The referenced set is effective.
-	 * @invar  Each entity registered in the referenced list is
+	 * @invar  The referenced registry is effective.
+	 * @invar  Each entity registered in the referenced registry is
 	 *         effective and not yet terminated.
 	 */
-	private final Map<String, HashSet<Entity>> entities = new HashMap<>();
+	private final EntityRegistry entities = new EntityRegistry();
+	
+	/**
+	 * Variable referencing a grid bucketing all the entities of this
+	 * world per cube they occupy.
+	 * 
+	 * @invar  The referenced grid is effective.
+	 * @invar  Each entity registered in the referenced grid is an
+	 *         active entity of this world.
+	 */
+	private final SpatialGrid grid;
+	
+	/**
+	 * Variable referencing a set collecting the coordinates of all cubes
+	 * of this world that are of workshop type.
+	 * 
+	 * @invar  The referenced set is effective.
+	 * @invar  Each coordinate registered in the referenced set is the
+	 *         coordinate of a cube of workshop type in this world.
+	 */
+	private final Set<Coordinate> workshops = new HashSet<>();
+	
+	/**
+	 * Variable referencing a set collecting the coordinates of all cubes
+	 * of this world at which a new unit can be spawned.
+	 * 
+	 * @invar  The referenced set is effective.
+	 * @invar  Each coordinate registered in the referenced set is the
+	 *         coordinate of a passable cube of this world that lies on the
+	 *         lowest z-level or on top of a solid cube.
+	 */
+	private final RandomAccessSet<Coordinate> spawnPositions = new RandomAccessSet<>();
 	
 	/**
 	 * Variable referencing a set collecting all the factions
@@ -120,17 +211,58 @@ public class World {
 	 * @invar  Each faction registered in the referenced list is
 	 *         effective and not yet terminated.
 	 */
-	private final Set<Faction> factions = new HashSet<Faction>();
+	private final Set<Faction> factions = new LinkedHashSet<Faction>();
 	
 	/**
-	 * Variable registering a randomizer.
+	 * Variable registering the seed of this world.
 	 */
-	private final static Random random = new Random();
+	private final long seed;
+	
+	/**
+	 * Variable registering the randomizer of this world.
+	 */
+	private final SplittableRandom random;
 	
 	/**
 	 * Variable registering whether or not this world is terminated.
 	 */
 	private boolean isTerminated;
+	
+	/**
+	 * Variable registering the maximum amount of units allowed
+	 * in this world.
+	 */
+	private int maxNbUnits = MAX_UNITS;
+	
+	/**
+	 * Variable registering the maximum amount of factions allowed
+	 * in this world.
+	 */
+	private int maxNbFactions = MAX_FACTIONS;
+	
+	/**
+	 * Variable registering the maximum amount of units allowed
+	 * in a faction of this world.
+	 */
+	private int maxNbUnitsPerFaction = Faction.MAX_UNITS;
+	
+	/**
+	 * Variable registering whether the units of this world prepare their
+	 * paths at the start of each time step.
+	 */
+	private boolean isPreparingPaths = false;
+	
+	/**
+	 * Variable registering the world version at which the units of this world
+	 * last prepared their paths.
+	 */
+	private int preparedVersion = -1;
+	
+	/**
+	 * Set registering the units of this world waiting for the path towards
+	 * their pending objective.
+	 */
+	private final Set<Unit> pathRequests = new LinkedHashSet<>();
 
 	/**
 	 * Initialize this new world as a non-terminated world with 
@@ -148,8 +280,12 @@ public class World {
 	 *         terrain types.
 	 * @post   This new world has no factions yet.
 	 * @post   This new world has no entities yet.
+	 * @post   grid is initialized as a new empty spatial grid with the
+	 *         dimensions of this world.
 	 * @post   border is initialized as a new object of the ConnectedToBorder
 	 *         class.
+	 * @effect The spawn position registration of each cube of this new world
+	 *         is updated.
 	 * @effect The world version is set to 0.
 	 * @throws IllegalArgumentException
 	 *         The terrain types are not effective, or the model listener
@@ -161,6 +297,32 @@ public class World {
 	@Raw
 	public World(int[][][] terrainTypes, TerrainChangeListener modelListener) 
 			throws IllegalArgumentException, IndexOutOfBoundsException {
+		this(terrainTypes, modelListener, new SplittableRandom().nextLong());
+	}
+	
+	/**
+	 * Initialize this new world as a non-terminated world with 
+	 * no factions or entities yet, and with the given seed.
+	 * 
+	 * @param  terrainTypes
+	 * 		   An integer array containing the information needed to
+	 * 		   construct the game world.
+	 * @param  modelListener
+	 * 		   A class to detect terrain changes.
+	 * @param  seed
+	 *         The seed of all random choices made in this new world.
+	 * @post   The seed of this new world is equal to the given seed.
+	 *       | new.getSeed() == seed
+	 * @post   The randomizer of this new world is a new randomizer with the given seed.
+	 * @effect See {@link #World(int[][][], TerrainChangeListener)}.
+	 * @note   Two worlds with the same seed, terrain and entities that are subjected
+	 *         to the same operations, make the same random choices.
+	 */
+	@Raw
+	public World(int[][][] terrainTypes, TerrainChangeListener modelListener, long seed) 
+			throws IllegalArgumentException, IndexOutOfBoundsException {
+		this.seed = seed;
+		this.random = new SplittableRandom(seed);
 		if (terrainTypes == null) {
 			throw new IllegalArgumentException();
 		}
@@ -174,16 +336,27 @@ public class World {
 		this.setWorldVersion(0);
 		this.world = new Cube[sizeX][sizeY][sizeZ];
 		this.border = new ConnectedToBorder(sizeX, sizeY, sizeZ);
+		this.grid = new SpatialGrid(sizeX, sizeY, sizeZ);
 		for (int i = 0; i < sizeX; i++) {
 			for (int j = 0; j < sizeY; j++) {
 				for (int k = 0; k < sizeZ; k++) {
 					world[i][j][k] = Cube.byId(terrainTypes[i][j][k]);
+					if (world[i][j][k] == Cube.WORKBENCH) {
+						workshops.add(new Coordinate(i,j,k));
+					}
 					if (getAt(new Position(i,j,k)).isPassable()) {
 						border.changeSolidToPassable(i,j,k);
 					}
 				}
 			}
 		}
+		for (int i = 0; i < sizeX; i++) {
+			for (int j = 0; j < sizeY; j++) {
+				for (int k = 0; k < sizeZ; k++) {
+					updateSpawnPosition(i,j,k);
+				}
+			}
+		}
 	}
 	
 	/**
@@ -206,13 +379,11 @@ public class World {
 			for (Faction faction : getAllFactions()) {
 				faction.terminate();
 			}
-			for (HashSet<Entity> entityType : entities.values()) {
-				for (Entity entity : entityType) {
-					if (entity instanceof Unit) {
-						((Unit) entity).terminate();
-					} else {
-						entity.terminate();
-					}
+			for (Entity entity : getAllEntities()) {
+				if (entity instanceof Unit) {
+					((Unit) entity).terminate();
+				} else {
+					entity.terminate();
 				}
 			}
 		}
@@ -276,6 +447,239 @@ public class World {
 		setWorldVersion(getWorldVersion() + 1);
 	}
 	
+	/**
+	 * Return the maximum amount of units allowed in this world.
+	 */
+	@Basic
+	public int getMaxNbUnits() {
+		return this.maxNbUnits;
+	}
+	
+	/**
+	 * Return the maximum amount of factions allowed in this world.
+	 */
+	@Basic
+	public int getMaxNbFactions() {
+		return this.maxNbFactions;
+	}
+	
+	/**
+	 * Return the maximum amount of units allowed in a faction of this world.
+	 */
+	@Basic
+	public int getMaxNbUnitsPerFaction() {
+		return this.maxNbUnitsPerFaction;
+	}
+	
+	/**
+	 * Check whether the given maximum is a valid population limit for any world.
+	 * 
+	 * @param  max
+	 *         The maximum to check.
+	 * @return True if and only if the given maximum is strictly positive.
+	 *       | result == (max > 0)
+	 */
+	public static boolean isValidPopulationLimit(int max) {
+		return max > 0;
+	}
+	
+	/**
+	 * Set the maximum amount of units allowed in this world to the given maximum.
+	 * 
+	 * @param  max
+	 *         The new maximum amount of units.
+	 * @post   The new maximum amount of units of this world is equal to the given
+	 *         maximum.
+	 *       | new.getMaxNbUnits() == max
+	 * @throws IllegalArgumentException
+	 *         The given maximum is not a valid population limit.
+	 *       | ! isValidPopulationLimit(max)
+	 * @note   Units already in this world are not removed.
+	 */
+	public void setMaxNbUnits(int max) throws IllegalArgumentException {
+		if (! isValidPopulationLimit(max)) {
+			throw new IllegalArgumentException();
+		}
+		this.maxNbUnits = max;
+	}
+	
+	/**
+	 * Set the maximum amount of factions allowed in this world to the given maximum.
+	 * 
+	 * @param  max
+	 *         The new maximum amount of factions.
+	 * @post   The new maximum amount of factions of this world is equal to the given
+	 *         maximum.
+	 *       | new.getMaxNbFactions() == max
+	 * @throws IllegalArgumentException
+	 *         The given maximum is not a valid population limit.
+	 *       | ! isValidPopulationLimit(max)
+	 * @note   Factions already in this world are not removed.
+	 */
+	public void setMaxNbFactions(int max) throws IllegalArgumentException {
+		if (! isValidPopulationLimit(max)) {
+			throw new IllegalArgumentException();
+		}
+		this.maxNbFactions = max;
+	}
+	
+	/**
+	 * Set the maximum amount of units allowed in a faction of this world to the
+	 * given maximum.
+	 * 
+	 * @param  max
+	 *         The new maximum amount of units per faction.
+	 * @post   The new maximum amount of units per faction of this world is equal to
+	 *         the given maximum.
+	 *       | new.getMaxNbUnitsPerFaction() == max
+	 * @throws IllegalArgumentException
+	 *         The given maximum is not a valid population limit.
+	 *       | ! isValidPopulationLimit(max)
+	 * @note   Units already in a faction of this world are not removed.
+	 */
+	public void setMaxNbUnitsPerFaction(int max) throws IllegalArgumentException {
+		if (! isValidPopulationLimit(max)) {
+			throw new IllegalArgumentException();
+		}
+		this.maxNbUnitsPerFaction = max;
+	}
+	
+	/**
+	 * Set the population limits of this world to the given maxima.
+	 * 
+	 * @param  maxNbUnits
+	 *         The new maximum amount of units.
+	 * @param  maxNbFactions
+	 *         The new maximum amount of factions.
+	 * @param  maxNbUnitsPerFaction
+	 *         The new maximum amount of units per faction.
+	 * @effect The maximum amount of units is set to the given maximum amount of units.
+	 *       | setMaxNbUnits(maxNbUnits)
+	 * @effect The maximum amount of factions is set to the given maximum amount of factions.
+	 *       | setMaxNbFactions(maxNbFactions)
+	 * @effect The maximum amount of units per faction is set to the given maximum amount
+	 *         of units per faction.
+	 *       | setMaxNbUnitsPerFaction(maxNbUnitsPerFaction)
+	 * @throws IllegalArgumentException
+	 *         One of the given maxima is not a valid population limit. None of the
+	 *         limits of this world is changed in that case.
+	 */
+	public void setPopulationLimits(int maxNbUnits, int maxNbFactions, int maxNbUnitsPerFaction) 
+			throws IllegalArgumentException {
+		if (! isValidPopulationLimit(maxNbUnits) || ! isValidPopulationLimit(maxNbFactions) ||
+				! isValidPopulationLimit(maxNbUnitsPerFaction)) {
+			throw new IllegalArgumentException();
+		}
+		setMaxNbUnits(maxNbUnits);
+		setMaxNbFactions(maxNbFactions);
+		setMaxNbUnitsPerFaction(maxNbUnitsPerFaction);
+	}
+	
+	/**
+	 * Return the game time passed in this world, in seconds.
+	 */
+	public double getGameTime() {
+		return (double) this.gameTime / NANOS_PER_SECOND;
+	}
+	
+	/**
+	 * Return the number of time steps this world has advanced.
+	 */
+	@Basic
+	public long getNbTicks() {
+		return this.nbTicks;
+	}
+	
+	/**
+	 * Return the wall-clock time, in nanoseconds, this world has spent in
+	 * the given phase of its time steps.
+	 * 
+	 * @param  phase
+	 *         The phase to return the time spent in.
+	 * @throws IllegalArgumentException
+	 *         The given phase is not effective.
+	 */
+	public long getTimeSpentIn(TickPhase phase) throws IllegalArgumentException {
+		if (phase == null) {
+			throw new IllegalArgumentException();
+		}
+		return this.phaseTimes[phase.ordinal()];
+	}
+	
+	/**
+	 * Return the seed of this world.
+	 */
+	@Basic @Immutable
+	public long getSeed() {
+		return this.seed;
+	}
+	
+	/**
+	 * Return the randomizer of this world.
+	 */
+	@Basic @Immutable
+	SplittableRandom getRandom() {
+		return this.random;
+	}
+	
+	/**
+	 * Return a new randomizer for the entity with the given handle.
+	 * 
+	 * @param  handle
+	 *         The handle of the entity to return a randomizer for.
+	 * @return A new randomizer whose seed only depends on the seed of this world
+	 *         and the given handle.
+	 */
+	@Model
+	private SplittableRandom createRandomFor(int handle) {
+		long z = getSeed() + (handle + 1) * 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return new SplittableRandom(z ^ (z >>> 31));
+	}
+	
+	/**
+	 * Check whether the units of this world prepare their paths at the start
+	 * of each time step.
+	 */
+	@Basic
+	public boolean isPreparingPaths() {
+		return this.isPreparingPaths;
+	}
+	
+	/**
+	 * Set whether the units of this world prepare their paths at the start
+	 * of each time step.
+	 * 
+	 * @param  isPreparingPaths
+	 *         Whether the units of this world prepare their paths.
+	 * @effect If the units of this world no longer prepare their paths, the
+	 *         units waiting for a path start moving towards their pending objective.
+	 *       | if (! isPreparingPaths)
+	 *       |   then startPendingMoves()
+	 * @post   The units of this world prepare their paths if and only if
+	 *         the given flag is true.
+	 *       | new.isPreparingPaths() == isPreparingPaths
+	 */
+	public void setPreparingPaths(boolean isPreparingPaths) {
+		this.isPreparingPaths = isPreparingPaths;
+		if (! isPreparingPaths) {
+			startPendingMoves();
+		}
+	}
+	
+	/**
+	 * Register the given unit as waiting for the path towards its pending objective.
+	 * 
+	 * @param  unit
+	 *         The unit to register.
+	 * @post   The given unit prepares its path and starts moving at the start of
+	 *         the next time step of this world.
+	 */
+	void requestPath(Unit unit) {
+		pathRequests.add(unit);
+	}
+	
 	/**
 	 * Return an object of the ConnectedToBorder class.
 	 */
@@ -298,8 +702,7 @@ public class World {
 		} else if (! isValidPosition(position)) {
 			throw new IllegalArgumentException();
 		}
-		int[] coord = position.convertToIntegerArray();
-		return world[coord[0]][coord[1]][coord[2]];
+		return world[(int) position.x()][(int) position.y()][(int) position.z()];
 	}
 
 	/**
@@ -310,7 +713,15 @@ public class World {
 	 * @param  cube
 	 *         The new cube type at the given position.
 	 * @post   The cube at the given position is set to the given cube type.
+	 * @post   The cube at the given position is registered as a workshop if and
+	 *         only if the given cube type is the workshop type.
+	 * @effect The spawn position registration of the cube at the given position
+	 *         and of the cube on top of it is updated.
+	 * @effect The units waiting for a path first start moving towards their pending
+	 *         objective, along a path through the terrain as it was before the change.
+	 *       | startPendingMoves()
 	 * @effect The world version is updated.
+	 * @effect All entities around the cube at the given position are woken up.
 	 * @effect The model listener is notified that the cube type has changed at the
 	 *         given position.
 	 * @throws IllegalArgumentException
@@ -324,12 +735,43 @@ public class World {
 		} else if (! isValidPosition(position)) {
 			throw new IllegalArgumentException();
 		}
+		startPendingMoves();
 		Coordinate coord = position.convertToCoordinate();
 		world[coord.x()][coord.y()][coord.z()] = cube;
+		if (cube == Cube.WORKBENCH) {
+			workshops.add(coord);
+		} else {
+			workshops.remove(coord);
+		}
+		updateSpawnPosition(coord.x(), coord.y(), coord.z());
+		updateSpawnPosition(coord.x(), coord.y(), coord.z() + 1);
 		updateWorldVersion();
+		wakeEntitiesAround(coord);
 		modelListener.notifyTerrainChanged(coord.x(), coord.y(), coord.z());
 	}
 
+	/**
+	 * Wake up all entities in the given cube or in one of its neighbouring cubes.
+	 * 
+	 * @param  coord
+	 *         The coordinate of the cube to wake up the entities around.
+	 * @effect Each entity of this world whose cube is adjacent to or the same as
+	 *         the cube at the given coordinate is woken up.
+	 *       | for each entity in entitiesInBox(coord - (1,1,1), coord + (1,1,1))
+	 *       |   wake(entity)
+	 */
+	@Model
+	private void wakeEntitiesAround(Coordinate coord) {
+		if (sleepingSince.isEmpty()) {
+			return;
+		}
+		Position min = new Position(coord.x() - 1, coord.y() - 1, coord.z() - 1);
+		Position max = new Position(coord.x() + 1, coord.y() + 1, coord.z() + 1);
+		for (Entity entity : grid.entitiesInBox(min, max)) {
+			wake(entity);
+		}
+	}
+
 	/**
 	 * Set the cube type of this world at the given position to the given cube type.
 	 * 
@@ -385,11 +827,32 @@ public class World {
 	 *         air or of type workshop.
 	 */
 	public boolean isPassable(Position position) {
-		try {
-			return getAt(position).isPassable();
-		} catch (Exception e) {
-			return false;
-		}
+		return position != null && isValidPosition(position) && getAt(position).isPassable();
+	}
+
+	/**
+	 * Check whether the cube with the given coordinates is passable.
+	 * 
+	 * @param  x
+	 *         The x-coordinate of the cube to check.
+	 * @param  y
+	 *         The y-coordinate of the cube to check.
+	 * @param  z
+	 *         The z-coordinate of the cube to check.
+	 * @return True if and only if the cube with the given coordinates lies inside
+	 *         this world and is of type air or of type workshop.
+	 *       | result == isPassable(new Position(x, y, z))
+	 */
+	public boolean isPassable(int x, int y, int z) {
+		return isInside(x, y, z) && world[x][y][z].isPassable();
+	}
+
+	/**
+	 * Check whether the cube with the given coordinates lies inside this world.
+	 */
+	@Model
+	private boolean isInside(int x, int y, int z) {
+		return x >= 0 && x < getSizeX() && y >= 0 && y < getSizeY() && z >= 0 && z < getSizeZ();
 	}
 	
 	/**
@@ -398,27 +861,203 @@ public class World {
 	 * @param  deltaTime
 	 *         The time step by which to advance this world's state.
 	 * @effect The given time step is made a valid time step.
-	 * @effect The given time step is added to the game time.
-	 * @effect For each entity in the list of all entities, do:
-	 * @effect If the entity is not a unit, and if the entity is falling
-	 *         or has no underlying solid cube, its fall behavior is executed.
-	 * @effect Otherwise, if the check if the unit has to rest because three
-	 *         minutes have passed yields true, the entity rests, whereafter
-	 *         the entity's state is advanced by the given time step.
+	 * @effect The given time step is added to the game time, and the number of
+	 *         time steps is incremented by one.
+	 * @effect If the units of this world prepare their paths, they do so
+	 *         before any entity is advanced.
+	 *       | if (isPreparingPaths())
+	 *       |   then preparePaths()
+	 * @effect If the check if the units of this world have to rest because three
+	 *         minutes have passed yields true, the state of each entity in the list
+	 *         of all entities that is not asleep is advanced by the given time step,
+	 *         whereafter each unit in that list rests.
+	 * @effect Otherwise, the state of each entity in the list of active entities
+	 *         is advanced by the given time step, in order of their handles.
+	 * @note   Entities that are asleep are not in the list of active entities, so
+	 *         that a time step takes time linear in the number of entities that
+	 *         are awake.
+	 * @effect The entities removed from this world are dropped from its registry.
+	 * @post   The wall-clock time spent in each phase of this time step is added
+	 *         to the time this world has spent in that phase.
 	 */
 	public void advanceTime(double deltaTime) {
 		makeValidDeltaTime(deltaTime);
-		gameTime = gameTime.add(new BigDecimal(deltaTime));
+		long deltaNanos = Math.round(deltaTime * NANOS_PER_SECOND);
+		tickStart = gameTime;
+		gameTime += deltaNanos;
+		nbTicks++;
+		boolean forcedRest = checkThreeMinuteRest(deltaNanos);
 		
-		for (Entity entity : getAllEntities()) {
-			if (!entity.isTerminated()) {
-				entity.advanceTime(deltaTime);
-				if (entity instanceof Unit) {
-					if (checkThreeMinuteRest(deltaTime)) {
+		long start = System.nanoTime();
+		for (Unit unit : timers.advanceTo(gameTime)) {
+			wake(unit);
+		}
+		if (isPreparingPaths()) {
+			preparePaths();
+		}
+		long prepared = System.nanoTime();
+		if (forcedRest) {
+			for (Entity entity : getAllEntities()) {
+				if (!entity.isTerminated()) {
+					if (! isAsleep(entity)) {
+						entity.advanceTime(deltaTime);
+					}
+					if (entity instanceof Unit) {
 						((Unit) entity).rest();
 					}
 				}
 			}
+		} else {
+			active.startIteration(entities.getLastHandle());
+			for (Entity entity = active.next(); entity != null; entity = active.next()) {
+				if (!entity.isTerminated()) {
+					entity.advanceTime(deltaTime);
+				}
+			}
+		}
+		long advanced = System.nanoTime();
+		tickStart = gameTime;
+		entities.endTick();
+		phaseTimes[TickPhase.PREPARE.ordinal()] += prepared - start;
+		phaseTimes[TickPhase.ADVANCE.ordinal()] += advanced - prepared;
+		phaseTimes[TickPhase.CLEANUP.ordinal()] += System.nanoTime() - advanced;
+	}
+	
+	/**
+	 * Let the given entity sleep until it is woken up.
+	 * 
+	 * @param  entity
+	 *         The entity to put asleep.
+	 * @post   The given entity is asleep in this world.
+	 * @post   The given entity is no longer in the list of active entities of this world.
+	 * @note   Entities that are asleep are not advanced by this world. They
+	 *         are woken up as soon as the terrain in or next to their cube
+	 *         changes, or as soon as anything else changes that they depend on.
+	 * @throws IllegalArgumentException
+	 *         The given entity is not an active entity of this world.
+	 */
+	void sleep(Entity entity) throws IllegalArgumentException {
+		if (! hasAsEntity(entity)) {
+			throw new IllegalArgumentException();
+		}
+		sleepingSince.put(entity, gameTime);
+		active.remove(getHandleOf(entity));
+	}
+	
+	/**
+	 * Let the given unit sleep until the given time has passed.
+	 * 
+	 * @param  unit
+	 *         The unit to put asleep.
+	 * @param  duration
+	 *         The game time, in seconds, after which the given unit has to be
+	 *         woken up.
+	 * @effect The given unit is put asleep in this world.
+	 *       | sleep(unit)
+	 * @post   The given unit is woken up in the first time step of this world
+	 *         that ends after the given time has passed, unless it is woken up
+	 *         earlier.
+	 * @throws IllegalArgumentException
+	 *         The given unit is not an active unit of this world.
+	 */
+	void sleep(Unit unit, double duration) throws IllegalArgumentException {
+		sleep((Entity) unit);
+		timers.schedule(unit, gameTime + (long) (Math.max(0, duration) * NANOS_PER_SECOND));
+	}
+	
+	/**
+	 * Wake the given entity up if it is asleep in this world.
+	 * 
+	 * @param  entity
+	 *         The entity to wake up.
+	 * @post   The given entity is no longer asleep in this world.
+	 * @post   If the given entity was asleep, it is back in the list of active
+	 *         entities of this world. If this world is advancing its entities,
+	 *         the given entity is still advanced in the current time step if this
+	 *         world hasn't passed it yet.
+	 * @effect If the given entity is a unit that was asleep, its job time catches
+	 *         up with the game time that has passed since it fell asleep, up to
+	 *         the start of the current time step.
+	 * @note   A unit that is woken up in the middle of a time step after this
+	 *         world has passed it, misses the game time of that time step.
+	 */
+	void wake(Entity entity) {
+		Long since = sleepingSince.remove(entity);
+		if (since != null) {
+			active.add(entity, getHandleOf(entity));
+		}
+		if (since != null && entity instanceof Unit) {
+			timers.cancel(entity);
+			((Unit) entity).catchUp((double) Math.max(0, tickStart - since) / NANOS_PER_SECOND);
+		}
+	}
+	
+	/**
+	 * Check whether the given entity is asleep in this world.
+	 */
+	public boolean isAsleep(Entity entity) {
+		return sleepingSince.containsKey(entity);
+	}
+	
+	/**
+	 * Return the number of entities in the list of active entities of this world.
+	 */
+	public int getNbActiveEntities() {
+		return active.size();
+	}
+	
+	/**
+	 * Let the units of this world prepare their paths in parallel.
+	 * 
+	 * @effect If the terrain of this world changed since the units last prepared
+	 *         their paths, each unit of this world prepares its path. Otherwise,
+	 *         only the units waiting for a path prepare it.
+	 *       | if (getWorldVersion() != preparedVersion)
+	 *       |   then for each unit in getAllUnits()
+	 *       |     unit.preparePath()
+	 *       | else for each unit in pathRequests
+	 *       |   unit.preparePath()
+	 * @effect The units waiting for a path start moving towards their pending objective.
+	 *       | startPendingMoves()
+	 * @post   The units of this world prepared their paths at the current world version.
+	 *       | new.preparedVersion == getWorldVersion()
+	 * @note   Preparing a path only reads the terrain of this world, which no
+	 *         thread changes while the paths are prepared. The units are advanced
+	 *         sequentially afterwards, in the same order as without preparing
+	 *         paths, and a unit only uses its prepared path if the terrain has not
+	 *         changed since.
+	 */
+	@Model
+	private void preparePaths() {
+		int version = getWorldVersion();
+		if (version != preparedVersion) {
+			new ArrayList<Unit>(getAllUnits()).parallelStream().forEach(Unit::preparePath);
+			preparedVersion = version;
+		} else if (! pathRequests.isEmpty()) {
+			new ArrayList<Unit>(pathRequests).parallelStream().forEach(Unit::preparePath);
+		}
+		startPendingMoves();
+	}
+	
+	/**
+	 * Let the units of this world waiting for a path start moving towards their
+	 * pending objective, in the order in which they requested their path.
+	 * 
+	 * @effect Each unit waiting for a path starts moving towards its pending objective.
+	 *       | for each unit in pathRequests
+	 *       |   unit.startPendingMove()
+	 * @post   No unit of this world is waiting for a path.
+	 *       | new.pathRequests.isEmpty()
+	 */
+	@Model
+	private void startPendingMoves() {
+		if (pathRequests.isEmpty()) {
+			return;
+		}
+		List<Unit> requests = new ArrayList<>(pathRequests);
+		pathRequests.clear();
+		for (Unit unit : requests) {
+			unit.startPendingMove();
 		}
 	}
 	
@@ -458,19 +1097,26 @@ public class World {
 	}
 	
 	/**
-	 * Check whether this unit has to rest because three minutes of game time have passed.
+	 * Check whether the units of this world have to rest because three minutes of 
+	 * game time have passed.
 	 * 
-	 * @param  deltaTime
-	 *         The time step, in seconds, by which the game time will increase.
-	 * @return True if and only if the remainder of the division from the current game
-	 *         time by 180 (three minutes) is greater than the remainder of the division
-	 *         of the current game time incremented by the given time step by 180.
+	 * @param  deltaNanos
+	 *         The time step, in nanoseconds, by which the game time will increase.
+	 * @return True if and only if the current game time incremented by the given
+	 *         time step reaches the time of the next forced rest.
+	 *       | result == (gameTime + deltaNanos >= nextForcedRest)
+	 * @post   If the result is true, the time of the next forced rest is postponed
+	 *         by three minutes for as long as it is reached.
 	 */
 	@Model
-	private boolean checkThreeMinuteRest(double deltaTime) {
-		JobStat.BigDec1 = gameTime.remainder(JobStat.THREEMINUTEREST);
-		JobStat.BigDec2 = gameTime.add(new BigDecimal(deltaTime)).remainder(JobStat.THREEMINUTEREST);
-		return (JobStat.BigDec1.compareTo(JobStat.BigDec2) > 0);
+	private boolean checkThreeMinuteRest(long deltaNanos) {
+		if (gameTime + deltaNanos < nextForcedRest) {
+			return false;
+		}
+		while (gameTime + deltaNanos >= nextForcedRest) {
+			nextForcedRest += JobStat.THREEMINUTEREST * NANOS_PER_SECOND;
+		}
+		return true;
 	}
 
 	/**
@@ -483,9 +1129,7 @@ public class World {
 	 *         all entities of the type of the given entity.
 	 */
 	public boolean hasAsEntity(@Raw Entity entity) {
-		try {
-			return getList(entity).contains(entity);
-		} catch (NullPointerException e) {return false;}
+		return entities.contains(entity);
 	}
 
 	/**
@@ -516,14 +1160,11 @@ public class World {
 	 */
 	@Model
 	private boolean hasProperEntities() {
-		for (HashSet<Entity> entityType : entities.values()) {
-			for (Entity entity : entityType) {
-				
-				if (!canHaveAsEntity(entity))
-					return false;
-				if (entity.getWorld() != this)
-					return false;
-			}
+		for (Entity entity : getAllEntities()) {
+			if (!canHaveAsEntity(entity))
+				return false;
+			if (entity.getWorld() != this)
+				return false;
 		}
 		return true;
 	}
@@ -535,7 +1176,7 @@ public class World {
 	 */
 	@Basic
 	public int getNbEntities() {
-		return getAllEntities().size();
+		return entities.size();
 	}
 	
 	/**
@@ -548,37 +1189,44 @@ public class World {
 	 */
 	@Model
 	private int getNbEntitiesOf(String type) {
-		if (entities.containsKey(type)) {
-			return getAllEntitiesOf(type).size();
-		} else {
-			return 0;
-		}
+		return entities.size(type);
 	}
 	
 	/**
-	 * Return all active entities in this world.
+	 * Return a read-only view of all active entities in this world.
+	 * 
+	 * @note   The view reflects later changes to the entities of this world. Entities
+	 *         added while the view is being iterated are not visited by that iteration.
 	 */
-	public HashSet<Entity> getAllEntities() {
-		HashSet<Entity> allEntities = new HashSet<>();
-		for (HashSet<Entity> entityType : entities.values()) {
-			for (Entity entity : entityType) {
-				allEntities.add(entity);
-			}
-		}
-		return allEntities;
+	public Set<Entity> getAllEntities() {
+		return entities.getAll();
 	}
 	
 	/**
-	 * Return all active entities in this world of the given type. Null is
-	 * returned if no such type exists.
+	 * Return a read-only view of all active entities in this world of the given
+	 * type. Null is returned if no such type exists.
 	 */
-	public HashSet<Entity> getAllEntitiesOf(String type) {
-		if (! entities.containsKey(type)) {
+	public Set<Entity> getAllEntitiesOf(String type) {
+		if (! entities.hasType(type)) {
 			return null;
 		} else {
-			return entities.get(type);
+			return entities.getAllOf(type);
 		}
 	}
+	
+	/**
+	 * Return the handle of the given entity in this world.
+	 * 
+	 * @param  entity
+	 *         The entity to return the handle of.
+	 * @return An integer identifying the given entity among all entities ever
+	 *         added to this world, that doesn't change as long as the given
+	 *         entity is an active entity of this world. -1 if the given entity
+	 *         is not an active entity of this world.
+	 */
+	public int getHandleOf(Entity entity) {
+		return entities.getHandle(entity);
+	}
 
 	/**
 	 * Add the given entity to the set of entities of this world.
@@ -588,6 +1236,13 @@ public class World {
 	 * @post   If the maximum number of entities of the given entity type is not yet
 	 *         reached and this world doesn't reference the given entity as one of its
 	 *         entities, the world references the given entity as one of its entities.
+	 * @effect If the given entity is added, it is registered in the spatial grid of
+	 *         this world at its current position.
+	 * @post   If the given entity is added, it is in the list of active entities of
+	 *         this world. It is not advanced in the current time step if it is added
+	 *         while this world is advancing its entities.
+	 * @effect If the given entity is a unit and it is added, its randomizer is set to
+	 *         a new randomizer derived from the seed of this world and its handle.
 	 * @throws IllegalArgumentException
 	 *         The given entity is not effective or it doesn't reference this
 	 *         world as the world to which it is attached.
@@ -596,17 +1251,16 @@ public class World {
 		if (entity == null || entity.getWorld() != this) {
 			throw new IllegalArgumentException();
 		}
-		try { 
-			if (getNbEntitiesOf(entity.getEntityId()) >= entity.MAX_ENTITIES) {
-				return;
-			} else if (entity instanceof Unit && getNbEntitiesOf(Unit.ENTITY_ID) >= MAX_UNITS) {
-				return;
-			} else if (! hasAsEntity(entity)) {
-				getList(entity).add(entity);
+		if (getNbEntitiesOf(entity.getEntityId()) >= entity.MAX_ENTITIES) {
+			return;
+		} else if (entity instanceof Unit && getNbEntitiesOf(Unit.ENTITY_ID) >= getMaxNbUnits()) {
+			return;
+		} else if (entities.add(entity)) {
+			grid.add(entity);
+			active.add(entity, getHandleOf(entity));
+			if (entity instanceof Unit) {
+				((Unit) entity).setRandom(createRandomFor(getHandleOf(entity)));
 			}
-		} catch (NullPointerException e) {
-			entities.put(entity.getEntityId(), new HashSet<Entity>());
-			getList(entity).add(entity);
 		}
 	}
 
@@ -617,6 +1271,8 @@ public class World {
 	 *         The entity to be removed.
 	 * @post   This world no longer has the given entity as
 	 *         one of its entities.
+	 * @post   The spatial grid of this world no longer registers the given entity.
+	 * @post   The given entity is no longer in the list of active entities of this world.
 	 * @throws This world doesn't have the given entity as one of its entities
 	 *         or the given entity doesn't reference this world as its world.
 	 */
@@ -624,19 +1280,26 @@ public class World {
 		if (!hasAsEntity(entity) || entity.getWorld() == this) {
 			throw new IllegalArgumentException();
 		}
-		getList(entity).remove(entity);
+		active.remove(getHandleOf(entity));
+		entities.remove(entity);
+		grid.remove(entity);
+		sleepingSince.remove(entity);
+		timers.cancel(entity);
 	}
 	
 	/**
-	 * Return all entities that are of the same type as the given entity.
+	 * Register the current position of the given entity in the spatial grid
+	 * of this world.
 	 * 
 	 * @param  entity
-	 *         Object of the entity type of which to retrieve all entities.
-	 * @return All entities of the same type as the given entity.
+	 *         The entity that has changed its position.
+	 * @effect If the given entity is registered in the spatial grid of this world,
+	 *         it is moved to the bucket of the cube it currently occupies.
+	 * @effect The given entity is woken up.
 	 */
-	@Model
-	private HashSet<Entity> getList(Entity entity) {
-		return entities.get(entity.getEntityId());
+	void updateEntityPosition(Entity entity) {
+		grid.update(entity);
+		wake(entity);
 	}
 	
 	/**
@@ -646,19 +1309,207 @@ public class World {
 	 *         The position to search entities at.
 	 * @param  type
 	 *         The type to search entities of.
-	 * @return A list of all entities of the given type at the given position.
+	 * @return A list of all entities of the given type occupying the cube
+	 *         containing the given position.
 	 */
 	public ArrayList<Entity> getEntitiesAt(Position position, String type) {
 		ArrayList<Entity> entities = new ArrayList<>();
-		if (getAllEntitiesOf(type) != null) {
-			for (Entity entity : getAllEntitiesOf(type)) {
-				if (entity.getPosition().getCubePosition().equals(position)) {
-					entities.add(entity);
-				}
+		for (Entity entity : entitiesInCube(position)) {
+			if (entity.getEntityId().equals(type)) {
+				entities.add(entity);
 			}
 		}
 		return entities;
 	}
+	
+	/**
+	 * Return all active entities occupying the cube containing the given position.
+	 * 
+	 * @param  position
+	 *         The position to search entities at.
+	 * @return An unmodifiable set of all entities occupying the cube that contains
+	 *         the given position. An empty set if the given position is not a valid
+	 *         position of this world.
+	 * @throws IllegalArgumentException
+	 *         The given position is not effective.
+	 */
+	public Set<Entity> entitiesInCube(Position position) throws IllegalArgumentException {
+		if (position == null) {
+			throw new IllegalArgumentException();
+		}
+		return grid.entitiesInCube(position);
+	}
+	
+	/**
+	 * Return all active entities occupying a cube between the given corner positions.
+	 * 
+	 * @param  min
+	 *         A position in the corner cube with the lowest coordinates.
+	 * @param  max
+	 *         A position in the corner cube with the highest coordinates.
+	 * @return A list of all entities occupying a cube of which each coordinate lies
+	 *         between the coordinates of the cubes containing the given positions,
+	 *         both inclusive. Cubes outside of this world are ignored.
+	 * @throws IllegalArgumentException
+	 *         The given positions are not effective.
+	 */
+	public List<Entity> entitiesInBox(Position min, Position max) throws IllegalArgumentException {
+		if (min == null || max == null) {
+			throw new IllegalArgumentException();
+		}
+		return grid.entitiesInBox(min, max);
+	}
+	
+	/**
+	 * Return all active entities within the given radius of the given position.
+	 * 
+	 * @param  position
+	 *         The position to search around.
+	 * @param  radius
+	 *         The maximal distance to the given position.
+	 * @return A list of all entities for which the distance between their position
+	 *         and the given position is not greater than the given radius.
+	 * @throws IllegalArgumentException
+	 *         The given position is not effective, or the given radius is negative.
+	 */
+	public List<Entity> entitiesWithinRadius(Position position, double radius) 
+			throws IllegalArgumentException {
+		if (position == null || radius < 0) {
+			throw new IllegalArgumentException();
+		}
+		return grid.entitiesWithinRadius(position, radius);
+	}
+	
+	/**
+	 * Return the given number of active entities satisfying the given filter that
+	 * are closest to the given position.
+	 * 
+	 * @param  position
+	 *         The position to search around.
+	 * @param  k
+	 *         The maximal number of entities to return.
+	 * @param  filter
+	 *         The condition each resulting entity has to satisfy.
+	 * @return A list of at most k entities satisfying the given filter, ordered by
+	 *         increasing distance to the given position, such that no other entity
+	 *         satisfying the given filter is closer to the given position than the
+	 *         last entity of that list.
+	 * @throws IllegalArgumentException
+	 *         The given position or the given filter is not effective.
+	 */
+	public List<Entity> getClosestEntities(Position position, int k, Predicate<? super Entity> filter) 
+			throws IllegalArgumentException {
+		return getClosestEntities(position, k, filter, getNbEntities());
+	}
+	
+	/**
+	 * Return the given number of active entities satisfying the given filter that
+	 * are closest to the given position, knowing an upper bound on the number of
+	 * entities satisfying that filter.
+	 * 
+	 * @param  position
+	 *         The position to search around.
+	 * @param  k
+	 *         The maximal number of entities to return.
+	 * @param  filter
+	 *         The condition each resulting entity has to satisfy.
+	 * @param  nbCandidates
+	 *         An upper bound on the number of active entities satisfying the given filter.
+	 * @return A list of at most k entities satisfying the given filter, ordered by
+	 *         increasing distance to the given position, such that no other entity
+	 *         satisfying the given filter is closer to the given position than the
+	 *         last entity of that list.
+	 * @throws IllegalArgumentException
+	 *         The given position or the given filter is not effective.
+	 */
+	@Model
+	private List<Entity> getClosestEntities(Position position, int k, Predicate<? super Entity> filter,
+			int nbCandidates) throws IllegalArgumentException {
+		if (position == null || filter == null) {
+			throw new IllegalArgumentException();
+		}
+		return grid.nearest(position, k, filter, nbCandidates);
+	}
+	
+	/**
+	 * Return the active entity satisfying the given filter that is closest to the
+	 * given position.
+	 * 
+	 * @param  position
+	 *         The position to search around.
+	 * @param  filter
+	 *         The condition the resulting entity has to satisfy.
+	 * @return The entity satisfying the given filter for which the distance between
+	 *         the position of that entity and the given position is minimal. Null if
+	 *         no such entity exists or if the given position is not effective.
+	 */
+	public Entity getClosestEntity(Position position, Predicate<? super Entity> filter) {
+		if (position == null) {
+			return null;
+		}
+		List<Entity> closest = getClosestEntities(position, 1, filter);
+		return (closest.isEmpty() ? null : closest.get(0));
+	}
+	
+	/**
+	 * Return the active entity of the given class that is closest to the given position.
+	 * 
+	 * @param  position
+	 *         The position to search around.
+	 * @param  type
+	 *         The class the resulting entity has to be an instance of.
+	 * @return The entity of the given class for which the distance between the
+	 *         position of that entity and the given position is minimal. Null if
+	 *         no such entity exists or if the given position is not effective.
+	 */
+	public <T extends Entity> T getClosestEntity(Position position, Class<T> type) {
+		if (position == null) {
+			return null;
+		}
+		List<Entity> closest = getClosestEntities(position, 1, entity -> type.isInstance(entity), 
+				entities.size(type));
+		return (closest.isEmpty() ? null : type.cast(closest.get(0)));
+	}
+	
+	/**
+	 * Return the active unit satisfying the given filter that is closest to the
+	 * given position.
+	 * 
+	 * @param  position
+	 *         The position to search around.
+	 * @param  filter
+	 *         The condition the resulting unit has to satisfy.
+	 * @return The unit satisfying the given filter for which the distance between
+	 *         the position of that unit and the given position is minimal. Null if
+	 *         no such unit exists or if the given position is not effective.
+	 */
+	public Unit getClosestUnit(Position position, Predicate<? super Unit> filter) {
+		return getClosestUnit(position, filter, getNbUnits());
+	}
+	
+	/**
+	 * Return the active unit satisfying the given filter that is closest to the
+	 * given position, knowing an upper bound on the number of units satisfying
+	 * that filter.
+	 * 
+	 * @param  position
+	 *         The position to search around.
+	 * @param  filter
+	 *         The condition the resulting unit has to satisfy.
+	 * @param  nbCandidates
+	 *         An upper bound on the number of active units satisfying the given filter.
+	 * @return The unit satisfying the given filter for which the distance between
+	 *         the position of that unit and the given position is minimal. Null if
+	 *         no such unit exists or if the given position is not effective.
+	 */
+	public Unit getClosestUnit(Position position, Predicate<? super Unit> filter, int nbCandidates) {
+		if (position == null) {
+			return null;
+		}
+		List<Entity> closest = getClosestEntities(position, 1, 
+				entity -> (entity instanceof Unit) && filter.test((Unit) entity), nbCandidates);
+		return (closest.isEmpty() ? null : (Unit) closest.get(0));
+	}
 
 	// FACTION-METHODS
 
@@ -723,7 +1574,7 @@ public class World {
 	 * Return all active factions of this world.
 	 */
 	public HashSet<Faction> getAllFactions() {
-		return new HashSet<>(factions);
+		return new LinkedHashSet<>(factions);
 	}
 
 	/**
@@ -744,7 +1595,7 @@ public class World {
 		if (faction == null || faction.getWorld() != this || hasAsFaction(faction)) {
 			throw new IllegalArgumentException();
 		}
-		if ((getNbFactions() < World.MAX_FACTIONS) && !hasAsFaction(faction)) {
+		if ((getNbFactions() < getMaxNbFactions()) && !hasAsFaction(faction)) {
 			factions.add(faction);
 		}
 	}
@@ -778,52 +1629,34 @@ public class World {
 	 */
 	@Model
 	private int getNbUnits() {
-		return getAllUnits().size();
+		return getNbEntitiesOf(Unit.ENTITY_ID);
 	}
 	
 	/**
 	 * Return all active units of this world.
 	 * 
-	 * @return A set collecting all active units of this world.
+	 * @return A read-only view of all active units of this world.
 	 */
-	public HashSet<Unit> getAllUnits() {
-		HashSet<Unit> units = new HashSet<>();
-		for (Entity entity : getAllEntities()) {
-			if (entity instanceof Unit) {
-				units.add((Unit) entity);
-			}
-		}
-		return units;
+	public Set<Unit> getAllUnits() {
+		return entities.getAllOf(Unit.ENTITY_ID);
 	}
 	
 	/**
 	 * Return all boulders of this world.
 	 * 
-	 * @return A set collecting all boulders of this world.
+	 * @return A read-only view of all boulders of this world.
 	 */
-	public HashSet<Boulder> getAllBoulders() {
-		HashSet<Boulder> boulders = new HashSet<>();
-		for (Entity entity : getAllEntities()) {
-			if (entity instanceof Boulder) {
-				boulders.add((Boulder) entity); 
-			}
-		}
-		return boulders;
+	public Set<Boulder> getAllBoulders() {
+		return entities.getAllOf(Boulder.ENTITY_ID);
 	}
 	
 	/**
 	 * Return all logs of this world.
 	 * 
-	 * @return A set collecting all logs of this world.
+	 * @return A read-only view of all logs of this world.
 	 */
-	public HashSet<Log> getAllLogs() {
-		HashSet<Log> logs = new HashSet<>();
-		for (Entity entity : getAllEntities()) {
-			if (entity instanceof Log) {
-				logs.add((Log) entity);
-			}
-		}
-		return logs;
+	public Set<Log> getAllLogs() {
+		return entities.getAllOf(Log.ENTITY_ID);
 	}
 
 	/**
@@ -834,7 +1667,7 @@ public class World {
 	 */
 	@Model
 	private void addUnit(boolean enableDefaultBehaviour) {
-		if (!(getNbUnits() >= World.MAX_UNITS)) {
+		if (!(getNbUnits() >= getMaxNbUnits())) {
 			addUnit(createRandomUnit(enableDefaultBehaviour));
 		}
 	}
@@ -857,10 +1690,15 @@ public class World {
 	 * @effect If the maximum number of active units in this world is not yet reached,
 	 *         and if this world doesn't reference the priority faction as one of its factions, 
 	 *         this world has the priority factions as one of its factions.
+	 * @note   Nothing happens if the maximum number of factions in this world is
+	 *         reached and each of them has reached its maximum number of units.
 	 */
 	public void addUnit(@Raw Unit unit) {
-		if (!(getNbUnits() >= World.MAX_UNITS) && !hasAsEntity(unit)) {
+		if (!(getNbUnits() >= getMaxNbUnits()) && !hasAsEntity(unit)) {
 			Faction faction = getPriorityFaction();
+			if (faction == null) {
+				return;
+			}
 			unit.setFaction(faction);
 			faction.addUnit(unit);
 			unit.setWorld(this);
@@ -885,26 +1723,51 @@ public class World {
 		int a = Unit.getMinInitialAttributeValue();
 		int b = Unit.getMaxInitialAttributeValue();
 		int[] position = getSpawnPosition().convertToIntegerArray();
-		Unit unit = new Unit(position, Unit.getRandomizedName(), Unit.getRandomizedValueBetween(a, b), 
-				Unit.getRandomizedValueBetween(a, b), Unit.getRandomizedValueBetween(a, b), 
-				Unit.getRandomizedValueBetween(a, b), enableDefaultBehavior);
+		Unit unit = new Unit(position, Unit.getRandomizedName(random), 
+				Unit.getRandomizedValueBetween(a, b, random), Unit.getRandomizedValueBetween(a, b, random), 
+				Unit.getRandomizedValueBetween(a, b, random), Unit.getRandomizedValueBetween(a, b, random), 
+				enableDefaultBehavior);
 		addUnit(unit);
 		return unit;
 	}
 	
+	/**
+	 * Initialize the given number of units with random initial attributes.
+	 * 
+	 * @param  number
+	 *         The number of units to create.
+	 * @param  enableDefaultBehavior
+	 *         Whether or not the default behavior of the new units is enabled.
+	 * @effect As long as the maximum number of active units in this world is not
+	 *         yet reached, and less than the given number of units has been created,
+	 *         a new random unit is created.
+	 * @return A list of the newly initialized units that were added to this world.
+	 */
+	public List<Unit> createRandomUnits(int number, boolean enableDefaultBehavior) {
+		List<Unit> units = new ArrayList<>();
+		for (int i = 0; i < number && getNbUnits() < getMaxNbUnits(); i++) {
+			Unit unit = createRandomUnit(enableDefaultBehavior);
+			if (unit.getWorld() == this) {
+				units.add(unit);
+			}
+		}
+		return units;
+	}
+	
 	/**
 	 * Return the faction a new unit has to reference as its faction.
 	 * 
 	 * @return A newly initialized faction if the maximum number of active factions
 	 *         in this world is not yet reached.
-	 * @return The faction with the smallest number of units attached to it otherwise.
+	 * @return The faction with the smallest number of units attached to it otherwise,
+	 *         or null if each faction has reached the maximum number of units.
 	 */
 	@Model
 	private Faction getPriorityFaction() {
 		Faction fac = null;
-		int nb = Faction.MAX_UNITS;
-		if (getNbFactions() < World.MAX_FACTIONS) {
-			return new Faction(this, Faction.getRandomizedName());
+		int nb = getMaxNbUnitsPerFaction();
+		if (getNbFactions() < getMaxNbFactions()) {
+			return new Faction(this, Faction.getRandomizedName(random));
 		} else {
 			for (Faction faction : getAllFactions()) {
 				if (faction.getNbUnits() < nb) {
@@ -1012,44 +1875,55 @@ public class World {
 	}
 	
 	/**
-	 * Return all passable positions of this world with a solid cube at an underlying z-level.
+	 * Return a random spawn position in this world.
 	 * 
-	 * @return All positions of all passable positions with a solid neighbour that have
-	 *         an underlying solid.
+	 * @return A random position from the set of all possible spawn positions.
+	 * @throws IllegalStateException
+	 *         This world has no possible spawn positions.
 	 */
 	@Model
-	private List<Position> getAllPassablePositionsWithUnderlyingSolid() {
-		List<Position> allPassablePositionsWithUnderlyingSolid = new ArrayList<Position>();
-		for (Position pos : getAllPassablePositionsWithSolidNeighbour()) {
-			if (getAt(pos).isPassable() && hasUnderlyingSolid(pos)) {
-				allPassablePositionsWithUnderlyingSolid.add(pos);
-			}
+	private Position getSpawnPosition() throws IllegalStateException {
+		Coordinate coordinate = spawnPositions.getRandom(random);
+		if (coordinate == null) {
+			throw new IllegalStateException();
 		}
-		return allPassablePositionsWithUnderlyingSolid;
+		return coordinate.toPosition();
 	}
 	
 	/**
-	 * Return a random spawn position in this world.
-	 * 
-	 * @return A random position from the list of all possible spawn positions.
+	 * Return the number of possible spawn positions in this world.
 	 */
-	@Model
-	private Position getSpawnPosition() {
-		List<Position> allPossibleSpawnPositions = getPossibleSpawnPositions();
-		int randomNb = random.nextInt(allPossibleSpawnPositions.size());
-		
-		return allPossibleSpawnPositions.get(randomNb);
+	@Basic
+	public int getNbSpawnPositions() {
+		return spawnPositions.size();
 	}
 	
 	/**
-	 * Return a list of all possible spawn positions in this world.
+	 * Update the registration of the cube at the given coordinates as a
+	 * possible spawn position.
 	 * 
-	 * @return A list of passable cube positions that have a solid cube
-	 *         on the underlying z-level or that have no underlying z-level.
+	 * @param  x
+	 *         The x-coordinate of the cube.
+	 * @param  y
+	 *         The y-coordinate of the cube.
+	 * @param  z
+	 *         The z-coordinate of the cube.
+	 * @post   If the given coordinates lie inside this world, the cube at those
+	 *         coordinates is registered as a possible spawn position if and only if
+	 *         it is passable and it lies on the lowest z-level or on top of a solid
+	 *         cube. Such a cube always has a solid neighbour.
 	 */
 	@Model
-	private List<Position> getPossibleSpawnPositions() {
-		return getAllPassablePositionsWithUnderlyingSolid();
+	private void updateSpawnPosition(int x, int y, int z) {
+		if (z >= getSizeZ()) {
+			return;
+		}
+		Coordinate coordinate = new Coordinate(x,y,z);
+		if (world[x][y][z].isPassable() && (z == 0 || ! world[x][y][z-1].isPassable())) {
+			spawnPositions.add(coordinate);
+		} else {
+			spawnPositions.remove(coordinate);
+		}
 	}
 	
 	/**
@@ -1104,7 +1978,7 @@ public class World {
 			for (int j = -1; j < 2; j++) {
 				for (int k = -1; k < 2; k++) {
 					if (i != 0 || j != 0 || k != 0) {
-						Position temp = position.add(Position.X, i).add(Position.Y, j).add(Position.Z, k);
+						Position temp = position.add(i, j, k);
 						if (isValidPosition(temp)) {
 							neighbours.add(temp);
 						}
@@ -1130,9 +2004,10 @@ public class World {
 		for (int i = -1; i < 2; i++) {
 			for (int j = -1; j < 2; j++) {
 				for (int k = -1; k < 2; k++) {
-					if (isValidPosition(position.add(Position.X, i).add(Position.Y, j).add(Position.Z, k))) {
-						neighbours.add(position.add(Position.X, i).add(Position.Y, j).add(Position.Z, k));
-					}	
+					Position temp = position.add(i, j, k);
+					if (isValidPosition(temp)) {
+						neighbours.add(temp);
+					}
 				}
 			}
 		}
@@ -1216,12 +2091,13 @@ public class World {
 		if (radius < 1) {
 			throw new IllegalArgumentException();
 		}		
-		Position spot = new Position();
+		Position spot;
 		do {
 			int multiplier = random.nextInt(radius) + 1;
-			for (int i = 0; i < 3; i++) {
-				spot.setAt(i, position.getAt(i) + World.getRandomDirection() * multiplier);
-				}
+			double dx = getRandomDirection() * multiplier;
+			double dy = getRandomDirection() * multiplier;
+			double dz = getRandomDirection() * multiplier;
+			spot = position.add(dx, dy, dz);
 		} while (! isValidPosition(spot));
 		return spot;
 	}
@@ -1297,13 +2173,32 @@ public class World {
 	 *         than 26.
 	 */
 	public boolean hasSolidNeighbour(Position position) {
-		// Corner or side cube: always support at the side of the game world.
-		if (getAllNeighbours(position).size() < 26) {
-			return true;
-		}
-		for (Position pos : getAllNeighbours(position)) {
-			if (!getAt(pos).isPassable()) {
-				return true;
+		return hasSolidNeighbour((int) position.x(), (int) position.y(), (int) position.z());
+	}
+
+	/**
+	 * Return whether this world features a solid cube next to (also diagonally)
+	 * the cube with the given coordinates.
+	 * 
+	 * @param  x
+	 *         The x-coordinate of the cube to search next to.
+	 * @param  y
+	 *         The y-coordinate of the cube to search next to.
+	 * @param  z
+	 *         The z-coordinate of the cube to search next to.
+	 * @return True if and only if some cube next to the cube with the given
+	 *         coordinates is not passable, or lies outside of this world.
+	 *       | result == hasSolidNeighbour(new Position(x, y, z))
+	 */
+	public boolean hasSolidNeighbour(int x, int y, int z) {
+		for (int i = -1; i < 2; i++) {
+			for (int j = -1; j < 2; j++) {
+				for (int k = -1; k < 2; k++) {
+					if ((i != 0 || j != 0 || k != 0) && ! isPassable(x + i, y + j, z + k)) {
+						// Corner or side cube: always support at the side of the game world.
+						return true;
+					}
+				}
 			}
 		}
 		return false;
@@ -1320,8 +2215,37 @@ public class World {
 	 *         cube. Else, true if and only if the underlying cube is not passable.
 	 */
 	public boolean hasUnderlyingSolid(Position position) {
-		return (!isValidPosition(position.add(Position.Z, -1)) ||
-				!getAt(position.add(Position.Z, -1)).isPassable());
+		return ! isValidPosition(position) ||
+				! isPassable((int) position.x(), (int) position.y(), (int) position.z() - 1);
+	}
+	
+	/**
+	 * Return the position at which an entity falling from the given position lands.
+	 * 
+	 * @param  position
+	 *         The position to fall from.
+	 * @return The center position of the highest cube in the column of the given
+	 *         position, not above the cube of the given position, that has an
+	 *         underlying solid cube.
+	 *       | result.getCubePosition().x() == position.getCubePosition().x() &&
+	 *       | result.getCubePosition().y() == position.getCubePosition().y() &&
+	 *       | result.z() <= position.z() + 0.5 && hasUnderlyingSolid(result) &&
+	 *       | (for each z in result.z() + 1..position.z():
+	 *       |     ! hasUnderlyingSolid(new Position(position.x(), position.y(), z)))
+	 * @throws IllegalArgumentException
+	 *         The given position is not a valid position of this world.
+	 */
+	public Position getLandingPosition(Position position) throws IllegalArgumentException {
+		if (! isValidPosition(position)) {
+			throw new IllegalArgumentException();
+		}
+		int x = (int) position.x();
+		int y = (int) position.y();
+		int z = (int) position.z();
+		while (z > 0 && world[x][y][z - 1].isPassable()) {
+			z--;
+		}
+		return new Position(x, y, z).getCenterPosition();
 	}
 	
 	/**
@@ -1331,7 +2255,7 @@ public class World {
 	 *       | result == -1 || result == 0 || result == 1   
 	 */
 	@Model
-	private static int getRandomDirection() {
+	private int getRandomDirection() {
 		int nb = random.nextInt(3);
 		if (nb == 0) {
 			return -1;
@@ -1346,7 +2270,7 @@ public class World {
 	 * Return a random unit.
 	 */
 	public Unit getRandomUnit() {
-		return (Unit) getRandomElement(getAllUnits());
+		return (Unit) entities.getRandomOf(Unit.ENTITY_ID, random);
 	}
 	
 	/**
@@ -1363,7 +2287,7 @@ public class World {
 	/**
 	 * Return a random element from the given set.
 	 */
-	public static Object getRandomElement(HashSet<? extends Object> set) {
+	public Object getRandomElement(Collection<? extends Object> set) {
 		int nb = random.nextInt(set.size());
 		int i = 0;
 		for (Object object : set) {
@@ -1386,7 +2310,7 @@ public class World {
 	 *         and the given position is minimal. Null if no such entity exists or if
 	 *         the given position is not effective.
 	 */
-	public static Entity getClosestElement(HashSet<? extends Entity> set, Position position) {
+	public static Entity getClosestElement(Collection<? extends Entity> set, Position position) {
 		if (position == null) {
 			return null;
 		}
@@ -1408,26 +2332,30 @@ public class World {
 	 * 
 	 * @param  position
 	 *         The position to compare with.
-	 * @return The position of the cube that is of workshop type and that is
-	 *         closest to the given position.
+	 * @return The center position of the cube that is of workshop type and that is
+	 *         closest to the given position. Null if this world has no workshops.
 	 */
 	public Position getClosestWorkshop(Position position) {
-		Position closest = null;
+		Coordinate closest = null;
 		double distance = Double.POSITIVE_INFINITY;
-		for (int i = 0; i < getSizeX(); i++) {
-			for (int j = 0; j < getSizeY(); j++) {
-				for (int k = 0; k < getSizeZ(); k++) {		
-					Position newPosition = new Position(i, j, k);
-					if (getAt(newPosition).getId() == Cube.WORKBENCH.getId()) {
-						double newDistance = Position.getDistance(newPosition, position);			
-						if (newDistance < distance) {
-							closest = newPosition;
-							distance = newDistance;
-						}
-					}
-				}
+		for (Coordinate workshop : workshops) {
+			double dx = workshop.x() - position.x();
+			double dy = workshop.y() - position.y();
+			double dz = workshop.z() - position.z();
+			double newDistance = dx * dx + dy * dy + dz * dz;
+			if (newDistance < distance) {
+				closest = workshop;
+				distance = newDistance;
 			}
 		}
-		return closest.getCenterPosition();
+		return (closest == null ? null : closest.toCenter());
+	}
+	
+	/**
+	 * Return the number of cubes of workshop type in this world.
+	 */
+	@Basic
+	public int getNbWorkshops() {
+		return workshops.size();
 	}
 }
\ No newline at end of file
@@ -331,6 +331,14 @@ public class Facade implements IFacade {
 		scheduler.addToNotAssignedTasks(task);
 	}
 
+	public void schedule(Scheduler scheduler, Collection<Task> tasks) throws ModelException {
+		try {
+			scheduler.addAll(tasks);
+		} catch (IllegalArgumentException | IllegalStateException e) {
+			throw new ModelException(e);
+		}
+	}
+
 	@Override
 	public void replace(Scheduler scheduler, Task original, Task replacement) throws ModelException {
 		scheduler.replace(original, replacement);
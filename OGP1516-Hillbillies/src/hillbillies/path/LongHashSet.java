@@ -0,0 +1,82 @@
+package hillbillies.path;
+
+import java.util.Arrays;
+
+/**
+ * A class of sets of primitive longs, stored in an open-addressed table so
+ * that adding and looking up a key never boxes it.
+ * 
+ * @note   The value Long.MIN_VALUE marks free slots and cannot be stored.
+ *         Cube keys are never negative, so they can all be stored.
+ */
+class LongHashSet {
+
+	private static final long FREE = Long.MIN_VALUE;
+
+	private long[] table;
+	private int size = 0;
+
+	LongHashSet() {
+		this(64);
+	}
+
+	LongHashSet(int expectedSize) {
+		int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+		this.table = new long[capacity];
+		Arrays.fill(table, FREE);
+	}
+
+	int size() {
+		return size;
+	}
+
+	boolean contains(long key) {
+		int mask = table.length - 1;
+		for (int index = indexOf(key, mask); table[index] != FREE; index = (index + 1) & mask) {
+			if (table[index] == key) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	boolean add(long key) throws IllegalArgumentException {
+		if (key == FREE) {
+			throw new IllegalArgumentException();
+		}
+		int mask = table.length - 1;
+		int index = indexOf(key, mask);
+		while (table[index] != FREE) {
+			if (table[index] == key) {
+				return false;
+			}
+			index = (index + 1) & mask;
+		}
+		table[index] = key;
+		if (++size * 2 > table.length) {
+			grow();
+		}
+		return true;
+	}
+
+	private void grow() {
+		long[] old = table;
+		table = new long[old.length * 2];
+		Arrays.fill(table, FREE);
+		int mask = table.length - 1;
+		for (long key : old) {
+			if (key != FREE) {
+				int index = indexOf(key, mask);
+				while (table[index] != FREE) {
+					index = (index + 1) & mask;
+				}
+				table[index] = key;
+			}
+		}
+	}
+
+	private static int indexOf(long key, int mask) {
+		long hash = key * 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ (hash >>> 32)) & mask;
+	}
+}
@@ -7,6 +7,7 @@ import java.util.Map;
 
 import hillbillies.model.World;
 import hillbillies.world.Coordinate;
+import hillbillies.world.CubeKey;
 import hillbillies.world.Position;
 
 public class PathFinder {
@@ -18,10 +19,12 @@ public class PathFinder {
 	}
 
 	private static Path aStar(World world, Node start, Node end) {
-		Map<Coordinate, Node> closedSet = new HashMap<>();
+		LongHashSet closedSet = new LongHashSet();
+		LongHashSet openedSet = new LongHashSet();
 		ArrayList<Node> openSet = new ArrayList<>();
 		Map<Node, Node> cameFrom = new HashMap<>();
 		openSet.add(start);
+		openedSet.add(CubeKey.of(start.getCoordinate()));
 		start.setGCost(0);
 		start.setFCost(Node.getDistanceBetween(start, end));
 		while (! openSet.isEmpty()) {
@@ -29,33 +32,39 @@ public class PathFinder {
 			if (current.equals(end)) {
 				return reconstructPath(cameFrom, current, world.getWorldVersion());
 			}		
-			openSet.remove(current);
-			closedSet.put(current.getCoordinate(), current);	
-			for (Coordinate coordinate : current.getCoordinate().getAllNeighbours()) {		
-				if (! world.isValidPosition(coordinate.toCenter())) {
-					continue;
-				} else if (! world.isPassable(coordinate.toCenter())) {
-					continue;
-				} else if (! world.hasSolidNeighbour(coordinate.toCenter())) {
-					continue;
-				}		
-				if (closedSet.containsKey(coordinate)) {
-					continue;
-				}	
-				Node neighbour = new Node(coordinate);
-				double tentativeGCost = current.getGCost() + Node.getDistanceBetween(current, neighbour);		
-				if (! isCornerAllowed(world, current, neighbour)) {
-					continue;	
-				}	
-				if (! openSet.contains(neighbour)) {
-					openSet.add(neighbour);
+			openSet.remove(0);
+			int x = current.getCoordinate().x();
+			int y = current.getCoordinate().y();
+			int z = current.getCoordinate().z();
+			closedSet.add(CubeKey.of(x, y, z));
+			for (int dx = -1; dx < 2; dx++) {
+				for (int dy = -1; dy < 2; dy++) {
+					for (int dz = -1; dz < 2; dz++) {
+						if (dx == 0 && dy == 0 && dz == 0) {
+							continue;
+						}
+						int nx = x + dx, ny = y + dy, nz = z + dz;
+						if (! world.isPassable(nx, ny, nz)) {
+							continue;
+						} else if (! world.hasSolidNeighbour(nx, ny, nz)) {
+							continue;
+						}
+						long key = CubeKey.of(nx, ny, nz);
+						// A cube that was opened before keeps its first cost.
+						if (closedSet.contains(key) || openedSet.contains(key)) {
+							continue;
+						}
+						if (! isCornerAllowed(world, x, y, z, dx, dy, dz)) {
+							continue;
+						}
+						Node neighbour = new Node(new Coordinate(nx, ny, nz));
+						openSet.add(neighbour);
+						openedSet.add(key);
+						cameFrom.put(neighbour, current);
+						neighbour.setGCost(current.getGCost() + Math.sqrt(dx * dx + dy * dy + dz * dz));
+						neighbour.setFCost(neighbour.getGCost() + Node.getDistanceBetween(neighbour, end));
+					}
 				}
-				else if (tentativeGCost <= neighbour.getGCost()) {
-					continue;
-				}	
-				cameFrom.put(neighbour, current);
-				neighbour.setGCost(tentativeGCost);
-				neighbour.setFCost(neighbour.getGCost() + Node.getDistanceBetween(neighbour, end));
 			}
 		}
 		return new Path(world.getWorldVersion());
@@ -78,33 +87,23 @@ public class PathFinder {
 	}
 
 	public static boolean isCornerAllowed(World world, Node start, Node end) {
-		int[] directions = getDirections(start.getCoordinate(), end.getCoordinate());
-		for (int i = 0; i < 2; i++) {
-			for (int j = 0; j < 2; j++) {
-				for (int k = 0; k < 2; k++) {
-					int[] dir = start.getCoordinate().convertToIntegerArray();
-					if (i == 1) dir[0] += directions[0];
-					if (j == 1) dir[1] += directions[1];
-					if (k == 1) dir[2] += directions[2];
-					if (! world.isPassable(new Coordinate(dir).toCenter())) {
-						return false;
-					}
-				}
-			}
-		}
-		return true;
+		Coordinate from = start.getCoordinate();
+		Coordinate to = end.getCoordinate();
+		return isCornerAllowed(world, from.x(), from.y(), from.z(), 
+				to.x() - from.x(), to.y() - from.y(), to.z() - from.z());
 	}
 	
 	public static boolean isCornerAllowed(World world, Position start, Position end) {
-		int[] directions = getDirections(start.convertToCoordinate(), end.convertToCoordinate());
+		int x = (int) start.x(), y = (int) start.y(), z = (int) start.z();
+		return isCornerAllowed(world, x, y, z, 
+				(int) end.x() - x, (int) end.y() - y, (int) end.z() - z);
+	}
+
+	private static boolean isCornerAllowed(World world, int x, int y, int z, int dx, int dy, int dz) {
 		for (int i = 0; i < 2; i++) {
 			for (int j = 0; j < 2; j++) {
 				for (int k = 0; k < 2; k++) {
-					int[] dir = start.convertToIntegerArray();
-					if (i == 1) dir[0] += directions[0];
-					if (j == 1) dir[1] += directions[1];
-					if (k == 1) dir[2] += directions[2];
-					if (! world.isPassable(new Coordinate(dir).toCenter())) {
+					if (! world.isPassable(x + i * dx, y + j * dy, z + k * dz)) {
 						return false;
 					}
 				}
@@ -112,12 +111,4 @@ public class PathFinder {
 		}
 		return true;
 	}
-
-	private static int[] getDirections(Coordinate start, Coordinate end) {
-		int[] directions = new int[3];
-		for (int i = 0; i < 3; i++) {
-			directions[i] = end.getAt(i) - start.getAt(i);
-		}
-		return directions;
-	}
 }
\ No newline at end of file
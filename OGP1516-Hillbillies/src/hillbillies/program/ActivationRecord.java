@@ -0,0 +1,58 @@
+package hillbillies.program;
+
+import hillbillies.model.Unit;
+import hillbillies.world.Position;
+
+/**
+ * A class of records holding the execution state of a single statement
+ * within a single program.
+ */
+public class ActivationRecord {
+	
+	private boolean toBeExecuted = true;
+	private boolean performAgain = false;
+	private int index = 0;
+	private Position targetPosition = null;
+	private Unit targetUnit = null;
+	
+	public boolean isToBeExecuted() {
+		return this.toBeExecuted;
+	}
+	
+	public void setToBeExecuted(boolean toBeExecuted) {
+		this.toBeExecuted = toBeExecuted;
+	}
+	
+	public boolean performAgain() {
+		return this.performAgain;
+	}
+	
+	public void setPerformAgain(boolean performAgain) {
+		this.performAgain = performAgain;
+	}
+	
+	public int getIndex() {
+		return this.index;
+	}
+	
+	public void setIndex(int index) {
+		this.index = index;
+	}
+	
+	public Position getTargetPosition() {
+		return this.targetPosition;
+	}
+	
+	public void setTargetPosition(Position targetPosition) {
+		this.targetPosition = targetPosition;
+	}
+	
+	public Unit getTargetUnit() {
+		return this.targetUnit;
+	}
+	
+	public void setTargetUnit(Unit targetUnit) {
+		this.targetUnit = targetUnit;
+	}
+
+}
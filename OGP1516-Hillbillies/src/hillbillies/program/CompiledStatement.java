@@ -0,0 +1,103 @@
+package hillbillies.program;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import hillbillies.statement.Assignment;
+import hillbillies.statement.Break;
+import hillbillies.statement.Conditional;
+import hillbillies.statement.Print;
+import hillbillies.statement.Queue;
+import hillbillies.statement.Statement;
+import hillbillies.statement.Void;
+import hillbillies.statement.action.Action;
+import hillbillies.statement.repetitive.Loop;
+
+/**
+ * A class of statements compiled to a flat sequence of instructions.
+ * Conditionals and loops are turned into branches and jumps, and each
+ * action is a point at which a program resumes during later executions.
+ * A compiled statement never changes, so it can be executed by many
+ * programs at once.
+ */
+public final class CompiledStatement {
+	
+	private final Statement statement;
+	private final Instruction[] instructions;
+	
+	private CompiledStatement(Statement statement, List<Instruction> instructions) {
+		this.statement = statement;
+		this.instructions = instructions.toArray(new Instruction[instructions.size()]);
+	}
+	
+	public static CompiledStatement compile(Statement statement) throws IllegalArgumentException {
+		if (statement == null) {
+			throw new IllegalArgumentException();
+		}
+		List<Instruction> instructions = new ArrayList<>();
+		emit(statement, instructions, null);
+		return new CompiledStatement(statement, instructions);
+	}
+	
+	private static void emit(Statement statement, List<Instruction> instructions, List<Instruction> breaks)
+			throws IllegalArgumentException {
+		if (statement instanceof Queue) {
+			for (Statement nested : ((Queue) statement).getStatements()) {
+				emit(nested, instructions, breaks);
+			}
+		} else if (statement instanceof Assignment) {
+			Assignment assignment = (Assignment) statement;
+			instructions.add(Instruction.assign(assignment.getSlot(), assignment.getExpression()));
+		} else if (statement instanceof Print) {
+			instructions.add(Instruction.print(((Print) statement).getExpression()));
+		} else if (statement instanceof Conditional) {
+			Conditional conditional = (Conditional) statement;
+			Instruction branch = Instruction.branch(conditional.getExpression());
+			instructions.add(branch);
+			emit(conditional.getIfStatement(), instructions, breaks);
+			Instruction skipElse = Instruction.jump(false);
+			instructions.add(skipElse);
+			branch.setTarget(instructions.size());
+			emit(conditional.getElseStatement(), instructions, breaks);
+			skipElse.setTarget(instructions.size());
+		} else if (statement instanceof Loop) {
+			Loop loop = (Loop) statement;
+			int start = instructions.size();
+			Instruction branch = Instruction.branch(loop.getExpression());
+			instructions.add(branch);
+			List<Instruction> loopBreaks = new ArrayList<>();
+			emit(loop.getBody(), instructions, loopBreaks);
+			Instruction back = Instruction.jump(false);
+			back.setTarget(start);
+			instructions.add(back);
+			branch.setTarget(instructions.size());
+			for (Instruction jump : loopBreaks) {
+				jump.setTarget(instructions.size());
+			}
+		} else if (statement instanceof Break) {
+			if (breaks == null) {
+				throw new IllegalArgumentException();
+			}
+			Instruction jump = Instruction.jump(true);
+			breaks.add(jump);
+			instructions.add(jump);
+		} else if (statement instanceof Action) {
+			instructions.add(Instruction.action((Action) statement));
+		} else if (! (statement instanceof Void)) {
+			throw new IllegalArgumentException();
+		}
+	}
+	
+	public Statement getStatement() {
+		return this.statement;
+	}
+	
+	int getNbInstructions() {
+		return this.instructions.length;
+	}
+	
+	Instruction getInstructionAt(int index) {
+		return this.instructions[index];
+	}
+
+}
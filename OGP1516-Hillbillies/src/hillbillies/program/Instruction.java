@@ -0,0 +1,119 @@
+package hillbillies.program;
+
+import hillbillies.expression.Expression;
+import hillbillies.statement.action.Action;
+
+/**
+ * A class of instructions of a compiled statement. Each instruction is
+ * executed for a program, and returns the index of the next instruction
+ * to execute, or WAIT if the program has to resume at the same
+ * instruction during a later execution.
+ */
+final class Instruction {
+	
+	static final int WAIT = -1;
+	
+	enum Opcode {
+		ASSIGN, PRINT, BRANCH, JUMP, ACTION
+	}
+	
+	private final Opcode opcode;
+	private final Expression<?> expression;
+	private final int slot;
+	private final Action action;
+	private final boolean timed;
+	private int target = -1;
+	
+	private Instruction(Opcode opcode, Expression<?> expression, int slot, Action action, boolean timed) {
+		this.opcode = opcode;
+		this.expression = expression;
+		this.slot = slot;
+		this.action = action;
+		this.timed = timed;
+	}
+	
+	static Instruction assign(int slot, Expression<?> expression) {
+		return new Instruction(Opcode.ASSIGN, expression, slot, null, true);
+	}
+	
+	static Instruction print(Expression<?> expression) {
+		return new Instruction(Opcode.PRINT, expression, -1, null, true);
+	}
+	
+	static Instruction branch(Expression<?> condition) {
+		return new Instruction(Opcode.BRANCH, condition, -1, null, true);
+	}
+	
+	static Instruction jump(boolean timed) {
+		return new Instruction(Opcode.JUMP, null, -1, null, timed);
+	}
+	
+	static Instruction action(Action action) {
+		return new Instruction(Opcode.ACTION, null, -1, action, false);
+	}
+	
+	void setTarget(int target) {
+		this.target = target;
+	}
+	
+	int execute(Program program, int index) {
+		if (this.timed) {
+			if (!program.hasTimeForStatement()) {
+				program.setTimeDepleted(true);
+				return WAIT;
+			}
+		}
+		switch (this.opcode) {
+		case ASSIGN:
+			Object value;
+			try {
+				value = this.expression.evaluate(program);
+			} catch (NullPointerException exc) {
+				program.interrupt();
+				return WAIT;
+			}
+			program.decreaseTimerOneUnit();
+			program.writeVariable(this.slot, value);
+			return index + 1;
+		case PRINT:
+			program.decreaseTimerOneUnit();
+			System.out.println(this.expression.evaluate(program).toString());
+			return index + 1;
+		case BRANCH:
+			program.decreaseTimerOneUnit();
+			if ((Boolean) this.expression.evaluate(program) == true) {
+				return index + 1;
+			}
+			return this.target;
+		case JUMP:
+			if (this.timed) {
+				program.decreaseTimerOneUnit();
+			}
+			return this.target;
+		default:
+			return executeAction(program, index);
+		}
+	}
+	
+	private int executeAction(Program program, int index) {
+		ActivationRecord record = program.getRecordOf(this.action);
+		if (record.isToBeExecuted()) {
+			if (!program.hasTimeForStatement()) {
+				program.setTimeDepleted(true);
+				return WAIT;
+			}
+			program.decreaseTimerOneUnit();
+			this.action.start(program);
+			record.setToBeExecuted(false);
+		}
+		if (this.action.isFinished(program)) {
+			record.setToBeExecuted(true);
+			return index + 1;
+		}
+		if (this.action.isRestartedUntilFinished()) {
+			record.setToBeExecuted(true);
+		}
+		return WAIT;
+	}
+
+}
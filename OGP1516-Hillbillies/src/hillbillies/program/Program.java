@@ -1,6 +1,7 @@
 package hillbillies.program;
 
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import hillbillies.model.Unit;
 import hillbillies.model.World;
@@ -9,7 +10,10 @@ import hillbillies.statement.Statement;
 public class Program {
 	
 	private Statement mainStatement;	
-	private Map<String, Object> globalVariables = new HashMap<>();
+	private final CompiledStatement compiledStatement;
+	private int index = 0;
+	private Object[] variables = new Object[0];
+	private final Map<Statement, ActivationRecord> records = new IdentityHashMap<>();
 	private boolean hasStopped = false;
 	private double timer = Double.MAX_VALUE;
 	private boolean timeDepleted = false;
@@ -17,7 +21,15 @@ public class Program {
 	private Unit unit;
 	
 	public Program(Statement mainStatement) {
+		this(mainStatement, null);
+	}
+	
+	public Program(Statement mainStatement, CompiledStatement compiledStatement) throws IllegalArgumentException {
+		if (compiledStatement != null && compiledStatement.getStatement() != mainStatement) {
+			throw new IllegalArgumentException();
+		}
 		setMainStatement(mainStatement);
+		this.compiledStatement = compiledStatement;
 	}
 	
 	public Statement getMainStatement() {
@@ -28,6 +40,14 @@ public class Program {
 		this.mainStatement = mainStatement;
 	}
 	
+	public CompiledStatement getCompiledStatement() {
+		return this.compiledStatement;
+	}
+	
+	public boolean isCompiled() {
+		return getCompiledStatement() != null;
+	}
+	
 	public double getTimer() {
 		return this.timer;
 	}
@@ -52,20 +72,25 @@ public class Program {
 		return getTimer() > 0;
 	}
 	
-	public Map<String, Object> getGlobalVariables() {
-		return new HashMap<String, Object>(this.globalVariables);
+	public Object readVariable(int slot) {
+		if (slot < 0 || slot >= this.variables.length) {
+			return null;
+		}
+		return this.variables[slot];
 	}
 	
-	public void setGlobalVariables(Map<String, Object> globalVariables) {
-		try {
-			for (Map.Entry<String, Object> entry : globalVariables.entrySet()) {
-			putGlobalVariable(entry.getKey(), entry.getValue());
-			}
-		} catch (NullPointerException e) {}
+	public void writeVariable(int slot, Object value) throws IllegalArgumentException {
+		if (slot < 0) {
+			throw new IllegalArgumentException();
+		}
+		if (slot >= this.variables.length) {
+			this.variables = Arrays.copyOf(this.variables, slot + 1);
+		}
+		this.variables[slot] = value;
 	}
 	
-	public void putGlobalVariable(String string, Object obj) {
-		this.globalVariables.put(string, obj);
+	public ActivationRecord getRecordOf(Statement statement) {
+		return this.records.computeIfAbsent(statement, s -> new ActivationRecord());
 	}
 	
 	public void update(double deltaTime) {
@@ -75,15 +100,34 @@ public class Program {
 	public void execute(double deltaTime) {
 		if (!hasStopped()) {
 			setTimer(deltaTime);
-			getMainStatement().perform(this);
-			if (! getMainStatement().isToBeExecuted()) {
+			if (isCompiled()) {
+				executeCompiled();
+			} else {
+				getMainStatement().perform(this);
+				if (! getMainStatement().isToBeExecuted(this)) {
+					finish();
+				}
+			}
+		}
+	}
+	
+	private void executeCompiled() {
+		CompiledStatement code = getCompiledStatement();
+		while (!hasStopped()) {
+			if (this.index >= code.getNbInstructions()) {
 				finish();
+				return;
+			}
+			int next = code.getInstructionAt(this.index).execute(this, this.index);
+			if (next == Instruction.WAIT || hasStopped()) {
+				return;
 			}
+			this.index = next;
 		}
 	}
 	
 	public void finish() {
-		getMainStatement().resetAll();
+		reset();
 		this.hasStopped = true;
 		getUnit().finishTask();
 	}
@@ -94,11 +138,18 @@ public class Program {
 	
 	public void interrupt() {
 		// Return full task, with all statements still to be executed.
-		getMainStatement().resetAll();
+		reset();
 		this.hasStopped = true;
 		getUnit().interruptTask();
 	}
 	
+	private void reset() {
+		// Dropping all activation records puts every statement back in its
+		// initial state, without walking the statement tree.
+		this.records.clear();
+		this.index = 0;
+	}
+	
 	public boolean isTimeDepleted() {
 		return this.timeDepleted;
 	}
@@ -47,9 +47,37 @@ import hillbillies.world.Position;
 @SuppressWarnings("unchecked")
 public class TaskFactory implements ITaskFactory<Expression<?>, hillbillies.statement.Statement, Task> {
 
+	private final VariableTable variables = new VariableTable();
+	private final boolean compiling;
+	
+	public TaskFactory() {
+		this(true);
+	}
+	
+	public TaskFactory(boolean compiling) {
+		this.compiling = compiling;
+	}
+	
+	public boolean isCompiling() {
+		return this.compiling;
+	}
+
 	@Override
 	public List<Task> createTasks(String name, int priority, hillbillies.statement.Statement activity,
 			List<int[]> selectedCubes) {		
+		CompiledStatement compiledStatement = null;
+		if (isCompiling()) {
+			try {
+				compiledStatement = CompiledStatement.compile(activity);
+			} catch (IllegalArgumentException e) {
+				// Ill-formed tasks are left to the interpreter.
+			}
+		}
+		return instantiate(name, priority, activity, compiledStatement, selectedCubes);
+	}
+	
+	static List<Task> instantiate(String name, int priority, hillbillies.statement.Statement activity,
+			CompiledStatement compiledStatement, List<int[]> selectedCubes) {
 		List<Task> list = new ArrayList<>();
 		for (int[] is : selectedCubes) {
 			list.add(new Task(name, priority, activity, new Position(is[0], is[1], is[2])));
@@ -57,13 +85,16 @@ public class TaskFactory implements ITaskFactory<Expression<?>, hillbillies.stat
 		if (list.isEmpty()) {
 			list.add(new Task(name, priority, activity));
 		}
+		for (Task task : list) {
+			task.setCompiledStatement(compiledStatement);
+		}
 		return list;
 	}
 
 	@Override
 	public hillbillies.statement.Statement createAssignment(String variableName, Expression<?> value,
 			SourceLocation sourceLocation) {
-		return new Assignment(variableName, value, sourceLocation);
+		return new Assignment(variableName, variables.getSlotOf(variableName), value, sourceLocation);
 	}
 
 	@Override
@@ -122,7 +153,7 @@ public class TaskFactory implements ITaskFactory<Expression<?>, hillbillies.stat
 
 	@Override
 	public Expression<?> createReadVariable(String variableName, SourceLocation sourceLocation) {
-		return new ReadVariable<>(sourceLocation, variableName);
+		return new ReadVariable<>(sourceLocation, variableName, variables.getSlotOf(variableName));
 	}
 
 	@Override
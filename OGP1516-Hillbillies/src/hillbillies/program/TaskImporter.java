@@ -0,0 +1,137 @@
+package hillbillies.program;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
+
+import hillbillies.model.Scheduler;
+import hillbillies.model.Task;
+import ogp.framework.util.internal.ResourceUtils;
+
+/**
+ * A class of importers parsing many task files in parallel on a fork-join
+ * pool. The tasks of all files that could be parsed are added to a scheduler
+ * at once; the files that could not be parsed are reported with their errors.
+ */
+public class TaskImporter {
+	
+	private final ForkJoinPool pool;
+	
+	public TaskImporter() {
+		this(ForkJoinPool.commonPool());
+	}
+	
+	public TaskImporter(ForkJoinPool pool) throws IllegalArgumentException {
+		if (pool == null) {
+			throw new IllegalArgumentException();
+		}
+		this.pool = pool;
+	}
+	
+	public ForkJoinPool getPool() {
+		return this.pool;
+	}
+	
+	public static List<String> listTaskFiles(String directory) throws IOException {
+		return ResourceUtils.listFileNames(directory)
+				.filter(name -> name.endsWith(".txt"))
+				.sorted()
+				.map(name -> directory + "/" + name)
+				.collect(Collectors.toList());
+	}
+	
+	public Result importFiles(List<String> filenames, List<int[]> selectedCubes) throws IllegalArgumentException {
+		if (filenames == null || selectedCubes == null) {
+			throw new IllegalArgumentException();
+		}
+		List<ForkJoinTask<FileResult>> jobs = new ArrayList<>(filenames.size());
+		for (String filename : filenames) {
+			jobs.add(getPool().submit(() -> importFile(filename, selectedCubes)));
+		}
+		Result result = new Result();
+		for (ForkJoinTask<FileResult> job : jobs) {
+			FileResult file = job.join();
+			if (file.tasks != null) {
+				result.tasks.put(file.filename, file.tasks);
+			} else {
+				result.errors.put(file.filename, file.errors);
+			}
+		}
+		return result;
+	}
+	
+	public Result importDirectory(String directory, List<int[]> selectedCubes) throws IOException {
+		return importFiles(listTaskFiles(directory), selectedCubes);
+	}
+	
+	public Result importInto(Scheduler scheduler, List<String> filenames, List<int[]> selectedCubes) 
+			throws IllegalArgumentException {
+		if (scheduler == null) {
+			throw new IllegalArgumentException();
+		}
+		Result result = importFiles(filenames, selectedCubes);
+		scheduler.addAll(result.getTasks());
+		return result;
+	}
+	
+	private static FileResult importFile(String filename, List<int[]> selectedCubes) {
+		List<String> errors = new ArrayList<>();
+		List<Task> tasks = null;
+		try {
+			tasks = TaskSourceParser.parse(TaskSourceParser.readSource(filename), new TaskFactory(), 
+					selectedCubes, errors);
+		} catch (IOException e) {
+			errors.add(e.toString());
+		}
+		return new FileResult(filename, tasks, errors);
+	}
+	
+	private static class FileResult {
+		
+		private final String filename;
+		private final List<Task> tasks;
+		private final List<String> errors;
+		
+		private FileResult(String filename, List<Task> tasks, List<String> errors) {
+			this.filename = filename;
+			this.tasks = tasks;
+			this.errors = errors;
+		}
+	}
+	
+	public static class Result {
+		
+		private final Map<String, List<Task>> tasks = new LinkedHashMap<>();
+		private final Map<String, List<String>> errors = new LinkedHashMap<>();
+		
+		private Result() {
+		}
+		
+		public Map<String, List<Task>> getTasksPerFile() {
+			return Collections.unmodifiableMap(this.tasks);
+		}
+		
+		public List<Task> getTasks() {
+			List<Task> result = new ArrayList<>();
+			for (List<Task> list : this.tasks.values()) {
+				result.addAll(list);
+			}
+			return result;
+		}
+		
+		public Map<String, List<String>> getErrors() {
+			return Collections.unmodifiableMap(this.errors);
+		}
+		
+		public boolean hasErrors() {
+			return !this.errors.isEmpty();
+		}
+	}
+
+}
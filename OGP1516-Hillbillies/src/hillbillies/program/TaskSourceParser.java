@@ -0,0 +1,155 @@
+package hillbillies.program;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.antlr.v4.runtime.ANTLRInputStream;
+import org.antlr.v4.runtime.BailErrorStrategy;
+import org.antlr.v4.runtime.BaseErrorListener;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.DefaultErrorStrategy;
+import org.antlr.v4.runtime.RecognitionException;
+import org.antlr.v4.runtime.Recognizer;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+
+import hillbillies.part3.programs.ITaskFactory;
+import hillbillies.part3.programs.internal.ParserVisitor;
+import hillbillies.part3.programs.internal.generated.HillbilliesTaskLangLexer;
+import hillbillies.part3.programs.internal.generated.HillbilliesTaskLangParser;
+import hillbillies.part3.programs.internal.generated.HillbilliesTaskLangParser.TaskContext;
+import ogp.framework.util.internal.ResourceUtils;
+
+/**
+ * A class of parsers for the source of tasks, giving the same results as the
+ * provided task parser, but faster.
+ * Each thread reuses its own lexer and parser. A source is first parsed with
+ * the cheap SLL prediction, which gives up at the first error, and only parsed
+ * again with full LL prediction if that fails. The prediction caches of the
+ * generated parser are shared by all threads, and can be filled in advance
+ * by parsing the bundled tasks.
+ */
+public final class TaskSourceParser {
+	
+	public static final String[] BUNDLED_TASKS = {
+		"resources/tasks/assassinate.txt",
+		"resources/tasks/dig.txt",
+		"resources/tasks/digtunnel.txt",
+		"resources/tasks/digtunnel_if.txt",
+		"resources/tasks/goto_10_10_10.txt",
+		"resources/tasks/operate_workshop.txt"
+	};
+	
+	private static final ThreadLocal<TaskSourceParser> PARSERS = new ThreadLocal<TaskSourceParser>() {
+		@Override
+		protected TaskSourceParser initialValue() {
+			return new TaskSourceParser();
+		}
+	};
+	
+	private final HillbilliesTaskLangLexer lexer = new HillbilliesTaskLangLexer(null);
+	private final HillbilliesTaskLangParser parser = new HillbilliesTaskLangParser(null);
+	private final BailErrorStrategy bailStrategy = new BailErrorStrategy();
+	private final DefaultErrorStrategy defaultStrategy = new DefaultErrorStrategy();
+	private final List<String> errors = new ArrayList<>();
+	private final BaseErrorListener errorCollector = new BaseErrorListener() {
+		@Override
+		public void syntaxError(Recognizer<?, ?> recognizer, Object offendingSymbol, int line,
+				int charPositionInLine, String msg, RecognitionException e) {
+			errors.add(msg + " (" + line + ", " + charPositionInLine + ")");
+		}
+	};
+	
+	private TaskSourceParser() {
+		// The lexer recovers from unknown characters by skipping them, so its
+		// messages do not make a source fail and are not printed.
+		this.lexer.removeErrorListeners();
+	}
+	
+	public static <E, S, T> List<T> parse(String source, ITaskFactory<E, S, T> factory, 
+			List<int[]> selectedCubes) {
+		return PARSERS.get().parseSource(source, factory, selectedCubes);
+	}
+	
+	public static <E, S, T> List<T> parse(String source, ITaskFactory<E, S, T> factory, 
+			List<int[]> selectedCubes, List<String> errors) {
+		TaskSourceParser parser = PARSERS.get();
+		List<T> result = parser.parseSource(source, factory, selectedCubes);
+		if (result == null) {
+			errors.addAll(parser.getErrors());
+		}
+		return result;
+	}
+	
+	public static String readSource(String filename) throws IOException {
+		StringBuilder source = new StringBuilder();
+		try (Reader reader = new InputStreamReader(ResourceUtils.openResource(filename))) {
+			char[] buffer = new char[4096];
+			int read;
+			while ((read = reader.read(buffer)) != -1) {
+				source.append(buffer, 0, read);
+			}
+		}
+		return source.toString();
+	}
+	
+	public static int warmUp() {
+		int nbParsed = 0;
+		for (String filename : BUNDLED_TASKS) {
+			try {
+				if (parse(readSource(filename), new TaskFactory(), Collections.<int[]>emptyList()) != null) {
+					nbParsed++;
+				}
+			} catch (IOException e) {
+				// Missing bundled tasks only leave the caches colder.
+			}
+		}
+		return nbParsed;
+	}
+	
+	private <E, S, T> List<T> parseSource(String source, ITaskFactory<E, S, T> factory, 
+			List<int[]> selectedCubes) {
+		this.errors.clear();
+		this.lexer.setInputStream(new ANTLRInputStream(source));
+		// A token stream cannot be rewound to a new source, so only the
+		// lexer and the parser are reused.
+		CommonTokenStream tokens = new CommonTokenStream(this.lexer);
+		this.parser.setTokenStream(tokens);
+		this.parser.removeErrorListeners();
+		this.parser.setErrorHandler(this.bailStrategy);
+		this.parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+		try {
+			TaskContext tree;
+			try {
+				tree = this.parser.task();
+			} catch (ParseCancellationException e) {
+				tokens.seek(0);
+				this.parser.reset();
+				this.parser.addErrorListener(this.errorCollector);
+				this.parser.setErrorHandler(this.defaultStrategy);
+				this.parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+				tree = this.parser.task();
+			}
+			// A tree recovered from syntax errors is incomplete, and cannot be visited.
+			if (! this.errors.isEmpty()) {
+				return null;
+			}
+			ParserVisitor<E, S, T> visitor = new ParserVisitor<>(factory);
+			visitor.visit(tree);
+			return factory.createTasks(visitor.getName(), visitor.getPriority(), visitor.getActivity(), 
+					selectedCubes);
+		} catch (Exception e) {
+			this.errors.add(e.toString());
+		}
+		return null;
+	}
+	
+	private List<String> getErrors() {
+		return Collections.unmodifiableList(this.errors);
+	}
+
+}
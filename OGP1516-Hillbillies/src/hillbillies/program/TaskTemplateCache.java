@@ -0,0 +1,111 @@
+package hillbillies.program;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import hillbillies.model.Task;
+import hillbillies.statement.Statement;
+
+/**
+ * A class of caches holding the parsed form of task sources, so that tasks
+ * submitted again with the same source are created without parsing them
+ * again. Tasks created from the same template share their immutable
+ * statement, but each task has its own priority and selected position.
+ * The least recently used template is dropped once the cache is full.
+ */
+public class TaskTemplateCache {
+	
+	private final int capacity;
+	private final Map<String, Template> templates;
+	private long nbHits = 0L;
+	private long nbMisses = 0L;
+	
+	public TaskTemplateCache(int capacity) throws IllegalArgumentException {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException();
+		}
+		this.capacity = capacity;
+		this.templates = new LinkedHashMap<String, Template>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Template> eldest) {
+				return size() > TaskTemplateCache.this.capacity;
+			}
+		};
+	}
+	
+	public int getCapacity() {
+		return this.capacity;
+	}
+	
+	public synchronized int size() {
+		return this.templates.size();
+	}
+	
+	public synchronized long getNbHits() {
+		return this.nbHits;
+	}
+	
+	public synchronized long getNbMisses() {
+		return this.nbMisses;
+	}
+	
+	public List<Task> createTasks(String source, List<int[]> selectedCubes) {
+		Template template = getTemplate(source);
+		if (template == null) {
+			return null;
+		}
+		return template.instantiate(selectedCubes);
+	}
+	
+	public List<Task> createTasksFromFile(String filename, List<int[]> selectedCubes) throws IOException {
+		return createTasks(TaskSourceParser.readSource(filename), selectedCubes);
+	}
+	
+	private Template getTemplate(String source) {
+		synchronized (this) {
+			Template template = this.templates.get(source);
+			if (template != null) {
+				this.nbHits++;
+				return template;
+			}
+			this.nbMisses++;
+		}
+		List<Task> parsed = TaskSourceParser.parse(source, new TaskFactory(), new ArrayList<int[]>());
+		if (parsed == null || parsed.isEmpty()) {
+			return null;
+		}
+		Task task = parsed.get(0);
+		Template template = new Template(task.getName(), task.getPriority(), task.getStatement(), 
+				task.getCompiledStatement());
+		synchronized (this) {
+			this.templates.put(source, template);
+		}
+		return template;
+	}
+	
+	private static class Template {
+		
+		private final String name;
+		private final int priority;
+		private final Statement activity;
+		private final CompiledStatement compiledStatement;
+		
+		private Template(String name, int priority, Statement activity, CompiledStatement compiledStatement) {
+			this.name = name;
+			this.priority = priority;
+			this.activity = activity;
+			this.compiledStatement = compiledStatement;
+		}
+		
+		private List<Task> instantiate(List<int[]> selectedCubes) {
+			return TaskFactory.instantiate(this.name, this.priority, this.activity, 
+					this.compiledStatement, selectedCubes);
+		}
+	}
+
+}
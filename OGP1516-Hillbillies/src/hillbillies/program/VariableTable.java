@@ -0,0 +1,23 @@
+package hillbillies.program;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A class of tables resolving the names of the variables of tasks to the
+ * slots in which programs store their values.
+ */
+class VariableTable {
+	
+	private final Map<String, Integer> slots = new HashMap<>();
+	
+	public int getSlotOf(String name) {
+		Integer slot = this.slots.get(name);
+		if (slot == null) {
+			slot = this.slots.size();
+			this.slots.put(name, slot);
+		}
+		return slot;
+	}
+
+}
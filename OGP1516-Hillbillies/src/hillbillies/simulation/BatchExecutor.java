@@ -0,0 +1,214 @@
+package hillbillies.simulation;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+
+/**
+ * A class of executors running batches of independent simulations on a
+ * pool of threads.
+ * 
+ * @invar  The number of threads of each executor is strictly positive.
+ *       | getNbThreads() > 0
+ * 
+ * @note   Worlds share no mutable state, so each simulation is advanced by a
+ *         single thread, without any synchronization between simulations.
+ * 
+ * @author  Pieter-Jan Van den Broecke: EltCw
+ * 		    Emiel Vandeloo: WtkCw
+ * @version Final version Part 3: 20/05/2016
+ * 
+ * https://github.com/EmielVandeloo/Hillbillies.git
+ */
+public class BatchExecutor {
+	
+	/**
+	 * Variable registering the number of threads of this executor.
+	 */
+	private final int nbThreads;
+	
+	/**
+	 * Variable registering the number of simulations this executor has completed.
+	 */
+	private int nbSimulations = 0;
+	
+	/**
+	 * Variable registering the wall-clock time, in nanoseconds, this executor
+	 * has spent running batches.
+	 */
+	private long runTime = 0L;
+	
+	/**
+	 * Initialize this new executor with the given number of threads.
+	 * 
+	 * @param  nbThreads
+	 *         The number of threads of this new executor.
+	 * @post   The number of threads of this new executor is equal to the given
+	 *         number of threads.
+	 *       | new.getNbThreads() == nbThreads
+	 * @throws IllegalArgumentException
+	 *         The given number of threads is not strictly positive.
+	 *       | nbThreads <= 0
+	 */
+	public BatchExecutor(int nbThreads) throws IllegalArgumentException {
+		if (nbThreads <= 0) {
+			throw new IllegalArgumentException();
+		}
+		this.nbThreads = nbThreads;
+	}
+	
+	/**
+	 * Initialize this new executor with one thread per available processor.
+	 * 
+	 * @effect This new executor is initialized with as many threads as there
+	 *         are available processors.
+	 *       | this(Runtime.getRuntime().availableProcessors())
+	 */
+	public BatchExecutor() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+	
+	/**
+	 * Return the number of threads of this executor.
+	 */
+	@Basic @Immutable
+	public int getNbThreads() {
+		return this.nbThreads;
+	}
+	
+	/**
+	 * Return the number of simulations this executor has completed.
+	 */
+	@Basic
+	public int getNbSimulations() {
+		return this.nbSimulations;
+	}
+	
+	/**
+	 * Return the wall-clock time, in nanoseconds, this executor has spent
+	 * running batches.
+	 */
+	@Basic
+	public long getRunTime() {
+		return this.runTime;
+	}
+	
+	/**
+	 * Return the number of simulations this executor has completed per minute
+	 * of wall-clock time.
+	 */
+	public double getSimulationsPerMinute() {
+		return (getRunTime() == 0 ? 0.0 : getNbSimulations() * 60e9 / getRunTime());
+	}
+	
+	/**
+	 * Run the given number of simulations.
+	 * 
+	 * @param  nbSimulations
+	 *         The number of simulations to run.
+	 * @param  setup
+	 *         The function creating the runner of the simulation with a given index.
+	 * @param  duration
+	 *         The game time, in seconds, to advance each simulation by.
+	 * @param  timeStep
+	 *         The time step, in seconds, by which to advance each simulation.
+	 * @param  collector
+	 *         The function collecting the result of a finished simulation.
+	 * @return A list holding the result of each simulation, in order of index. The
+	 *         result of a simulation holds the value collected from its runner, or
+	 *         the error its setup, run or collection failed with.
+	 * @throws IllegalArgumentException
+	 *         The given number of simulations is negative, or the given setup or
+	 *         collector is not effective.
+	 * @throws InterruptedException
+	 *         The current thread was interrupted while waiting for the simulations.
+	 */
+	public <R> List<BatchResult<R>> run(int nbSimulations, IntFunction<? extends HeadlessRunner> setup,
+			double duration, double timeStep, Function<? super HeadlessRunner, ? extends R> collector)
+			throws IllegalArgumentException, InterruptedException {
+		if (nbSimulations < 0 || setup == null || collector == null) {
+			throw new IllegalArgumentException();
+		}
+		List<Callable<BatchResult<R>>> simulations = new ArrayList<>();
+		for (int i = 0; i < nbSimulations; i++) {
+			final int index = i;
+			simulations.add(() -> {
+				long start = System.nanoTime();
+				try {
+					HeadlessRunner runner = setup.apply(index);
+					runner.run(duration, timeStep);
+					return new BatchResult<R>(index, collector.apply(runner), null, System.nanoTime() - start);
+				} catch (RuntimeException | Error e) {
+					return new BatchResult<R>(index, null, e, System.nanoTime() - start);
+				}
+			});
+		}
+		ExecutorService pool = Executors.newFixedThreadPool(getNbThreads());
+		long start = System.nanoTime();
+		try {
+			List<BatchResult<R>> results = new ArrayList<>();
+			for (Future<BatchResult<R>> future : pool.invokeAll(simulations)) {
+				results.add(future.get());
+			}
+			return results;
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			pool.shutdownNow();
+			this.runTime += System.nanoTime() - start;
+			this.nbSimulations += nbSimulations;
+		}
+	}
+	
+	/**
+	 * Run a batch of headless simulations.
+	 * 
+	 * @param  args
+	 *         The name of a map file, the number of units to spawn in each world,
+	 *         the game time in seconds to simulate, the time step in seconds, the
+	 *         number of worlds and, optionally, the number of threads. The world
+	 *         with a given index is seeded with that index.
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException {
+		if (args.length < 5) {
+			System.err.println("Usage: BatchExecutor <map> <units> <seconds> <timestep> <worlds> [threads]");
+			System.exit(1);
+		}
+		int[][][] terrain;
+		try (Reader reader = new FileReader(args[0])) {
+			terrain = HeadlessRunner.readTerrain(reader);
+		}
+		int nbUnits = Integer.parseInt(args[1]);
+		BatchExecutor executor = (args.length > 5 ? new BatchExecutor(Integer.parseInt(args[5])) 
+				: new BatchExecutor());
+		List<BatchResult<Integer>> results = executor.run(Integer.parseInt(args[4]), index -> {
+			HeadlessRunner runner = new HeadlessRunner(terrain, index);
+			runner.spawnUnits(nbUnits, true);
+			return runner;
+		}, Double.parseDouble(args[2]), Double.parseDouble(args[3]), 
+				runner -> runner.getWorld().getAllUnits().size());
+		int nbFailed = 0;
+		for (BatchResult<Integer> result : results) {
+			if (! result.isSuccessful()) {
+				nbFailed++;
+				System.out.println(result);
+			}
+		}
+		System.out.println(String.format("worlds: %d, failed: %d, threads: %d, wall time: %.3f s, worlds/min: %.1f",
+				results.size(), nbFailed, executor.getNbThreads(), executor.getRunTime() / 1e9, 
+				executor.getSimulationsPerMinute()));
+	}
+
+}
@@ -0,0 +1,108 @@
+package hillbillies.simulation;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Value;
+
+/**
+ * A class of results of a single simulation in a batch.
+ * 
+ * @invar  Each result either holds a value or an error, but not both.
+ *       | (getError() == null) || (getValue() == null)
+ * 
+ * @author  Pieter-Jan Van den Broecke: EltCw
+ * 		    Emiel Vandeloo: WtkCw
+ * @version Final version Part 3: 20/05/2016
+ * 
+ * https://github.com/EmielVandeloo/Hillbillies.git
+ */
+@Value
+public class BatchResult<R> {
+	
+	/**
+	 * Variable registering the index of the simulation in its batch.
+	 */
+	private final int index;
+	
+	/**
+	 * Variable referencing the value collected from the simulation.
+	 */
+	private final R value;
+	
+	/**
+	 * Variable referencing the error the simulation failed with.
+	 */
+	private final Throwable error;
+	
+	/**
+	 * Variable registering the wall-clock time, in nanoseconds, the simulation took.
+	 */
+	private final long runTime;
+	
+	/**
+	 * Initialize this new result with the given index, value, error and run time.
+	 * 
+	 * @param  index
+	 *         The index of the simulation in its batch.
+	 * @param  value
+	 *         The value collected from the simulation.
+	 * @param  error
+	 *         The error the simulation failed with.
+	 * @param  runTime
+	 *         The wall-clock time, in nanoseconds, the simulation took.
+	 */
+	BatchResult(int index, R value, Throwable error, long runTime) {
+		this.index = index;
+		this.value = value;
+		this.error = error;
+		this.runTime = runTime;
+	}
+	
+	/**
+	 * Return the index of the simulation in its batch.
+	 */
+	@Basic @Immutable
+	public int getIndex() {
+		return this.index;
+	}
+	
+	/**
+	 * Return the value collected from the simulation.
+	 */
+	@Basic @Immutable
+	public R getValue() {
+		return this.value;
+	}
+	
+	/**
+	 * Return the error the simulation failed with, if any.
+	 */
+	@Basic @Immutable
+	public Throwable getError() {
+		return this.error;
+	}
+	
+	/**
+	 * Return the wall-clock time, in nanoseconds, the simulation took.
+	 */
+	@Basic @Immutable
+	public long getRunTime() {
+		return this.runTime;
+	}
+	
+	/**
+	 * Check whether the simulation completed without errors.
+	 * 
+	 * @return True if and only if this result holds no error.
+	 *       | result == (getError() == null)
+	 */
+	public boolean isSuccessful() {
+		return (getError() == null);
+	}
+	
+	@Override
+	public String toString() {
+		return "Simulation " + getIndex() + (isSuccessful() ? ": " + getValue() : " failed: " + getError());
+	}
+
+}
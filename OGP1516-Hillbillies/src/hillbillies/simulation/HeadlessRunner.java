@@ -0,0 +1,318 @@
+package hillbillies.simulation;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import hillbillies.model.Faction;
+import hillbillies.model.Task;
+import hillbillies.model.TickPhase;
+import hillbillies.model.World;
+import hillbillies.part2.internal.map.GameMap;
+import hillbillies.part2.internal.map.GameMapReader;
+import hillbillies.part2.listener.DefaultTerrainChangeListener;
+import hillbillies.program.TaskSourceParser;
+import hillbillies.program.TaskTemplateCache;
+
+/**
+ * A class of runners advancing a world with a fixed time step as fast as
+ * possible, without a graphical user interface.
+ * 
+ * @invar  The world of each runner is effective.
+ *       | getWorld() != null
+ * 
+ * @author  Pieter-Jan Van den Broecke: EltCw
+ * 		    Emiel Vandeloo: WtkCw
+ * @version Final version Part 3: 20/05/2016
+ * 
+ * https://github.com/EmielVandeloo/Hillbillies.git
+ */
+public class HeadlessRunner {
+	
+	/**
+	 * Variable referencing the world advanced by this runner.
+	 */
+	private final World world;
+	
+	/**
+	 * Variable registering the number of tasks scheduled by this runner.
+	 */
+	private int nbTasks = 0;
+	
+	/**
+	 * Variable registering the wall-clock time, in nanoseconds, this runner
+	 * has spent advancing its world.
+	 */
+	private long runTime = 0L;
+	
+	/**
+	 * Variable referencing the cache of parsed tasks of this runner.
+	 */
+	private final TaskTemplateCache templates = new TaskTemplateCache(64);
+	
+	/**
+	 * Initialize this new runner with a new world of the given terrain types.
+	 * 
+	 * @param  terrainTypes
+	 *         The terrain types of the world of this new runner.
+	 * @effect The world of this new runner is a new world with the given terrain
+	 *         types, that ignores all terrain changes.
+	 *       | new World(terrainTypes, new DefaultTerrainChangeListener())
+	 */
+	public HeadlessRunner(int[][][] terrainTypes) throws IllegalArgumentException {
+		this.world = new World(terrainTypes, new DefaultTerrainChangeListener());
+	}
+	
+	/**
+	 * Initialize this new runner with a new world of the given terrain types
+	 * and the given seed.
+	 * 
+	 * @param  terrainTypes
+	 *         The terrain types of the world of this new runner.
+	 * @param  seed
+	 *         The seed of the world of this new runner.
+	 * @effect The world of this new runner is a new world with the given terrain
+	 *         types and the given seed, that ignores all terrain changes.
+	 *       | new World(terrainTypes, new DefaultTerrainChangeListener(), seed)
+	 */
+	public HeadlessRunner(int[][][] terrainTypes, long seed) throws IllegalArgumentException {
+		this.world = new World(terrainTypes, new DefaultTerrainChangeListener(), seed);
+	}
+	
+	/**
+	 * Return the world advanced by this runner.
+	 */
+	@Basic @Immutable
+	public World getWorld() {
+		return this.world;
+	}
+	
+	/**
+	 * Return the number of tasks scheduled by this runner.
+	 */
+	@Basic
+	public int getNbTasks() {
+		return this.nbTasks;
+	}
+	
+	/**
+	 * Return the wall-clock time, in nanoseconds, this runner has spent
+	 * advancing its world.
+	 */
+	@Basic
+	public long getRunTime() {
+		return this.runTime;
+	}
+	
+	/**
+	 * Return the cache of parsed tasks of this runner.
+	 */
+	@Basic @Immutable
+	public TaskTemplateCache getTemplates() {
+		return this.templates;
+	}
+	
+	/**
+	 * Spawn the given number of units with random attributes in the world of
+	 * this runner.
+	 * 
+	 * @param  nbUnits
+	 *         The number of units to spawn.
+	 * @param  enableDefaultBehavior
+	 *         Whether or not the new units do their default behavior.
+	 * @effect The population limits of the world of this runner are raised, if
+	 *         necessary, so that the given number of units fit in it.
+	 * @effect The given number of random units are created in the world of this runner.
+	 *       | getWorld().createRandomUnits(nbUnits, enableDefaultBehavior)
+	 * @return The number of units that were spawned.
+	 */
+	public int spawnUnits(int nbUnits, boolean enableDefaultBehavior) {
+		int total = getWorld().getAllUnits().size() + nbUnits;
+		if (total > getWorld().getMaxNbUnits()) {
+			int perFaction = (total + getWorld().getMaxNbFactions() - 1) / getWorld().getMaxNbFactions();
+			getWorld().setPopulationLimits(total, getWorld().getMaxNbFactions(), 
+					Math.max(perFaction, getWorld().getMaxNbUnitsPerFaction()));
+		}
+		return getWorld().createRandomUnits(nbUnits, enableDefaultBehavior).size();
+	}
+	
+	/**
+	 * Parse the tasks in the file with the given name and schedule them for
+	 * each faction of the world of this runner.
+	 * 
+	 * @param  filename
+	 *         The name of the file to read the tasks from.
+	 * @param  selectedCubes
+	 *         The cubes to use as selected cubes in the tasks.
+	 * @return The number of tasks scheduled.
+	 * @throws IOException
+	 *         The file with the given name could not be read.
+	 * @throws IllegalArgumentException
+	 *         The file with the given name does not contain well-formed tasks.
+	 * @note   Each faction receives its own tasks, so that they can be executed
+	 *         independently. The file is only parsed the first time it is loaded;
+	 *         all tasks created from it share the same statements.
+	 */
+	public int loadTasks(String filename, List<int[]> selectedCubes) 
+			throws IOException, IllegalArgumentException {
+		int scheduled = 0;
+		for (Faction faction : getWorld().getAllFactions()) {
+			List<Task> tasks = getTemplates().createTasksFromFile(filename, selectedCubes);
+			if (tasks == null) {
+				throw new IllegalArgumentException(filename);
+			}
+			faction.schedule(tasks);
+			scheduled += tasks.size();
+		}
+		this.nbTasks += scheduled;
+		return scheduled;
+	}
+	
+	/**
+	 * Return the given number of cubes of the world of this runner, chosen at random.
+	 * 
+	 * @param  number
+	 *         The number of cubes to select.
+	 * @param  random
+	 *         The randomizer to select the cubes with.
+	 * @return A list of the given number of coordinates of cubes in the world of
+	 *         this runner.
+	 */
+	public List<int[]> selectRandomCubes(int number, Random random) {
+		List<int[]> cubes = new ArrayList<>();
+		for (int i = 0; i < number; i++) {
+			cubes.add(new int[] {random.nextInt(getWorld().getSizeX()), 
+					random.nextInt(getWorld().getSizeY()), random.nextInt(getWorld().getSizeZ())});
+		}
+		return cubes;
+	}
+	
+	/**
+	 * Advance the world of this runner by the given time with the given time step.
+	 * 
+	 * @param  duration
+	 *         The game time, in seconds, to advance the world of this runner by.
+	 * @param  timeStep
+	 *         The time step, in seconds, by which to advance the world each tick.
+	 * @effect The world of this runner is advanced by the given time step, as many
+	 *         times as the given time step fits in the given duration.
+	 * @post   The wall-clock time spent advancing the world is added to the run time
+	 *         of this runner.
+	 * @throws IllegalArgumentException
+	 *         The given time step is not strictly positive, or exceeds 0.2 seconds.
+	 */
+	public void run(double duration, double timeStep) throws IllegalArgumentException {
+		if (! (timeStep > 0 && timeStep <= 0.2)) {
+			throw new IllegalArgumentException();
+		}
+		long nbSteps = Math.round(duration / timeStep);
+		long start = System.nanoTime();
+		for (long i = 0; i < nbSteps; i++) {
+			getWorld().advanceTime(timeStep);
+		}
+		this.runTime += System.nanoTime() - start;
+	}
+	
+	/**
+	 * Print a report of the runs of this runner to the given stream.
+	 * 
+	 * @param  out
+	 *         The stream to print the report to.
+	 */
+	public void printReport(PrintStream out) {
+		long ticks = getWorld().getNbTicks();
+		double seconds = getRunTime() / 1e9;
+		out.println(String.format("seed: %d", getWorld().getSeed()));
+		out.println(String.format("units: %d, factions: %d, tasks: %d", getWorld().getAllUnits().size(),
+				getWorld().getNbFactions(), getNbTasks()));
+		out.println(String.format("task templates: %d, hits: %d, misses: %d", getTemplates().size(),
+				getTemplates().getNbHits(), getTemplates().getNbMisses()));
+		out.println(String.format("ticks: %d, game time: %.1f s, wall time: %.3f s, ticks/s: %.1f",
+				ticks, getWorld().getGameTime(), seconds, (seconds > 0 ? ticks / seconds : 0.0)));
+		for (TickPhase phase : TickPhase.values()) {
+			long time = getWorld().getTimeSpentIn(phase);
+			out.println(String.format("  %-8s %10.3f ms total, %8.4f ms/tick", phase.name().toLowerCase(), 
+					time / 1e6, (ticks > 0 ? time / 1e6 / ticks : 0.0)));
+		}
+	}
+	
+	/**
+	 * Read the terrain types of a world from the given reader.
+	 * 
+	 * @param  reader
+	 *         The reader to read the terrain from.
+	 * @return The terrain types described by the given reader, in the map format
+	 *         read by the provided game map reader.
+	 * @throws IllegalArgumentException
+	 *         The given reader could not be read, or it does not describe a valid
+	 *         terrain.
+	 */
+	public static int[][][] readTerrain(Reader reader) throws IllegalArgumentException {
+		GameMap map = new GameMapReader().readFromReader(reader);
+		if (map == null) {
+			throw new IllegalArgumentException("Invalid map");
+		}
+		int[][][] types = new int[map.getNbTilesX()][map.getNbTilesY()][map.getNbTilesZ()];
+		for (int x = 0; x < map.getNbTilesX(); x++) {
+			for (int y = 0; y < map.getNbTilesY(); y++) {
+				for (int z = 0; z < map.getNbTilesZ(); z++) {
+					types[x][y][z] = map.getTypeAt(x, y, z).getByteValue();
+				}
+			}
+		}
+		return types;
+	}
+	
+	/**
+	 * Run a headless simulation.
+	 * 
+	 * @param  args
+	 *         Optionally "--seed" followed by the seed of the world, then the name
+	 *         of a map file, the number of units to spawn, the game time in seconds
+	 *         to simulate, the time step in seconds and, optionally, the names of
+	 *         task files to schedule for each faction, with a randomly selected cube.
+	 * @note   The cubes of the task files are selected with a randomizer derived
+	 *         from the seed of the world, so that a run with the same seed and
+	 *         arguments can be replayed exactly. Without a seed, a random seed is
+	 *         chosen and printed in the report.
+	 */
+	public static void main(String[] args) throws IOException {
+		long seed = new Random().nextLong();
+		if (args.length >= 2 && args[0].equals("--seed")) {
+			seed = Long.parseLong(args[1]);
+			args = Arrays.copyOfRange(args, 2, args.length);
+		}
+		if (args.length < 4) {
+			System.err.println("Usage: HeadlessRunner [--seed <seed>] <map> <units> <seconds> <timestep> [taskfile ...]");
+			System.exit(1);
+		}
+		long start = System.nanoTime();
+		HeadlessRunner runner;
+		try (Reader reader = new FileReader(args[0])) {
+			runner = new HeadlessRunner(readTerrain(reader), seed);
+		}
+		long loaded = System.nanoTime();
+		runner.spawnUnits(Integer.parseInt(args[1]), true);
+		long spawned = System.nanoTime();
+		Random random = new Random(seed);
+		if (args.length > 4) {
+			TaskSourceParser.warmUp();
+		}
+		for (int i = 4; i < args.length; i++) {
+			runner.loadTasks(args[i], runner.selectRandomCubes(1, random));
+		}
+		long parsed = System.nanoTime();
+		System.out.println(String.format("map: %.3f ms, spawn: %.3f ms, tasks: %.3f ms", (loaded - start) / 1e6,
+				(spawned - loaded) / 1e6, (parsed - spawned) / 1e6));
+		runner.run(Double.parseDouble(args[2]), Double.parseDouble(args[3]));
+		runner.printReport(System.out);
+	}
+
+}
@@ -0,0 +1,78 @@
+package hillbillies.simulation;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import hillbillies.model.Task;
+import hillbillies.part3.programs.TaskParser;
+import hillbillies.program.TaskFactory;
+import hillbillies.program.TaskSourceParser;
+
+/**
+ * A class comparing the time needed to parse the bundled tasks with the
+ * provided task parser and with the task source parser.
+ * 
+ * @author  Pieter-Jan Van den Broecke: EltCw
+ * 		    Emiel Vandeloo: WtkCw
+ * @version Final version Part 3: 20/05/2016
+ * 
+ * https://github.com/EmielVandeloo/Hillbillies.git
+ */
+public class ParserBenchmark {
+	
+	/**
+	 * Return the average time, in microseconds, the given parser needs to parse
+	 * all of the given sources once.
+	 * 
+	 * @param  sources
+	 *         The sources to parse.
+	 * @param  parser
+	 *         The parser to measure.
+	 * @param  nbRounds
+	 *         The number of times to parse all sources.
+	 * @throws IllegalStateException
+	 *         One of the given sources could not be parsed.
+	 */
+	public static double measure(List<String> sources, Function<String, List<Task>> parser, int nbRounds) 
+			throws IllegalStateException {
+		long start = System.nanoTime();
+		for (int i = 0; i < nbRounds; i++) {
+			for (String source : sources) {
+				if (parser.apply(source) == null) {
+					throw new IllegalStateException(source);
+				}
+			}
+		}
+		return (System.nanoTime() - start) / 1e3 / nbRounds;
+	}
+	
+	/**
+	 * Run the benchmark.
+	 * 
+	 * @param  args
+	 *         Optionally, the number of rounds to measure.
+	 */
+	public static void main(String[] args) throws IOException {
+		int nbRounds = (args.length > 0 ? Integer.parseInt(args[0]) : 2000);
+		List<String> sources = new ArrayList<>();
+		for (String filename : TaskSourceParser.BUNDLED_TASKS) {
+			sources.add(TaskSourceParser.readSource(filename));
+		}
+		Function<String, List<Task>> provided = 
+				source -> TaskParser.parseTasksFromString(source, new TaskFactory(), new ArrayList<int[]>());
+		Function<String, List<Task>> fast = 
+				source -> TaskSourceParser.parse(source, new TaskFactory(), new ArrayList<int[]>());
+		
+		long start = System.nanoTime();
+		TaskSourceParser.warmUp();
+		System.out.println(String.format("warm-up: %.3f ms", (System.nanoTime() - start) / 1e6));
+		measure(sources, provided, nbRounds / 10 + 1);
+		measure(sources, fast, nbRounds / 10 + 1);
+		System.out.println(String.format("%d sources, %d rounds", sources.size(), nbRounds));
+		System.out.println(String.format("  provided parser: %10.1f us/round", measure(sources, provided, nbRounds)));
+		System.out.println(String.format("  source parser:   %10.1f us/round", measure(sources, fast, nbRounds)));
+	}
+
+}
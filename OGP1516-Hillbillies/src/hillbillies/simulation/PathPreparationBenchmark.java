@@ -0,0 +1,127 @@
+package hillbillies.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import hillbillies.model.Unit;
+import hillbillies.model.World;
+import hillbillies.part2.listener.DefaultTerrainChangeListener;
+import hillbillies.world.Cube;
+import hillbillies.world.Position;
+
+/**
+ * A class comparing the time a world needs to advance its time with and
+ * without letting its units prepare their paths, in a world whose terrain
+ * keeps changing while its units walk through it.
+ * 
+ * @author  Pieter-Jan Van den Broecke: EltCw
+ * 		    Emiel Vandeloo: WtkCw
+ * @version Final version Part 3: 20/05/2016
+ * 
+ * https://github.com/EmielVandeloo/Hillbillies.git
+ */
+public class PathPreparationBenchmark {
+	
+	/**
+	 * The size of the square world in which the units walk.
+	 */
+	private static final int SIZE = 64;
+	
+	/**
+	 * Create a world of rock and air cubes, holding the given number of units
+	 * that walk to random positions.
+	 * 
+	 * @param  nbUnits
+	 *         The number of units to add.
+	 * @param  seed
+	 *         The seed of the terrain, the units and their objectives.
+	 * @param  isPreparingPaths
+	 *         Whether the units of the new world prepare their paths.
+	 */
+	public static World createWorld(int nbUnits, long seed, boolean isPreparingPaths) {
+		Random random = new Random(seed);
+		int[][][] types = new int[SIZE][SIZE][1];
+		for (int x = 1; x < SIZE; x++) {
+			for (int y = 1; y < SIZE; y++) {
+				if (random.nextInt(5) == 0) {
+					types[x][y][0] = 1;
+				}
+			}
+		}
+		World world = new World(types, new DefaultTerrainChangeListener(), seed);
+		world.setPreparingPaths(isPreparingPaths);
+		world.setPopulationLimits(nbUnits, 5, nbUnits);
+		while (world.getAllUnits().size() < nbUnits) {
+			int x = 1 + random.nextInt(SIZE - 1);
+			int y = 1 + random.nextInt(SIZE - 1);
+			if (types[x][y][0] == 0) {
+				Unit unit = new Unit(new int[] {x, y, 0}, "Walker", 50, 50, 50, 50, false);
+				world.addUnit(unit);
+			}
+		}
+		for (Unit unit : world.getAllUnits()) {
+			orderMove(unit, random);
+		}
+		return world;
+	}
+	
+	/**
+	 * Order the given unit to move to a random position of its world.
+	 */
+	private static void orderMove(Unit unit, Random random) {
+		unit.moveTo(new Position(1 + random.nextInt(SIZE - 1), 1 + random.nextInt(SIZE - 1), 0));
+	}
+	
+	/**
+	 * Return the average time, in milliseconds, the given world needs to advance
+	 * its time by a tenth of a second.
+	 * 
+	 * @param  world
+	 *         The world to advance.
+	 * @param  nbTicks
+	 *         The number of time steps to measure.
+	 * @param  seed
+	 *         The seed of the objectives given to units that reached theirs.
+	 * @note   Every twentieth time step, the cube at the origin of the world changes,
+	 *         which outdates the path of every walking unit.
+	 */
+	public static double measure(World world, int nbTicks, long seed) {
+		Random random = new Random(seed);
+		List<Unit> units = new ArrayList<>(world.getAllUnits());
+		long start = System.nanoTime();
+		for (int i = 0; i < nbTicks; i++) {
+			if (i % 20 == 0) {
+				world.setAt(new Position(0, 0, 0), (i % 40 == 0 ? Cube.ROCK : Cube.AIR));
+			}
+			world.advanceTime(0.1);
+			for (Unit unit : units) {
+				if (! unit.isMoving()) {
+					orderMove(unit, random);
+				}
+			}
+		}
+		return (System.nanoTime() - start) / 1e6 / nbTicks;
+	}
+	
+	/**
+	 * Run the benchmark.
+	 * 
+	 * @param  args
+	 *         Optionally, the number of units and the number of time steps to measure.
+	 */
+	public static void main(String[] args) {
+		int nbUnits = (args.length > 0 ? Integer.parseInt(args[0]) : 200);
+		int nbTicks = (args.length > 1 ? Integer.parseInt(args[1]) : 300);
+		measure(createWorld(nbUnits, 1L, false), nbTicks / 10 + 1, 2L);
+		measure(createWorld(nbUnits, 1L, true), nbTicks / 10 + 1, 2L);
+		System.out.println(String.format("%d units, %d ticks, %d processors", nbUnits, nbTicks,
+				Runtime.getRuntime().availableProcessors()));
+		double serial = measure(createWorld(nbUnits, 1L, false), nbTicks, 2L);
+		double prepared = measure(createWorld(nbUnits, 1L, true), nbTicks, 2L);
+		System.out.println(String.format("  serial paths:   %10.3f ms/tick", serial));
+		System.out.println(String.format("  prepared paths: %10.3f ms/tick", prepared));
+		System.out.println(String.format("  speedup:        %10.2fx", serial / prepared));
+	}
+
+}
@@ -0,0 +1,100 @@
+package hillbillies.simulation;
+
+import java.util.SplittableRandom;
+
+import hillbillies.model.World;
+import hillbillies.part2.listener.DefaultTerrainChangeListener;
+
+/**
+ * A class measuring how the time a world needs to advance its time grows with
+ * the number of active units in that world.
+ * 
+ * @author  Pieter-Jan Van den Broecke: EltCw
+ * 		    Emiel Vandeloo: WtkCw
+ * @version Final version Part 3: 20/05/2016
+ * 
+ * https://github.com/EmielVandeloo/Hillbillies.git
+ */
+public class PopulationBenchmark {
+	
+	/**
+	 * The size of the square world in which the units live.
+	 */
+	public static final int SIZE = 96;
+	
+	/**
+	 * The number of factions over which the units are spread.
+	 */
+	public static final int NB_FACTIONS = 20;
+	
+	/**
+	 * The time step by which the worlds are advanced.
+	 */
+	public static final double TICK = 0.1;
+	
+	/**
+	 * Create a world of rooms of 7x7 cubes separated by rock walls, in which some
+	 * cubes hold trees, with the given number of units performing default behaviour.
+	 * 
+	 * @param  nbUnits
+	 *         The number of units to add.
+	 * @param  seed
+	 *         The seed of the terrain and of the new world.
+	 */
+	public static World createWorld(int nbUnits, long seed) {
+		SplittableRandom random = new SplittableRandom(seed);
+		int[][][] types = new int[SIZE][SIZE][1];
+		for (int x = 0; x < SIZE; x++) {
+			for (int y = 0; y < SIZE; y++) {
+				if (x % 8 == 0 || y % 8 == 0) {
+					types[x][y][0] = 1;
+				} else if (random.nextInt(20) == 0) {
+					types[x][y][0] = 2;
+				}
+			}
+		}
+		World world = new World(types, new DefaultTerrainChangeListener(), seed);
+		world.setPopulationLimits(nbUnits, NB_FACTIONS, (nbUnits + NB_FACTIONS - 1) / NB_FACTIONS);
+		world.createRandomUnits(nbUnits, true);
+		return world;
+	}
+	
+	/**
+	 * Return the average time, in milliseconds, the given world needs to advance
+	 * its time by one time step.
+	 * 
+	 * @param  world
+	 *         The world to advance.
+	 * @param  nbTicks
+	 *         The number of time steps to measure.
+	 */
+	public static double measure(World world, int nbTicks) {
+		long start = System.nanoTime();
+		for (int i = 0; i < nbTicks; i++) {
+			world.advanceTime(TICK);
+		}
+		return (System.nanoTime() - start) / 1e6 / nbTicks;
+	}
+	
+	/**
+	 * Run the benchmark.
+	 * 
+	 * @param  args
+	 *         Optionally, the number of time steps to measure.
+	 */
+	public static void main(String[] args) {
+		int nbTicks = (args.length > 0 ? Integer.parseInt(args[0]) : 50);
+		measure(createWorld(1000, 1L), nbTicks);
+		System.out.println(String.format("%d ticks of %.1f s", nbTicks, TICK));
+		double previous = 0;
+		for (int nbUnits = 100; nbUnits <= 10000; nbUnits *= 10) {
+			World world = createWorld(nbUnits, 1L);
+			measure(world, nbTicks / 10 + 1);
+			double time = measure(world, nbTicks);
+			String growth = (previous > 0 ? String.format(", %6.2fx the previous population", time / previous) : "");
+			System.out.println(String.format("%6d units: %10.3f ms/tick%s", nbUnits, time, growth));
+			previous = time;
+		}
+	}
+
+}
@@ -7,12 +7,13 @@ import hillbillies.program.Program;
 public class Assignment extends Statement {
 
 	private final String name;
+	private final int slot;
 	private final Expression<?> expression;
-	private boolean toBeExecuted = true;
 	
-	public Assignment(String name, Expression<?> expression, SourceLocation sl) {
+	public Assignment(String name, int slot, Expression<?> expression, SourceLocation sl) {
 		super(sl);
 		this.name = name;
+		this.slot = slot;
 		this.expression = expression;
 	}
 	
@@ -20,13 +21,17 @@ public class Assignment extends Statement {
 		return this.name;
 	}
 	
+	public int getSlot() {
+		return this.slot;
+	}
+	
 	public Expression<?> getExpression() {
 		return this.expression;
 	}
 	
 	@Override
 	public void perform(Program program) {
-		if (isToBeExecuted() && !program.hasStopped()) {
+		if (isToBeExecuted(program) && !program.hasStopped()) {
 			if (program.hasTimeForStatement()) {
 				Object valueToSet;
 				try {
@@ -36,10 +41,10 @@ public class Assignment extends Statement {
 					return;
 				}
 				program.decreaseTimerOneUnit();
-				program.putGlobalVariable(getName(), valueToSet);
-				setToBeExecuted(false);
+				program.writeVariable(getSlot(), valueToSet);
+				setToBeExecuted(program, false);
 				if (isPartOfQueue()) {
-					((Queue) getQueueStatement()).setIndex(((Queue) getQueueStatement()).getIndex()+1);
+					((Queue) getQueueStatement()).advance(program);
 				}
 			} else {
 				program.setTimeDepleted(true);
@@ -48,18 +53,8 @@ public class Assignment extends Statement {
 	}
 	
 	@Override
-	public boolean isToBeExecuted() {
-		return this.toBeExecuted;
-	}
-	
-	@Override
-	public void setToBeExecuted(boolean toBeExecuted) {
-		this.toBeExecuted = toBeExecuted;
-	}
-
-	@Override
-	public void resetAll() {
-		setToBeExecuted(true);
+	public void resetAll(Program program) {
+		setToBeExecuted(program, true);
 	}
 	
 	@Override
@@ -11,17 +11,16 @@ public class Break extends Statement {
 
 	@Override
 	public void perform(Program program) {
-		if (isToBeExecuted() && !program.hasStopped()) {
+		if (isToBeExecuted(program) && !program.hasStopped()) {
 			if (program.hasTimeForStatement()) {
 				program.decreaseTimerOneUnit();
-				setToBeExecuted(false);
+				setToBeExecuted(program, false);
 				if (isPartOfQueue()) {
-					getQueueStatement().setToBeExecuted(false);
+					getQueueStatement().setToBeExecuted(program, false);
 				}
-				getLoopStatement().setToBeExecuted(false);
+				getLoopStatement().setToBeExecuted(program, false);
 				if (getLoopStatement().isPartOfQueue()) {
-					((Queue) getLoopStatement().getQueueStatement()).
-						setIndex(((Queue) getLoopStatement().getQueueStatement()).getIndex()+1);
+					((Queue) getLoopStatement().getQueueStatement()).advance(program);
 				}
 			} else {
 				program.setTimeDepleted(true);
@@ -35,8 +34,8 @@ public class Break extends Statement {
 	}
 
 	@Override
-	public void resetAll() {
-		setToBeExecuted(true);
+	public void resetAll(Program program) {
+		setToBeExecuted(program, true);
 	}
 	
 	@Override
@@ -6,26 +6,18 @@ import hillbillies.program.Program;
 
 public class Conditional extends Statement {
 
-	private Expression<Boolean> expression;
-	private Statement ifStatement;
-	private Statement elseStatement;
-	private boolean toBeExecuted = true;
-	private boolean performAgain = false;
+	private final Expression<Boolean> expression;
+	private final Statement ifStatement;
+	private final Statement elseStatement;
 	
 	public Conditional(Expression<Boolean> expression, Statement ifStatement, Statement elseStatement, SourceLocation sl) 
 			throws IllegalArgumentException {
 		super(sl);
-		setExpression(expression);
-		if (ifStatement == null) {
-			setIfStatement(new Void(sl));
-		} else {
-			setIfStatement(ifStatement);
-		}
-		if (elseStatement == null) {
-			setElseStatement(new Void(sl));
-		} else {
-			setElseStatement(elseStatement);
-		}
+		this.expression = expression;
+		this.ifStatement = (ifStatement == null ? new Void(sl) : ifStatement);
+		this.elseStatement = (elseStatement == null ? new Void(sl) : elseStatement);
+		this.ifStatement.setNestingStatement(this);
+		this.elseStatement.setNestingStatement(this);
 	}
 	
 	public Conditional(Expression<Boolean> expression, Statement ifStatement, SourceLocation sl) 
@@ -36,47 +28,33 @@ public class Conditional extends Statement {
 	public Expression<Boolean> getExpression() {
 		return this.expression;
 	}
-	
-	public void setExpression(Expression<Boolean> expression) {
-		this.expression = expression;
-	}
 
 	public Statement getIfStatement() {
 		return this.ifStatement;
 	}
 	
-	public void setIfStatement(Statement ifStatement) {
-		this.ifStatement = ifStatement;
-		ifStatement.setNestingStatement(this);
-	}
-	
 	public Statement getElseStatement() {
 		return this.elseStatement;
 	}
-	
-	public void setElseStatement(Statement elseStatement) {
-		this.elseStatement = elseStatement;
-		elseStatement.setNestingStatement(this);
-	}
 
 	@Override
 	public void perform(Program program) {
-		if (isToBeExecuted() && !program.hasStopped()) {
+		if (isToBeExecuted(program) && !program.hasStopped()) {
 			if (program.hasTimeForStatement()) {
 				program.decreaseTimerOneUnit();
 				if (getExpression().evaluate(program) == true) {
-					setPerformAgain(true);
+					setPerformAgain(program, true);
 					getIfStatement().perform(program);
-					getElseStatement().setToBeExecuted(false);
-				} else if (performAgain()) {
+					getElseStatement().setToBeExecuted(program, false);
+				} else if (performAgain(program)) {
 					getIfStatement().perform(program);
-					getElseStatement().setToBeExecuted(false);		
+					getElseStatement().setToBeExecuted(program, false);		
 					if (!program.getUnit().cannotStartAction()) {
-						setPerformAgain(false);
+						setPerformAgain(program, false);
 					}
 				} else {
 					getElseStatement().perform(program);
-					getIfStatement().setToBeExecuted(false);
+					getIfStatement().setToBeExecuted(program, false);
 				}
 			} else {
 				program.setTimeDepleted(true);
@@ -84,36 +62,31 @@ public class Conditional extends Statement {
 		}
 	}
 	
-	public boolean performAgain() {
-		return this.performAgain;
+	public boolean performAgain(Program program) {
+		return getRecord(program).performAgain();
 	}
 	
-	public void setPerformAgain(boolean performAgain) {
-		this.performAgain = performAgain;
+	public void setPerformAgain(Program program, boolean performAgain) {
+		getRecord(program).setPerformAgain(performAgain);
 	}
 
 	@Override
-	public void setToBeExecuted(boolean toBeExecuted) {
-		this.toBeExecuted = toBeExecuted;
-		setPerformAgain(false);
+	public void setToBeExecuted(Program program, boolean toBeExecuted) {
+		super.setToBeExecuted(program, toBeExecuted);
+		setPerformAgain(program, false);
 		if (isPartOfQueue() && toBeExecuted == false) {
-			((Queue) getQueueStatement()).setIndex(((Queue) getQueueStatement()).getIndex()+1);
+			((Queue) getQueueStatement()).advance(program);
 		}
-		getIfStatement().setToBeExecuted(toBeExecuted);
-		getElseStatement().setToBeExecuted(toBeExecuted);
-	}
-	
-	@Override
-	public boolean isToBeExecuted() {
-		return this.toBeExecuted;
+		getIfStatement().setToBeExecuted(program, toBeExecuted);
+		getElseStatement().setToBeExecuted(program, toBeExecuted);
 	}
 	
 	@Override
-	public void resetAll() {
-		setToBeExecuted(true);
-		setPerformAgain(false);
-		getIfStatement().resetAll();
-		getElseStatement().resetAll();
+	public void resetAll(Program program) {
+		setToBeExecuted(program, true);
+		setPerformAgain(program, false);
+		getIfStatement().resetAll(program);
+		getElseStatement().resetAll(program);
 	}
 	
 	@Override
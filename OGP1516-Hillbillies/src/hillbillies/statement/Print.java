@@ -6,8 +6,7 @@ import hillbillies.program.Program;
 
 public class Print extends Statement {
 	
-	private Expression<?> expression;
-	private boolean toBeExecuted = true;
+	private final Expression<?> expression;
 	
 	public Print(Expression<?> value, SourceLocation sl) throws IllegalArgumentException {
 		super(sl);
@@ -18,22 +17,18 @@ public class Print extends Statement {
 		return this.expression;
 	}
 	
-	public void setExpression(Expression<?> expr) {
-		this.expression = expr;
-	}
-	
 	@Override
 	public void perform(Program program) {
-		if (isToBeExecuted() && !program.hasStopped()) {
+		if (isToBeExecuted(program) && !program.hasStopped()) {
 			if (program.hasTimeForStatement()) {
 				program.decreaseTimerOneUnit();
 				System.out.println(getExpression().evaluate(program).toString());
-				setToBeExecuted(false);
+				setToBeExecuted(program, false);
 				if (isPartOfQueue()) {
-					((Queue) getQueueStatement()).setIndex(((Queue) getQueueStatement()).getIndex()+1);
+					((Queue) getQueueStatement()).advance(program);
 				} else {
 					try {
-						getNestingStatement().setToBeExecuted(false);
+						getNestingStatement().setToBeExecuted(program, false);
 					} catch (NullPointerException e) {}
 				}
 			} else {
@@ -43,18 +38,8 @@ public class Print extends Statement {
 	}
 	
 	@Override
-	public boolean isToBeExecuted() {
-		return this.toBeExecuted;
-	}
-	
-	@Override
-	public void setToBeExecuted(boolean toBeExecuted) {
-		this.toBeExecuted = toBeExecuted;
-	}
-
-	@Override
-	public void resetAll() {
-		setToBeExecuted(true);
+	public void resetAll(Program program) {
+		setToBeExecuted(program, true);
 	}
 	
 	@Override
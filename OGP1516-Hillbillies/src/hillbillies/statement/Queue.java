@@ -1,6 +1,7 @@
 package hillbillies.statement;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import hillbillies.part3.programs.SourceLocation;
 import hillbillies.program.Program;
@@ -8,53 +9,38 @@ import hillbillies.statement.repetitive.Repetitive;
 
 public class Queue extends Statement {
 
-	private List<Statement> statements = new ArrayList<>();
-	private boolean toBeExecuted = true;
-	private int index = 0;
+	private final List<Statement> statements;
 
 	public Queue(List<Statement> statements, SourceLocation sl) throws IllegalArgumentException {
 		super(sl);
-		setStatements(statements);
+		if (statements == null) {
+			throw new IllegalArgumentException();
+		}
+		this.statements = Collections.unmodifiableList(new ArrayList<>(statements));
+		for (Statement statement : statements) {
+			statement.setNestingStatement(this);
+		}
 	}
 	
 	public List<Statement> getStatements() {
 		return this.statements;
 	}
-	
-	public void setStatements(List<Statement> statements){
-		this.statements = statements;
-		if (statements != null) {
-			for (Statement statement : statements) {
-				statement.setNestingStatement(this);
-			}
-		}
-	}
 
 	@Override
 	public void perform(Program program) {
-		if (isToBeExecuted() && !program.hasStopped()) {
-			getStatements().get(getIndex()).perform(program);
-			if (getIndex() == getStatements().size()) {
-				setToBeExecuted(false);
+		if (isToBeExecuted(program) && !program.hasStopped()) {
+			getStatements().get(getIndex(program)).perform(program);
+			if (getIndex(program) == getStatements().size()) {
+				setToBeExecuted(program, false);
 				if (getNestingStatement() instanceof Conditional) {
-					getNestingStatement().setToBeExecuted(false);
+					getNestingStatement().setToBeExecuted(program, false);
 				} else if (getNestingStatement() instanceof Repetitive) {
-					getNestingStatement().resetAll();
+					getNestingStatement().resetAll(program);
 				}
 			}
 		}
 	}
 	
-	@Override
-	public boolean isToBeExecuted() {
-		return this.toBeExecuted;
-	}
-	
-	@Override
-	public void setToBeExecuted(boolean toBeExecuted) {
-		this.toBeExecuted = toBeExecuted;
-	}
-	
 	@Override
 	public String toString() {
 		String string = new String();
@@ -65,20 +51,24 @@ public class Queue extends Statement {
 		return string;
 	}
 	
-	public int getIndex() {
-		return this.index;
+	public int getIndex(Program program) {
+		return getRecord(program).getIndex();
+	}
+	
+	public void setIndex(Program program, int index) {
+		getRecord(program).setIndex(index);
 	}
 	
-	public void setIndex(int index) {
-		this.index = index;
+	public void advance(Program program) {
+		setIndex(program, getIndex(program) + 1);
 	}
 	
 	@Override
-	public void resetAll() {
-		setToBeExecuted(true);
-		setIndex(0);
+	public void resetAll(Program program) {
+		setToBeExecuted(program, true);
+		setIndex(program, 0);
 		for (Statement statement : getStatements()) {
-			statement.resetAll();
+			statement.resetAll(program);
 		}
 	}
 	
@@ -1,17 +1,25 @@
 package hillbillies.statement;
 
 import hillbillies.part3.programs.SourceLocation;
+import hillbillies.program.ActivationRecord;
 import hillbillies.program.Program;
 import hillbillies.statement.repetitive.Repetitive;
 
+/**
+ * A class of statements of a task.
+ * 
+ * @note   A statement never changes once the task it belongs to is built. All
+ *         state of its execution is kept in the activation record of the
+ *         statement in the executing program, so one statement can be executed
+ *         by many programs at once.
+ */
 public abstract class Statement {
 	
-	private SourceLocation sourceLocation;
+	private final SourceLocation sourceLocation;
 	private Statement nestingStatement = null;
-	private boolean toBeExecuted = true;
 	
 	public Statement(SourceLocation sourceLocation){
-		setSourceLocation(sourceLocation);
+		this.sourceLocation = sourceLocation;
 	}
 	
 	public Statement(){
@@ -22,23 +30,26 @@ public abstract class Statement {
 		return this.sourceLocation;
 	}
 	
-	public void setSourceLocation(SourceLocation sourceLocation){
-		this.sourceLocation = sourceLocation;
+	protected ActivationRecord getRecord(Program program) {
+		return program.getRecordOf(this);
 	}
 	
-	public boolean isToBeExecuted() {
-		return this.toBeExecuted;
+	public boolean isToBeExecuted(Program program) {
+		return getRecord(program).isToBeExecuted();
 	}
 
-	public void setToBeExecuted(boolean toBeExecuted) {
-		this.toBeExecuted = toBeExecuted;
+	public void setToBeExecuted(Program program, boolean toBeExecuted) {
+		getRecord(program).setToBeExecuted(toBeExecuted);
 	}
 	
 	public Statement getNestingStatement() {
 		return this.nestingStatement;
 	}
 
-	public void setNestingStatement(Statement nestingStatement) {
+	public void setNestingStatement(Statement nestingStatement) throws IllegalStateException {
+		if (this.nestingStatement != null && this.nestingStatement != nestingStatement) {
+			throw new IllegalStateException();
+		}
 		this.nestingStatement = nestingStatement;
 	}
 	
@@ -84,6 +95,6 @@ public abstract class Statement {
 		
 	public abstract void perform(Program program);
 	
-	public abstract void resetAll();
+	public abstract void resetAll(Program program);
 
 }
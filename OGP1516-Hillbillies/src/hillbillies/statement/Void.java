@@ -5,7 +5,6 @@ import hillbillies.program.Program;
 
 public class Void extends Statement {
 
-	private boolean toBeExecuted = true;
 	
 	public Void(SourceLocation sl) {
 		super(sl);
@@ -13,13 +12,13 @@ public class Void extends Statement {
 
 	@Override
 	public void perform(Program program) {
-		if (isToBeExecuted() && !program.hasStopped()) {
-			setToBeExecuted(false);
+		if (isToBeExecuted(program) && !program.hasStopped()) {
+			setToBeExecuted(program, false);
 			if (isPartOfQueue()) {
-				((Queue) getQueueStatement()).setIndex(((Queue) getQueueStatement()).getIndex()+1);
+				((Queue) getQueueStatement()).advance(program);
 			} else {
 				try {
-					getNestingStatement().setToBeExecuted(false);
+					getNestingStatement().setToBeExecuted(program, false);
 				} catch (NullPointerException e) {}
 			}	
 		}
@@ -31,18 +30,8 @@ public class Void extends Statement {
 	}
 	
 	@Override
-	public boolean isToBeExecuted() {
-		return this.toBeExecuted;
-	}
-	
-	@Override
-	public void setToBeExecuted(boolean toBeExecuted) {
-		this.toBeExecuted = toBeExecuted;
-	}
-
-	@Override
-	public void resetAll() {
-		setToBeExecuted(true);
+	public void resetAll(Program program) {
+		setToBeExecuted(program, true);
 	}
 	
 	@Override
@@ -1,7 +1,11 @@
 package hillbillies.statement.action;
 
 import hillbillies.part3.programs.SourceLocation;
+import hillbillies.program.Program;
+import hillbillies.statement.Conditional;
+import hillbillies.statement.Queue;
 import hillbillies.statement.Statement;
+import hillbillies.statement.repetitive.Repetitive;
 
 public abstract class Action extends Statement {
 	
@@ -9,6 +13,51 @@ public abstract class Action extends Statement {
 		super(sl);
 	}
 	
+	public abstract void start(Program program);
+	
+	public abstract boolean isFinished(Program program);
+	
+	public boolean isRestartedUntilFinished() {
+		return false;
+	}
+	
+	@Override
+	public void perform(Program program) {
+		startIfToBeExecuted(program);
+		if (isFinished(program)) {
+			leave(program);
+		}
+	}
+	
+	protected void startIfToBeExecuted(Program program) {
+		if (isToBeExecuted(program) && !program.hasStopped()) {
+			if (program.hasTimeForStatement()) {
+				program.decreaseTimerOneUnit();
+				start(program);
+				setToBeExecuted(program, false);
+			} else {
+				program.setTimeDepleted(true);
+			}
+		}
+	}
+	
+	protected void leave(Program program) {
+		if (isPartOfQueue()) {
+			((Queue) getQueueStatement()).advance(program);
+		} else {
+			if (getNestingStatement() instanceof Repetitive) {
+				getNestingStatement().resetAll(program);
+			} else if (getNestingStatement() instanceof Conditional) {
+				getNestingStatement().setToBeExecuted(program, false);
+			}
+		}
+	}
+	
+	@Override
+	public void resetAll(Program program) {
+		setToBeExecuted(program, true);
+	}
+	
 	public boolean isWellFormed() {
 		return true;
 	}
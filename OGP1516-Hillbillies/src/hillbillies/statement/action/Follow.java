@@ -3,77 +3,70 @@ package hillbillies.statement.action;
 import hillbillies.expression.Expression;
 import hillbillies.model.Unit;
 import hillbillies.part3.programs.SourceLocation;
+import hillbillies.program.ActivationRecord;
 import hillbillies.program.Program;
 import hillbillies.statement.Conditional;
-import hillbillies.statement.Queue;
 import hillbillies.statement.repetitive.Repetitive;
 import hillbillies.world.Position;
 
 public class Follow extends Action {
 
-	private Expression<Unit> expression;
-	private Unit unitToFollow = null;
-	Position positionToMoveTo = null;
+	private final Expression<Unit> expression;
 	
 	public Follow(Expression<Unit> expression, SourceLocation sl) {
 		super(sl);
-		setExpression(expression);
+		this.expression = expression;
 	}
 
 	public Expression<Unit> getExpression() {
 		return this.expression;
 	}
 	
-	public void setExpression(Expression<Unit> expression) {
-		this.expression = expression;
+	@Override
+	public void start(Program program) {
+		ActivationRecord record = getRecord(program);
+		if (record.getTargetUnit() == null) {
+			Unit unitToFollow = getExpression().evaluate(program);
+			if (unitToFollow == null) {
+				program.interrupt();
+				return;
+			}
+			record.setTargetUnit(unitToFollow);
+		}
+		record.setTargetPosition(record.getTargetUnit().getPosition().getCenterPosition());
+		program.getUnit().moveTo(record.getTargetPosition());
+		if (!program.getUnit().isMoving()) {
+			program.interrupt();
+		}
+	}
+	
+	@Override
+	public boolean isFinished(Program program) {
+		ActivationRecord record = getRecord(program);
+		return program.getUnit().getPosition().equals(record.getTargetPosition()) &&
+				Position.isAdjacentToOrSame(program.getUnit().getPosition(), record.getTargetUnit().getPosition());
+	}
+	
+	@Override
+	public boolean isRestartedUntilFinished() {
+		return true;
 	}
 	
 	@Override
 	public void perform(Program program) {
-		if (isToBeExecuted() && !program.hasStopped()) {
-			if (program.hasTimeForStatement()) {
-				program.decreaseTimerOneUnit();
-				if (unitToFollow == null) {
-					if (getExpression().evaluate(program) == null) {
-						program.interrupt();
-					}
-					unitToFollow = getExpression().evaluate(program);
-				}
-				positionToMoveTo = unitToFollow.getPosition().getCenterPosition();
-				program.getUnit().moveTo(positionToMoveTo);
-				if (!program.getUnit().isMoving()) {
-					program.interrupt();
-				}
-				setToBeExecuted(false);
-			} else {
-				program.setTimeDepleted(true);
-			}
-		}
-		if (program.getUnit().getPosition().equals(positionToMoveTo)) {
-			if (Position.isAdjacentToOrSame(program.getUnit().getPosition(), unitToFollow.getPosition())) {
-				if (isPartOfQueue()) {
-					((Queue) getQueueStatement()).setIndex(((Queue) getQueueStatement()).getIndex()+1);
-				} else {
-					if (getNestingStatement() instanceof Repetitive) {
-						getNestingStatement().resetAll();
-					} else if (getNestingStatement() instanceof Conditional) {
-						getNestingStatement().setToBeExecuted(false);
-					}
-				}
-			} else {
-				setToBeExecuted(true);
-				if (isPartOfQueue()) {
-					// Do nothing
-				} else {
-					if (getNestingStatement() instanceof Repetitive) {
-						getNestingStatement().resetAll();
-					} else if (getNestingStatement() instanceof Conditional) {
-						getNestingStatement().setToBeExecuted(true);
-					}
+		startIfToBeExecuted(program);
+		if (isFinished(program)) {
+			leave(program);
+		} else {
+			setToBeExecuted(program, true);
+			if (!isPartOfQueue() && 
+					program.getUnit().getPosition().equals(getRecord(program).getTargetPosition())) {
+				if (getNestingStatement() instanceof Repetitive) {
+					getNestingStatement().resetAll(program);
+				} else if (getNestingStatement() instanceof Conditional) {
+					getNestingStatement().setToBeExecuted(program, true);
 				}
 			}
-		} else {
-			setToBeExecuted(true);
 		}
 	}
 	
@@ -82,9 +75,4 @@ public class Follow extends Action {
 		return "Follow " + getExpression().toString();
 	}
 
-	@Override
-	public void resetAll() {
-		setToBeExecuted(true);
-	}
-
 }
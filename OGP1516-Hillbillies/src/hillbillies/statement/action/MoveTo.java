@@ -3,80 +3,43 @@ package hillbillies.statement.action;
 import hillbillies.expression.Expression;
 import hillbillies.part3.programs.SourceLocation;
 import hillbillies.program.Program;
-import hillbillies.statement.Conditional;
-import hillbillies.statement.Queue;
-import hillbillies.statement.repetitive.Repetitive;
 import hillbillies.world.Position;
 
 public class MoveTo extends Action {
 
-	private Expression<Position> expression;
-	private Position targetCube = null;
-	private boolean toBeExecuted = true;
+	private final Expression<Position> expression;
 	
 	public MoveTo(Expression<Position> expression, SourceLocation sl) {
 		super(sl);
-		setExpression(expression);
+		this.expression = expression;
 	}
 
 	public Expression<Position> getExpression() {
 	    return this.expression;
 	}
 	
-	public void setExpression(Expression<Position> expression) {
-		this.expression = expression;
-	}
-	
 	@Override
-	public void perform(Program program) {
-		if (isToBeExecuted() && !program.hasStopped()) {
-			if (program.hasTimeForStatement()) {
-				program.decreaseTimerOneUnit();
-				this.targetCube = getExpression().evaluate(program);
-				try {
-					program.getUnit().moveTo(targetCube);
-					if (!program.getUnit().isMoving()) {
-						program.interrupt();
-					}
-				} catch (IllegalArgumentException e) {
-					program.interrupt();
-				}
-				setToBeExecuted(false);	
-			} else {
-				program.setTimeDepleted(true);
+	public void start(Program program) {
+		getRecord(program).setTargetPosition(getExpression().evaluate(program));
+		try {
+			program.getUnit().moveTo(getRecord(program).getTargetPosition());
+			if (!program.getUnit().isMoving()) {
+				program.interrupt();
 			}
+		} catch (IllegalArgumentException e) {
+			program.interrupt();
 		}
-		if (program.getUnit().getPosition().equals(targetCube.getCenterPosition())) {
-			if (isPartOfQueue()) {
-				((Queue) getQueueStatement()).setIndex(((Queue) getQueueStatement()).getIndex()+1);
-			} else {
-				if (getNestingStatement() instanceof Repetitive) {
-					getNestingStatement().resetAll();
-				} else if (getNestingStatement() instanceof Conditional) {
-					getNestingStatement().setToBeExecuted(false);
-				}
-			}
-		}
-	}
-	
-	@Override
-	public String toString() {
-		return "Move to " + getExpression().toString();
 	}
 	
 	@Override
-	public boolean isToBeExecuted() {
-		return this.toBeExecuted;
+	public boolean isFinished(Program program) {
+		Position targetCube = getRecord(program).getTargetPosition();
+		return (targetCube != null && program.getUnit().getPosition().equals(targetCube.getCenterPosition()));
 	}
 	
 	@Override
-	public void setToBeExecuted(boolean toBeExecuted) {
-		this.toBeExecuted = toBeExecuted;
-	}
-
-	@Override
-	public void resetAll() {
-		setToBeExecuted(true);
+	public String toString() {
+		return "Move to " + getExpression().toString();
 	}
 	
-}
\ No newline at end of file
+}
@@ -8,52 +8,40 @@ import hillbillies.statement.Statement;
 
 public class Loop extends Repetitive {
 
-	private Expression<Boolean> expression;
-	private Statement body;
-	private boolean toBeExecuted = true;
-	private boolean performAgain = false;
+	private final Expression<Boolean> expression;
+	private final Statement body;
 	
 	public Loop(Expression<Boolean> expression, Statement body, SourceLocation sl){
 		super(sl);
-		setExpression(expression);
-		setBody(body);
+		this.expression = expression;
+		this.body = body;
+		body.setNestingStatement(this);
 	}
 	
 	public Expression<Boolean> getExpression() {
 		return this.expression;
 	}
-	
-	public void setExpression(Expression<Boolean> expression) {
-		this.expression = expression;
-	}
 
 	public Statement getBody() {
 		return this.body;
 	}
-
-	public void setBody(Statement body) {
-		this.body = body;
-		body.setNestingStatement(this);
-	}
 	
 	public void perform(Program program){
-		if (isToBeExecuted() && !program.hasStopped()) {
+		if (isToBeExecuted(program) && !program.hasStopped()) {
 			if (program.hasTimeForStatement()) {				
 				program.decreaseTimerOneUnit();
 				if (getExpression().evaluate(program) == true) {
-					setPerformAgain(true);
-					getBody().setNestingStatement(this);
+					setPerformAgain(program, true);
 					getBody().perform(program);
-				} else if (performAgain()) {
-					getBody().setNestingStatement(this);
+				} else if (performAgain(program)) {
 					getBody().perform(program);
 					if (!program.getUnit().cannotStartAction()) {
-						setPerformAgain(false);
+						setPerformAgain(program, false);
 					}
 				} else {
-					setToBeExecuted(false);
+					setToBeExecuted(program, false);
 					if (isPartOfQueue()) {
-						((Queue) getQueueStatement()).setIndex(((Queue) getQueueStatement()).getIndex()+1);
+						((Queue) getQueueStatement()).advance(program);
 					}
 				}
 			} else {
@@ -61,33 +49,28 @@ public class Loop extends Repetitive {
 			}
 		}	
 	}
-	
-	@Override
-	public boolean isToBeExecuted() {
-		return this.toBeExecuted;
-	}
 
 	@Override
-	public void setToBeExecuted(boolean toBeExecuted) {
-		this.toBeExecuted = toBeExecuted;
+	public void setToBeExecuted(Program program, boolean toBeExecuted) {
+		super.setToBeExecuted(program, toBeExecuted);
 		if (getBody() != null) {
-			getBody().setToBeExecuted(toBeExecuted);
+			getBody().setToBeExecuted(program, toBeExecuted);
 		}
 	}
 	
-	public boolean performAgain() {
-		return this.performAgain;
+	public boolean performAgain(Program program) {
+		return getRecord(program).performAgain();
 	}
 	
-	public void setPerformAgain(boolean performAgain) {
-		this.performAgain = performAgain;
+	public void setPerformAgain(Program program, boolean performAgain) {
+		getRecord(program).setPerformAgain(performAgain);
 	}
 
 	@Override
-	public void resetAll() {
-		setPerformAgain(false);
-		setToBeExecuted(true);
-		getBody().resetAll();
+	public void resetAll(Program program) {
+		setPerformAgain(program, false);
+		setToBeExecuted(program, true);
+		getBody().resetAll(program);
 	}
 	
 	@Override
@@ -1,7 +1,6 @@
 package hillbillies.world;
 
 import java.util.ArrayList;
-import java.util.Random;
 
 import be.kuleuven.cs.som.annotate.Basic;
 import be.kuleuven.cs.som.annotate.Model;
@@ -403,64 +402,14 @@ public class Coordinate {
 		for (int i = -1; i < 2; i++) {
 			for (int j = -1; j < 2; j++) {
 				for (int k = -1; k < 2; k++) {
-
 					if (i != 0 || j != 0 || k != 0) {
-						try {
-							neighbours.add(this.add(X, i).add(Y, j).add(Z, k));
-						} catch (IllegalArgumentException e) {}
+						neighbours.add(new Coordinate(x + i, y + j, z + k));
 					}
 				}
 			}
 		}
 		return neighbours;
 	}
-
-	/**
-	 * Find a random position in a radius around this position.
-	 * 
-	 * @param  radius
-	 * 		   The radius around this position to search in.
-	 * 		   Must be 1 or more.
-	 * @return Return a random position.
-	 */
-	@Model @Raw
-	public Position getRandomPosition(int radius) throws IllegalArgumentException {
-		if (radius < 1) {
-			throw new IllegalArgumentException();
-		}
-
-		Random random = new Random();
-		Position spot = new Position();
-		double multiplier = random.nextInt(radius - 1) + 1;
-		while (true) {
-			try {
-				for (int i = 0; i < 3; i++) {
-					spot.setAt(i, this.getAt(i) + getRandomDirection() * multiplier);
-				}
-				return spot;
-			} catch (IllegalArgumentException e) {}
-		}
-	}
-
-	/**
-	 * Return a valid random direction.
-	 *  
-	 * @return A random integer with a value of -1, 0 or +1.
-	 *       | result == -1 || result == 0 || result == 1   
-	 */
-	@Model @Raw
-	private int getRandomDirection() {
-		Random random = new Random();
-		int nb = random.nextInt(3);
-
-		if (nb == 0) {
-			return X;
-		} else if (nb == 1) {
-			return Y;
-		} else {
-			return Z;
-		}
-	}
 	
 	// OVERRIDE
 	
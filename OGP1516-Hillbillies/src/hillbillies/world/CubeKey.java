@@ -0,0 +1,132 @@
+package hillbillies.world;
+
+/**
+ * A class of static helpers packing the integer coordinates of a cube in a
+ * single long, for use as a compact key in hot paths.
+ * 
+ * @note   Each coordinate takes 21 bits of the key, the x-coordinate being the
+ *         most significant. Keys of cubes with coordinates in the range
+ *         [0, MAX_COORDINATE] are unique, and sort in the order of their
+ *         x-, y- and z-coordinates.
+ *
+ * @author  Pieter-Jan Van den Broecke: EltCw
+ * 		    Emiel Vandeloo: WtkCw
+ * @version Final version Part 3: 20/05/2016
+ * 
+ * https://github.com/EmielVandeloo/Hillbillies.git
+ */
+public final class CubeKey {
+	
+	/**
+	 * Variable registering the number of bits of each coordinate in a key.
+	 */
+	private static final int BITS = 21;
+	
+	/**
+	 * Variable registering the mask selecting a single coordinate of a key.
+	 */
+	private static final long MASK = (1L << BITS) - 1;
+	
+	/**
+	 * Variable registering the highest coordinate that can be packed in a key.
+	 */
+	public static final int MAX_COORDINATE = (int) MASK;
+	
+	/**
+	 * Prevent the creation of cube keys as objects.
+	 */
+	private CubeKey() {
+	}
+	
+	/**
+	 * Check whether the given coordinate can be packed in a key.
+	 * 
+	 * @param  coordinate
+	 *         The coordinate to check.
+	 * @return True if and only if the given coordinate lies in the range
+	 *         [0, MAX_COORDINATE].
+	 *       | result == (coordinate >= 0 && coordinate <= MAX_COORDINATE)
+	 */
+	public static boolean isValidCoordinate(int coordinate) {
+		return coordinate >= 0 && coordinate <= MAX_COORDINATE;
+	}
+	
+	/**
+	 * Return the key of the cube with the given coordinates.
+	 * 
+	 * @param  x
+	 *         The x-coordinate of the cube.
+	 * @param  y
+	 *         The y-coordinate of the cube.
+	 * @param  z
+	 *         The z-coordinate of the cube.
+	 * @return A key from which the given coordinates can be retrieved.
+	 *       | x(result) == x && y(result) == y && z(result) == z
+	 * @throws IllegalArgumentException
+	 *         One of the given coordinates cannot be packed in a key.
+	 */
+	public static long of(int x, int y, int z) throws IllegalArgumentException {
+		if (! isValidCoordinate(x) || ! isValidCoordinate(y) || ! isValidCoordinate(z)) {
+			throw new IllegalArgumentException();
+		}
+		return ((long) x << (2 * BITS)) | ((long) y << BITS) | z;
+	}
+	
+	/**
+	 * Return the key of the cube at the given coordinate.
+	 * 
+	 * @param  coordinate
+	 *         The coordinate of the cube.
+	 * @return The key of the cube with the coordinates of the given coordinate.
+	 *       | result == of(coordinate.x(), coordinate.y(), coordinate.z())
+	 * @throws IllegalArgumentException
+	 *         The given coordinate is not effective, or cannot be packed in a key.
+	 */
+	public static long of(Coordinate coordinate) throws IllegalArgumentException {
+		if (coordinate == null) {
+			throw new IllegalArgumentException();
+		}
+		return of(coordinate.x(), coordinate.y(), coordinate.z());
+	}
+	
+	/**
+	 * Return the x-coordinate of the cube with the given key.
+	 */
+	public static int x(long key) {
+		return (int) ((key >>> (2 * BITS)) & MASK);
+	}
+	
+	/**
+	 * Return the y-coordinate of the cube with the given key.
+	 */
+	public static int y(long key) {
+		return (int) ((key >>> BITS) & MASK);
+	}
+	
+	/**
+	 * Return the z-coordinate of the cube with the given key.
+	 */
+	public static int z(long key) {
+		return (int) (key & MASK);
+	}
+	
+	/**
+	 * Return the coordinate of the cube with the given key.
+	 * 
+	 * @return A coordinate with the coordinates of the cube with the given key.
+	 *       | result.equals(new Coordinate(x(key), y(key), z(key)))
+	 */
+	public static Coordinate toCoordinate(long key) {
+		return new Coordinate(x(key), y(key), z(key));
+	}
+	
+	/**
+	 * Return the center position of the cube with the given key.
+	 * 
+	 * @return The position at the center of the cube with the given key.
+	 *       | result.equals(toCoordinate(key).toCenter())
+	 */
+	public static Position toCenter(long key) {
+		return new Position(x(key) + 0.5, y(key) + 0.5, z(key) + 0.5);
+	}
+}
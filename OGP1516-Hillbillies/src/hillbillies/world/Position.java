@@ -7,7 +7,10 @@ import hillbillies.model.World;
 import ogp.framework.util.Util;
 
 /**
- * A class of positions.
+ * A class of immutable positions.
+ * 
+ * @note   Positions never change after their creation, so they can be shared
+ *         freely between entities, paths and threads.
  * 
  * @author  Pieter-Jan Van den Broecke: EltCw
  * 		    Emiel Vandeloo: WtkCw
@@ -22,17 +25,17 @@ public class Position {
 	/**
 	 * Variable registering the x-coordinate of this position.
 	 */
-	private double x;
+	private final double x;
 
 	/**
 	 * Variable registering the y-coordinate of this position.
 	 */
-	private double y;
+	private final double y;
 
 	/**
 	 * Variable registering the z-coordinate of this position.
 	 */
-	private double z;
+	private final double z;
 	
 	/**
 	 * Variable registering the integer associated with the x-axis.
@@ -55,9 +58,10 @@ public class Position {
 	 * Create a new position at the minimum coordinates.
 	 *
 	 * @effect The new position was created for the minimum values.
+	 *       | this(0, 0, 0)
 	 */
 	public Position() {
-		//Do nothing.
+		this(0, 0, 0);
 	}
 
 	/**
@@ -69,15 +73,15 @@ public class Position {
 	 *         The y for this new position.
 	 * @param  z
 	 *         The z for this new position.                 
-	 * @effect The x of this new position is set to the given x.
-	 * @effect The y of this new position is set to the given y.
-	 * @effect The z of this new position is set to
+	 * @post   The x of this new position is equal to the given x.
+	 * @post   The y of this new position is equal to the given y.
+	 * @post   The z of this new position is equal to
 	 *         the given z.
 	 */
 	public Position(double x, double y, double z) {
-		this.setX(x);
-		this.setY(y);
-		this.setZ(z);
+		this.x = x;
+		this.y = y;
+		this.z = z;
 	}
 	
 	/**
@@ -114,42 +118,16 @@ public class Position {
 		return this.x;
 	}
 
-	/**
-	 * Set the x of this position to the given x.
-	 * 
-	 * @param  x
-	 *         The new x for this position.
-	 * @post   The x of this new position is equal to
-	 *         the given x.
-	 */
-	@Raw
-	public void setX(double x) {
-		this.x = x;
-	}
-
 	// Y-POSITION
 
 	/**
 	 * Return the y-coordinate of this position.
 	 */
 	@Basic @Raw
-	public Double getY() {
+	public double getY() {
 		return this.y;
 	}
 
-	/**
-	 * Set the y of this position to the given y.
-	 * 
-	 * @param  y
-	 *         The new y for this position.
-	 * @post   The y of this new position is equal to
-	 *         the given y.
-	 */
-	@Raw
-	public void setY(double y) {
-		this.y = y;
-	}
-
 	// Z-POSITION
 
 	/**
@@ -159,19 +137,6 @@ public class Position {
 	public double getZ() {
 		return this.z;
 	}
-
-	/**
-	 * Set the z of this position to the given z.
-	 * 
-	 * @param  z
-	 *         The new z for this position.
-	 * @post   The z of this new position is equal to
-	 *         the given z.
-	 */
-	@Raw
-	public void setZ(double z) {
-		this.z = z;
-	}
 	
 	/**
 	 * Check whether this position is valid.
@@ -193,19 +158,6 @@ public class Position {
 		return getX();
 	}
 
-	/**
-	 * Set the x of this position to the given x.
-	 * 
-	 * @param  x
-	 *         The new x for this position.
-	 * @effect The x of this new position is set to
-	 *         the given x.
-	 */
-	@Raw
-	public void x(double x) {
-		setX(x);
-	}
-
 	/**
 	 * Return the y-coordinate of this position.
 	 */
@@ -214,19 +166,6 @@ public class Position {
 		return getY();
 	}
 
-	/**
-	 * Set the y of this position to the given y.
-	 * 
-	 * @param  y
-	 *         The new y for this position.
-	 * @effect The y of this new position is set to
-	 *         the given y.
-	 */
-	@Raw
-	public void y(double y) {
-		setY(y);
-	}
-
 	/**
 	 * Return the z-coordinate of this position.
 	 */
@@ -235,19 +174,6 @@ public class Position {
 		return getZ();
 	}
 
-	/**
-	 * Set the z of this position to the given z.
-	 * 
-	 * @param  z
-	 *         The new z for this position.
-	 * @effect The z of this new position is equal to
-	 *         the given z.
-	 */
-	@Raw
-	public void z(double z) {
-		setZ(z);
-	}
-
 	// ABSTRACT POSITIONS
 
 	/**
@@ -270,28 +196,6 @@ public class Position {
 			throw new IndexOutOfBoundsException();
 		}
 	}
-
-	/**
-	 * Set the coordinate value in a certain direction.
-	 * 
-	 * @param  i
-	 * 		   The direction to set.
-	 * @param  value
-	 * 		   The value to set.
-	 * @throws IndexOutOfBoundsException
-	 * 		   The requested value doesn't exist in a 3-dimensional vector.
-	 */
-	public void setAt(int i, double value) throws IndexOutOfBoundsException {
-		if (i == 0) {
-			setX(value);
-		} else if (i == 1) {
-			setY(value);
-		} else if (i == 2) {
-			setZ(value);
-		} else {
-			throw new IndexOutOfBoundsException();
-		}
-	}
 	
 	/**
 	 * Add a given amount to this position in the given direction.
@@ -302,11 +206,36 @@ public class Position {
 	 *         The amount to add.
 	 * @return A position containing the current coordinates, with the given
 	 *         amount added in the given direction.
+	 * @throws IndexOutOfBoundsException
+	 * 		   The given direction doesn't exist in a 3-dimensional vector.
 	 */
 	public Position add(int i, double amount) {
-		Position position = new Position(convertToDoubleArray());
-		position.setAt(i, getAt(i) + amount);
-		return position;
+		if (i == X) {
+			return new Position(x + amount, y, z);
+		} else if (i == Y) {
+			return new Position(x, y + amount, z);
+		} else if (i == Z) {
+			return new Position(x, y, z + amount);
+		} else {
+			throw new IndexOutOfBoundsException();
+		}
+	}
+
+	/**
+	 * Return the position displaced from this position by the given amounts.
+	 * 
+	 * @param  dx
+	 *         The amount to add to the x-coordinate.
+	 * @param  dy
+	 *         The amount to add to the y-coordinate.
+	 * @param  dz
+	 *         The amount to add to the z-coordinate.
+	 * @return A position whose coordinates are the sums of the coordinates of
+	 *         this position and the given amounts.
+	 *       | result.equals(new Position(x() + dx, y() + dy, z() + dz))
+	 */
+	public Position add(double dx, double dy, double dz) {
+		return new Position(x + dx, y + dy, z + dz);
 	}
 
 	// CONVERSIONS
@@ -329,7 +258,17 @@ public class Position {
 	 * Convert this position to a coordinate object.
 	 */
 	public Coordinate convertToCoordinate() {
-		return new Coordinate(convertToIntegerArray());
+		return new Coordinate((int) x, (int) y, (int) z);
+	}
+
+	/**
+	 * Return the packed key of the cube this position occupies.
+	 * 
+	 * @return The key packing the coordinates of the cube of this position.
+	 *       | result == CubeKey.of((int) x(), (int) y(), (int) z())
+	 */
+	public long getCubeKey() {
+		return CubeKey.of((int) x, (int) y, (int) z);
 	}
 	
 	/**
@@ -374,12 +313,10 @@ public class Position {
 	 */
 	@Model
 	public Position getCenterPosition() {
-		int[] cubePosition = getCubePosition().convertToIntegerArray();
-		Position centerPosition = new Position(
-				cubePosition[0] + (double) World.CUBE_LENGTH / 2,
-				cubePosition[1] + (double) World.CUBE_LENGTH / 2,
-				cubePosition[2] + (double) World.CUBE_LENGTH / 2);
-		return centerPosition;
+		return new Position(
+				(int) x + (double) World.CUBE_LENGTH / 2,
+				(int) y + (double) World.CUBE_LENGTH / 2,
+				(int) z + (double) World.CUBE_LENGTH / 2);
 	}
 	
 	/**
@@ -390,7 +327,9 @@ public class Position {
 	 *         cube that contains this position.
 	 */
 	public boolean positionInCenter() {
-		return equals(getCenterPosition());
+		double half = (double) World.CUBE_LENGTH / 2;
+		return Util.fuzzyEquals(x, (int) x + half) && Util.fuzzyEquals(y, (int) y + half) &&
+				Util.fuzzyEquals(z, (int) z + half);
 	}
 	
 	/**
@@ -401,7 +340,7 @@ public class Position {
 	 * @return The given position coordinates, rounded down to integer values.
 	 */
 	public Position getCubePosition() {
-		return Position.convertToPosition(convertToIntegerArray());
+		return new Position((int) x, (int) y, (int) z);
 	}
 	
 	/**
@@ -411,7 +350,15 @@ public class Position {
 	 *         The object to compare with.
 	 * @return False if the given object is not effective or is no position.
 	 * @return True if and only if each coordinate of the position to test
-	 *         is equal to the respective coordinate of the position object to compare with.
+	 *         rounds to the same multiple of the default epsilon as the respective 
+	 *         coordinate of the position object to compare with.
+	 *       | result == (quantize(x()) == quantize(o.x()) && 
+	 *       |           quantize(y()) == quantize(o.y()) &&
+	 *       |           quantize(z()) == quantize(o.z()))
+	 * @note   Plain fuzzy comparison is not transitive, so no hash code could be
+	 *         consistent with it. Rounding to the grid of the default epsilon keeps
+	 *         positions that differ by rounding errors equal, while making equality
+	 *         an equivalence relation.
 	 */
 	@Override
 	public boolean equals(Object o) {
@@ -419,8 +366,31 @@ public class Position {
 			return false;
 		}
 		Position pos = (Position) o;
-		return Util.fuzzyEquals(x(), pos.x()) && Util.fuzzyEquals(y(), pos.y()) &&
-				Util.fuzzyEquals(z(), pos.z());
+		return quantize(x()) == quantize(pos.x()) && quantize(y()) == quantize(pos.y()) &&
+				quantize(z()) == quantize(pos.z());
+	}
+	
+	/**
+	 * Return the hash code of this position.
+	 * 
+	 * @return A hash code combining the rounded coordinates of this position,
+	 *         consistent with the equality of positions.
+	 */
+	@Override
+	public int hashCode() {
+		long hash = quantize(x());
+		hash = 31 * hash + quantize(y());
+		hash = 31 * hash + quantize(z());
+		return Long.hashCode(hash);
+	}
+	
+	/**
+	 * Return the given coordinate rounded to the nearest multiple of the
+	 * default epsilon, expressed in units of that epsilon.
+	 */
+	@Model
+	private static long quantize(double coordinate) {
+		return Math.round(coordinate / Util.DEFAULT_EPSILON);
 	}
 	
 	/**
@@ -433,10 +403,12 @@ public class Position {
 	
 	/**
 	 * Return a clone of this position.
+	 * 
+	 * @return This position, since positions are immutable.
 	 */
 	@Override
 	public Position clone() {
-		return new Position(convertToDoubleArray());
+		return this;
 	}
 
 	/**
@@ -455,16 +427,8 @@ public class Position {
 	 	 if (! current.isValid() || ! target.isValid()) {
 			 throw new IllegalArgumentException();
 		 }
-		 if (current.getCenterPosition().equals(target.getCenterPosition())) {
-			 return true;
-		 }
-		 int[] currentCube = current.getCubePosition().convertToIntegerArray();
-		 int[] targetCube = target.getCubePosition().convertToIntegerArray();
-		 if ((currentCube[0] + 1 == targetCube[0] || currentCube[0] - 1 == targetCube[0] || currentCube[0] == targetCube[0]) &&
-			 (currentCube[1] + 1 == targetCube[1] || currentCube[1] - 1 == targetCube[1] || currentCube[1] == targetCube[1]) &&
-			 (currentCube[2] + 1 == targetCube[2] || currentCube[2] - 1 == targetCube[2] || currentCube[2] == targetCube[2])) {
-			 return true;
-		 } 
-		 return false;
+		 return Math.abs((int) current.x() - (int) target.x()) <= 1 &&
+				 Math.abs((int) current.y() - (int) target.y()) <= 1 &&
+				 Math.abs((int) current.z() - (int) target.z()) <= 1;
 	 }
 }
\ No newline at end of file
@@ -0,0 +1,63 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import hillbillies.simulation.BatchExecutor;
+import hillbillies.simulation.BatchResult;
+import hillbillies.simulation.HeadlessRunner;
+
+public class BatchExecutorTest {
+	
+	private BatchExecutor executor;
+	
+	@Before
+	public void setup() {
+		executor = new BatchExecutor(2);
+	}
+	
+	@Test
+	public void constructor() {
+		assertEquals(2, executor.getNbThreads());
+		assertEquals(0, executor.getNbSimulations());
+	}
+	
+	@Test (expected = IllegalArgumentException.class)
+	public void constructor_IllegalCase() {
+		new BatchExecutor(0);
+	}
+	
+	@Test
+	public void run() throws InterruptedException {
+		List<BatchResult<Long>> results = executor.run(4, index -> {
+			HeadlessRunner runner = new HeadlessRunner(new int[5][5][2]);
+			runner.spawnUnits(index + 1, false);
+			return runner;
+		}, 1.0, 0.1, runner -> runner.getWorld().getNbTicks() * runner.getWorld().getAllUnits().size());
+		assertEquals(4, results.size());
+		for (int i = 0; i < 4; i++) {
+			assertEquals(i, results.get(i).getIndex());
+			assertTrue(results.get(i).isSuccessful());
+			assertEquals(Long.valueOf(10 * (i + 1)), results.get(i).getValue());
+		}
+		assertEquals(4, executor.getNbSimulations());
+		assertTrue(executor.getSimulationsPerMinute() > 0);
+	}
+	
+	@Test
+	public void run_FailingSimulation() throws InterruptedException {
+		List<BatchResult<Integer>> results = executor.run(3, index -> {
+			if (index == 1) {
+				throw new IllegalStateException();
+			}
+			return new HeadlessRunner(new int[3][3][3]);
+		}, 0.5, 0.1, runner -> runner.getWorld().getAllUnits().size());
+		assertTrue(results.get(0).isSuccessful());
+		assertFalse(results.get(1).isSuccessful());
+		assertTrue(results.get(1).getError() instanceof IllegalStateException);
+		assertTrue(results.get(2).isSuccessful());
+	}
+	
+}
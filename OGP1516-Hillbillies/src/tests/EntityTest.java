@@ -11,6 +11,7 @@ import hillbillies.model.World;
 import hillbillies.part2.facade.Facade;
 import hillbillies.part2.facade.IFacade;
 import hillbillies.part2.listener.DefaultTerrainChangeListener;
+import hillbillies.world.Cube;
 import hillbillies.world.Position;
 import ogp.framework.util.ModelException;
 
@@ -113,6 +114,29 @@ public class EntityTest {
 		assertEquals(new Position(0.5,0.5,0.5), boulder.getPosition());
 	}
 	
+	@Test
+	public void getLandingPosition() throws ModelException {
+		Boulder boulder = new Boulder(world, new Position(0,0,4));
+		world.addEntity(boulder);
+		assertNull(boulder.getLandingPosition());
+		boulder.startFalling();
+		assertEquals(new Position(0.5,0.5,0.5), boulder.getLandingPosition());
+		assertEquals(4.0 / 3, boulder.getTimeToLanding(), 1e-9);
+		world.setAt(new Position(0,0,1), Cube.ROCK);
+		assertEquals(new Position(0.5,0.5,2.5), boulder.getLandingPosition());
+	}
+	
+	@Test
+	public void fallBehavior_LandsOnTime() throws ModelException {
+		Boulder boulder = new Boulder(world, new Position(0,0,4));
+		world.addEntity(boulder);
+		advanceTimeFor(facade, world, 1.2, 0.2);
+		assertTrue(boulder.isFalling());
+		advanceTimeFor(facade, world, 0.2, 0.2);
+		assertFalse(boulder.isFalling());
+		assertEquals(new Position(0.5,0.5,0.5), boulder.getPosition());
+	}
+	
 	/**
 	 * Helper method to advance time for the given world by some time.
 	 * 
@@ -16,6 +16,7 @@ import hillbillies.expression.bool.IsPassable;
 import hillbillies.expression.bool.IsSolid;
 import hillbillies.expression.bool.Or;
 import hillbillies.expression.bool.True;
+import hillbillies.expression.object.ReadVariable;
 import hillbillies.expression.position.Here;
 import hillbillies.expression.position.LiteralPosition;
 import hillbillies.expression.position.NextTo;
@@ -330,6 +331,13 @@ public class ExpressionTest {
 	// OTHER
 	
 	@Test
-	public void readVariable() {}
+	public void readVariable() {
+		Expression<Boolean> expression = new ReadVariable<>(src, "x", 2);
+		assertEquals(null, expression.evaluate(program));
+		program.writeVariable(2, true);
+		assertEquals(true, expression.evaluate(program));
+		program.writeVariable(0, false);
+		assertEquals(true, expression.evaluate(program));
+	}
 
 }
@@ -0,0 +1,95 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import hillbillies.model.TickPhase;
+import hillbillies.model.Unit;
+import hillbillies.simulation.HeadlessRunner;
+
+public class HeadlessRunnerTest {
+	
+	private static final String MAP = "3 2 2\n\n...\n.W.\n\nRRR\nRSR\n";
+	
+	private HeadlessRunner runner;
+	
+	@Before
+	public void setup() throws IOException {
+		runner = new HeadlessRunner(HeadlessRunner.readTerrain(new StringReader(MAP)));
+	}
+	
+	@Test
+	public void readTerrain() throws IOException {
+		int[][][] types = HeadlessRunner.readTerrain(new StringReader(MAP));
+		assertEquals(3, types.length);
+		assertEquals(2, types[0].length);
+		assertEquals(2, types[0][0].length);
+		assertEquals(0, types[0][0][1]);
+		assertEquals(3, types[1][1][1]);
+		assertEquals(1, types[0][0][0]);
+		assertEquals(2, types[1][1][0]);
+	}
+	
+	@Test (expected = IllegalArgumentException.class)
+	public void readTerrain_UnknownType() throws IOException {
+		HeadlessRunner.readTerrain(new StringReader("1 1 1\n\nX\n"));
+	}
+	
+	@Test (expected = IllegalArgumentException.class)
+	public void readTerrain_MissingLine() throws IOException {
+		HeadlessRunner.readTerrain(new StringReader("1 2 1\n\n.\n"));
+	}
+	
+	@Test
+	public void spawnUnits() {
+		assertEquals(4, runner.spawnUnits(4, false));
+		assertEquals(4, runner.getWorld().getAllUnits().size());
+	}
+	
+	@Test
+	public void run() {
+		runner.spawnUnits(2, false);
+		runner.run(1.0, 0.1);
+		assertEquals(10, runner.getWorld().getNbTicks());
+		assertEquals(1.0, runner.getWorld().getGameTime(), 1e-9);
+		assertTrue(runner.getRunTime() > 0);
+		assertTrue(runner.getWorld().getTimeSpentIn(TickPhase.ADVANCE) > 0);
+	}
+	
+	@Test
+	public void run_SameSeed() throws IOException {
+		assertEquals(runSeeded(42), runSeeded(42));
+	}
+	
+	@Test
+	public void printReport_Seed() throws IOException {
+		HeadlessRunner seeded = new HeadlessRunner(HeadlessRunner.readTerrain(new StringReader(MAP)), 42);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		seeded.printReport(new PrintStream(out));
+		assertTrue(out.toString().startsWith("seed: 42"));
+	}
+	
+	private List<String> runSeeded(long seed) throws IOException {
+		HeadlessRunner seeded = new HeadlessRunner(HeadlessRunner.readTerrain(new StringReader(MAP)), seed);
+		seeded.spawnUnits(3, true);
+		seeded.run(10.0, 0.1);
+		List<String> state = new ArrayList<>();
+		for (Unit unit : seeded.getWorld().getAllUnits()) {
+			state.add(unit.getName() + " " + unit.getPosition() + " " + unit.getNbHitPoints());
+		}
+		return state;
+	}
+	
+	@Test (expected = IllegalArgumentException.class)
+	public void run_IllegalTimeStep() {
+		runner.run(1.0, 0.5);
+	}
+	
+}
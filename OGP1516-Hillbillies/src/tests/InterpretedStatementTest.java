@@ -0,0 +1,15 @@
+package tests;
+
+import hillbillies.program.TaskFactory;
+
+/**
+ * Runs all statement tests on tasks that are interpreted instead of compiled.
+ */
+public class InterpretedStatementTest extends StatementTest {
+
+	@Override
+	protected TaskFactory createFactory() {
+		return new TaskFactory(false);
+	}
+
+}
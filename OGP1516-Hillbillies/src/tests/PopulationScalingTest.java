@@ -0,0 +1,69 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import hillbillies.model.Faction;
+import hillbillies.model.Unit;
+import hillbillies.model.World;
+import hillbillies.simulation.PopulationBenchmark;
+import hillbillies.world.Position;
+
+public class PopulationScalingTest {
+
+	private static final int NB_TICKS = 20;
+	
+	private void checkPopulation(int nbUnits) {
+		World world = PopulationBenchmark.createWorld(nbUnits, 7L);
+		assertEquals(nbUnits, world.getAllUnits().size());
+		assertEquals(PopulationBenchmark.NB_FACTIONS, world.getNbFactions());
+		checkFactions(world);
+		Map<Unit, Position> start = new HashMap<>();
+		for (Unit unit : world.getAllUnits()) {
+			start.put(unit, unit.getPosition());
+		}
+		for (int i = 0; i < NB_TICKS; i++) {
+			world.advanceTime(PopulationBenchmark.TICK);
+		}
+		assertTrue(world.getAllUnits().size() <= nbUnits);
+		checkFactions(world);
+		int nbMoved = 0;
+		for (Unit unit : world.getAllUnits()) {
+			assertSame(world, unit.getWorld());
+			assertTrue(world.isPassable(unit.getPosition()));
+			if (! unit.getPosition().equals(start.get(unit))) {
+				nbMoved++;
+			}
+		}
+		assertTrue(nbMoved > 0);
+	}
+	
+	private void checkFactions(World world) {
+		int nbUnits = 0;
+		for (Faction faction : world.getAllFactions()) {
+			assertTrue(faction.getNbUnits() <= world.getMaxNbUnitsPerFaction());
+			assertTrue(faction.hasProperUnits());
+			nbUnits += faction.getNbUnits();
+		}
+		assertEquals(world.getAllUnits().size(), nbUnits);
+	}
+	
+	@Test
+	public void advanceTime_100Units() {
+		checkPopulation(100);
+	}
+	
+	@Test
+	public void advanceTime_1000Units() {
+		checkPopulation(1000);
+	}
+	
+	@Test
+	public void advanceTime_10000Units() {
+		checkPopulation(10000);
+	}
+	
+}
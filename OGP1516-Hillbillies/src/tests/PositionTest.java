@@ -0,0 +1,71 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import hillbillies.world.Coordinate;
+import hillbillies.world.CubeKey;
+import hillbillies.world.Position;
+
+public class PositionTest {
+	
+	@Test
+	public void add() {
+		Position position = new Position(1.5, 2.5, 3.5);
+		assertEquals(new Position(2.5, 2.5, 3.5), position.add(Position.X, 1));
+		assertEquals(new Position(0.5, 3.5, 3), position.add(-1, 1, -0.5));
+		assertEquals(new Position(1.5, 2.5, 3.5), position);
+	}
+	
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void add_IllegalCase() {
+		new Position(1, 2, 3).add(3, 1);
+	}
+	
+	@Test
+	public void getCenterPosition() {
+		Position position = new Position(1.2, 2.7, 3.0);
+		assertEquals(new Position(1.5, 2.5, 3.5), position.getCenterPosition());
+		assertEquals(new Position(1, 2, 3), position.getCubePosition());
+		assertFalse(position.positionInCenter());
+		assertTrue(position.getCenterPosition().positionInCenter());
+	}
+	
+	@Test
+	public void isAdjacentToOrSame() {
+		Position position = new Position(1.2, 2.7, 3.0);
+		assertTrue(Position.isAdjacentToOrSame(position, new Position(1.9, 2.1, 3.9)));
+		assertTrue(Position.isAdjacentToOrSame(position, new Position(0.5, 3.5, 2.5)));
+		assertFalse(Position.isAdjacentToOrSame(position, new Position(3.5, 2.5, 3.5)));
+	}
+	
+	@Test
+	public void getCubeKey() {
+		long key = new Position(4.5, 17.2, 2.9).getCubeKey();
+		assertEquals(4, CubeKey.x(key));
+		assertEquals(17, CubeKey.y(key));
+		assertEquals(2, CubeKey.z(key));
+		assertEquals(new Coordinate(4, 17, 2), CubeKey.toCoordinate(key));
+		assertEquals(new Position(4.5, 17.5, 2.5), CubeKey.toCenter(key));
+		assertEquals(key, CubeKey.of(new Coordinate(4, 17, 2)));
+		assertNotEquals(key, CubeKey.of(4, 2, 17));
+	}
+	
+	@Test
+	public void hashCode_ConsistentWithEquals() {
+		Position position = new Position(0.1 + 0.2, 1.5, 2.5);
+		Position other = new Position(0.3, 1.5, 2.5);
+		assertEquals(position, other);
+		assertEquals(position.hashCode(), other.hashCode());
+		java.util.Set<Position> positions = new java.util.HashSet<>();
+		positions.add(position);
+		assertTrue(positions.contains(other));
+		assertFalse(positions.contains(new Position(0.3, 1.5, 3.5)));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void getCubeKey_IllegalCase() {
+		CubeKey.of(-1, 0, 0);
+	}
+}
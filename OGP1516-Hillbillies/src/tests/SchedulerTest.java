@@ -2,11 +2,23 @@ package tests;
 
 import static org.junit.Assert.*;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
 import org.junit.Before;
 import org.junit.Test;
+import hillbillies.model.Faction;
 import hillbillies.model.Scheduler;
 import hillbillies.model.Task;
 import hillbillies.model.Unit;
+import hillbillies.model.World;
+import hillbillies.part2.listener.DefaultTerrainChangeListener;
 import hillbillies.part3.programs.SourceLocation;
 import hillbillies.statement.Void;
 import hillbillies.world.Position;
@@ -98,6 +110,53 @@ public class SchedulerTest {
 		defaultScheduler.addToNotAssignedTasks(notAssigned);
 	}
 	
+	@Test
+	public void addAll_PossibleCase() {
+		java.util.List<Task> tasks = new ArrayList<>();
+		Task low = new Task("Task", -5, new Void(src));
+		tasks.add(low);
+		tasks.add(defaultTask);
+		defaultScheduler.addAll(tasks);
+		assertEquals(3, defaultScheduler.getNbNotAssignedTasks());
+		assertEquals(defaultTask, defaultScheduler.getNotAssignedTaskAt(1));
+		assertEquals(low, defaultScheduler.getNotAssignedTaskAt(3));
+		assertTrue(low.hasAsScheduler(defaultScheduler));
+	}
+	
+	@Test
+	public void addAll_ManyTasks() {
+		java.util.List<Task> tasks = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			tasks.add(new Task("Task" + i, (i % 7) - 3, new Void(src)));
+		}
+		defaultScheduler.addAll(tasks);
+		assertEquals(501, defaultScheduler.getNbNotAssignedTasks());
+		java.util.List<Task> sorted = defaultScheduler.getNotAssignedTasks();
+		for (int i = 1; i < sorted.size(); i++) {
+			Task previous = sorted.get(i-1);
+			Task current = sorted.get(i);
+			assertTrue(previous.getPriority() >= current.getPriority());
+			if (previous.getPriority() == current.getPriority() && previous != notAssigned) {
+				assertTrue(tasks.indexOf(previous) < tasks.indexOf(current));
+			}
+		}
+		assertEquals(tasks.get(6), defaultScheduler.getTopPriorityTask());
+		assertEquals(notAssigned, defaultScheduler.getNotAssignedTaskAt(3 * 71 + 1));
+	}
+	
+	@Test
+	public void addAll_ImpossibleCase() {
+		java.util.List<Task> tasks = new ArrayList<>();
+		tasks.add(defaultTask);
+		tasks.add(notAssigned);
+		try {
+			defaultScheduler.addAll(tasks);
+			fail();
+		} catch (IllegalStateException e) {}
+		assertFalse(defaultScheduler.hasAsTask(defaultTask));
+		assertEquals(1, defaultScheduler.getNbNotAssignedTasks());
+	}
+	
 	@Test
 	public void addToAssignedTasks_PossibleCase() {
 		defaultScheduler.addToAssignedTasks(defaultTask);
@@ -177,6 +236,196 @@ public class SchedulerTest {
 		assertFalse(defaultUnit.hasTask());
 	}
 	
+	@Test
+	public void claimTopPriorityTask_PossibleCase() {
+		assertEquals(notAssigned, defaultScheduler.claimTopPriorityTask(defaultUnit));
+		assertEquals(notAssigned, defaultUnit.getTask());
+		assertEquals(defaultUnit, notAssigned.getExecutingUnit());
+		assertTrue(defaultScheduler.hasAsAssignedTask(notAssigned));
+		assertTrue(notAssigned.hasAsScheduler(defaultScheduler));
+	}
+	
+	@Test
+	public void claimTopPriorityTask_NoTaskAvailable() {
+		defaultScheduler.removeFromNotAssignedTasks(notAssigned);
+		assertNull(defaultScheduler.claimTopPriorityTask(defaultUnit));
+		assertFalse(defaultUnit.hasTask());
+	}
+	
+	@Test
+	public void claimTopPriorityTask_Concurrent() throws InterruptedException {
+		World world = new World(new int[10][10][3], new DefaultTerrainChangeListener());
+		world.setPopulationLimits(16, 1, 16);
+		world.createRandomUnits(16, false);
+		Faction faction = world.getAllFactions().iterator().next();
+		Scheduler scheduler = faction.getScheduler();
+		List<Task> tasks = new ArrayList<>();
+		for (int i = 0; i < 4000; i++) {
+			tasks.add(new Task("Task" + i, (i % 11) - 5, new Void(src)));
+		}
+		faction.schedule(tasks);
+		
+		Map<Task, Integer> claims = new ConcurrentHashMap<>();
+		Set<Task> transferred = ConcurrentHashMap.newKeySet();
+		Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> threads = new ArrayList<>();
+		int seed = 0;
+		for (Unit unit : faction.getAllUnits()) {
+			Random random = new Random(seed++);
+			threads.add(new Thread(() -> {
+				try {
+					start.await();
+					Task task;
+					while ((task = scheduler.claimTopPriorityTask(unit)) != null) {
+						claims.merge(task, 1, Integer::sum);
+						assertEquals(unit, task.getExecutingUnit());
+						if (random.nextInt(3) == 0 && transferred.add(task)) {
+							scheduler.transferUnfinishedTask(task);
+						} else {
+							task.terminate();
+						}
+						unit.setTask(null);
+					}
+				} catch (Throwable e) {
+					errors.add(e);
+				}
+			}));
+		}
+		threads.forEach(Thread::start);
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		
+		assertTrue(errors.toString(), errors.isEmpty());
+		assertEquals(0, scheduler.getNbTasks());
+		assertEquals(tasks.size(), claims.size());
+		for (Task task : tasks) {
+			assertEquals(transferred.contains(task) ? 2 : 1, (int) claims.get(task));
+			assertTrue(task.isTerminated());
+			assertFalse(task.hasAsScheduler(scheduler));
+			if (transferred.contains(task)) {
+				assertEquals(-10, task.getPriority());
+			}
+		}
+	}
+	
+	@Test
+	public void transferUnfinishedTask_Concurrent() throws InterruptedException {
+		for (int i = 0; i < 200; i++) {
+			Task task = new Task("Task", 40, new Void(src));
+			defaultScheduler.addToNotAssignedTasks(task);
+			defaultScheduler.removeFromNotAssignedTasks(notAssigned);
+			assertEquals(task, defaultScheduler.claimTopPriorityTask(defaultUnit));
+			defaultScheduler.addToNotAssignedTasks(notAssigned);
+			CountDownLatch start = new CountDownLatch(1);
+			Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+			List<Thread> threads = new ArrayList<>();
+			for (int j = 0; j < 2; j++) {
+				threads.add(new Thread(() -> {
+					try {
+						start.await();
+						defaultScheduler.transferUnfinishedTask(task);
+					} catch (Throwable e) {
+						errors.add(e);
+					}
+				}));
+			}
+			threads.forEach(Thread::start);
+			start.countDown();
+			for (Thread thread : threads) {
+				thread.join();
+			}
+			assertEquals(1, errors.size());
+			assertTrue(errors.peek() instanceof IllegalArgumentException);
+			assertEquals(30, task.getPriority());
+			assertEquals(task, defaultScheduler.getTopPriorityTask());
+			defaultUnit.setTask(null);
+			defaultScheduler.removeFromNotAssignedTasks(task);
+		}
+	}
+	
+	@Test
+	public void setPriority_Concurrent() throws InterruptedException {
+		List<Task> tasks = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			tasks.add(new Task("Task" + i, 0, new Void(src)));
+		}
+		defaultScheduler.addAll(tasks);
+		Scheduler other = new Scheduler();
+		other.addAll(tasks.subList(0, 250));
+		CountDownLatch start = new CountDownLatch(1);
+		Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+		List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			Random random = new Random(i);
+			threads.add(new Thread(() -> {
+				try {
+					start.await();
+					for (int j = 0; j < 5000; j++) {
+						tasks.get(random.nextInt(tasks.size())).setPriority(random.nextInt(201) - 100);
+					}
+				} catch (Throwable e) {
+					errors.add(e);
+				}
+			}));
+		}
+		threads.forEach(Thread::start);
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertTrue(errors.toString(), errors.isEmpty());
+		for (Scheduler scheduler : new Scheduler[] {defaultScheduler, other}) {
+			Task previous = null;
+			while (scheduler.isTaskAvailable()) {
+				Task top = scheduler.getTopPriorityTask();
+				assertTrue(previous == null || previous.getPriority() >= top.getPriority());
+				scheduler.removeFromNotAssignedTasks(top);
+				previous = top;
+			}
+		}
+	}
+	
+	@Test
+	public void addToNotAssignedTasks_ConcurrentSetPriority() throws InterruptedException {
+		for (int i = 0; i < 10000; i++) {
+			Task task = new Task("Task", 0, new Void(src));
+			boolean bulk = (i % 2 == 1);
+			CountDownLatch start = new CountDownLatch(1);
+			Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+			Thread adder = new Thread(() -> {
+				try {
+					start.await();
+					if (bulk) {
+						defaultScheduler.addAll(Collections.singletonList(task));
+					} else {
+						defaultScheduler.addToNotAssignedTasks(task);
+					}
+				} catch (Throwable e) {
+					errors.add(e);
+				}
+			});
+			Thread setter = new Thread(() -> {
+				try {
+					start.await();
+					task.setPriority(500);
+				} catch (Throwable e) {
+					errors.add(e);
+				}
+			});
+			adder.start();
+			setter.start();
+			start.countDown();
+			adder.join();
+			setter.join();
+			assertTrue(errors.toString(), errors.isEmpty());
+			assertEquals(task, defaultScheduler.getTopPriorityTask());
+			defaultScheduler.removeFromNotAssignedTasks(task);
+		}
+	}
+	
 	@Test
 	public void transferUnfinishedTask_PossibleCase() {
 		int priority = assigned.getPriority();
@@ -191,4 +440,58 @@ public class SchedulerTest {
 		defaultScheduler.transferUnfinishedTask(notAssigned);
 	}
 	
+	@Test
+	public void transferUnfinishedTask_Order() {
+		Task other = new Task("Task", -10, new Void(src));
+		defaultScheduler.addToNotAssignedTasks(other);
+		defaultScheduler.transferUnfinishedTask(assigned);
+		assertEquals(notAssigned, defaultScheduler.getNotAssignedTaskAt(1));
+		assertEquals(other, defaultScheduler.getNotAssignedTaskAt(2));
+		assertEquals(assigned, defaultScheduler.getNotAssignedTaskAt(3));
+	}
+	
+	@Test
+	public void getNotAssignedTasks_Order() {
+		java.util.Random random = new java.util.Random(7);
+		for (int i = 0; i < 200; i++) {
+			defaultScheduler.addToNotAssignedTasks(new Task("Task" + i, random.nextInt(11) - 5, new Void(src)));
+		}
+		java.util.List<Task> tasks = defaultScheduler.getNotAssignedTasks();
+		assertEquals(201, tasks.size());
+		for (int i = 1; i < tasks.size(); i++) {
+			assertTrue(tasks.get(i-1).getPriority() >= tasks.get(i).getPriority());
+		}
+		Task previous = null;
+		while (defaultScheduler.isTaskAvailable()) {
+			Task top = defaultScheduler.getTopPriorityTask();
+			assertEquals(tasks.remove(0), top);
+			defaultScheduler.removeFromNotAssignedTasks(top);
+			assertTrue(previous == null || previous.getPriority() >= top.getPriority());
+			previous = top;
+		}
+	}
+	
+	@Test
+	public void getNotAssignedTasks_EqualPriorities() {
+		Task first = new Task("Task", 0, new Void(src));
+		Task second = new Task("Task", 0, new Void(src));
+		defaultScheduler.addToNotAssignedTasks(first);
+		defaultScheduler.addToNotAssignedTasks(second);
+		assertEquals(notAssigned, defaultScheduler.getNotAssignedTaskAt(1));
+		assertEquals(first, defaultScheduler.getNotAssignedTaskAt(2));
+		assertEquals(second, defaultScheduler.getNotAssignedTaskAt(3));
+	}
+	
+	@Test
+	public void setPriority_Reordered() {
+		Task other = new Task("Task", 3, new Void(src));
+		defaultScheduler.addToNotAssignedTasks(other);
+		assertEquals(other, defaultScheduler.getTopPriorityTask());
+		notAssigned.setPriority(4);
+		assertEquals(notAssigned, defaultScheduler.getTopPriorityTask());
+		notAssigned.setPriority(-4);
+		assertEquals(other, defaultScheduler.getTopPriorityTask());
+		assertEquals(notAssigned, defaultScheduler.getNotAssignedTaskAt(2));
+	}
+	
 }
@@ -34,7 +34,7 @@ public class StatementTest {
 	@Before
 	public void setUp() throws Exception {
 		facade = new Facade();
-		factory = new TaskFactory();
+		factory = createFactory();
 		
 		int[][][] types = new int[10][10][5];
 		types[1][1][4] = Cube.ROCK.getId();
@@ -53,6 +53,10 @@ public class StatementTest {
 		scheduler = mainUnit.getScheduler();
 	}
 	
+	protected TaskFactory createFactory() {
+		return new TaskFactory();
+	}
+	
 	public Task getDefaultTask(Statement statement) {
 		List<Task> tasks = factory.createTasks("Task", 20, statement, new ArrayList<int[]>());
 		return tasks.get(0);
@@ -367,5 +371,34 @@ public class StatementTest {
 		} catch (ModelException e) {}
 		assertTrue(world.getAt(new Coordinate(1, 1, 1).toCenter()) == Cube.AIR);
 	}
+	
+	@Test
+	public void sharedStatement_NoCrossTalk() {
+		List<Statement> moves = new ArrayList<>();
+		moves.add(factory.createMoveTo(factory.createLiteralPosition(3, 0, 0, src), src));
+		moves.add(factory.createMoveTo(factory.createLiteralPosition(3, 3, 0, src), src));
+		Statement statement = factory.createSequence(moves, src);
+		
+		Unit otherUnit = world.createRandomUnit(false);
+		otherUnit.setPosition(new Coordinate(0, 3, 0).toCenter());
+		Scheduler otherScheduler = otherUnit.getScheduler();
+		Task task = new Task("Task", 20, statement);
+		Task otherTask = new Task("Task", 20, statement);
+		scheduler.addToNotAssignedTasks(task);
+		scheduler.assignTopPriorityTask(mainUnit);
+		otherScheduler.addToNotAssignedTasks(otherTask);
+		otherScheduler.assignTopPriorityTask(otherUnit);
+		
+		try {
+			advanceTimeFor(facade, world, 2, 0.1);
+		} catch (ModelException e) {}
+		assertFalse(mainUnit.getPosition().equals(new Coordinate(3, 3, 0).toCenter()));
+		
+		try {
+			advanceTimeFor(facade, world, 20, 0.1);
+		} catch (ModelException e) {}
+		assertEquals(new Coordinate(3, 3, 0).toCenter(), mainUnit.getPosition());
+		assertEquals(new Coordinate(3, 3, 0).toCenter(), otherUnit.getPosition());
+	}
 
 }
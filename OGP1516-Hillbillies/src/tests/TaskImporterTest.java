@@ -0,0 +1,71 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Before;
+import org.junit.Test;
+import hillbillies.model.Scheduler;
+import hillbillies.program.TaskImporter;
+import hillbillies.program.TaskSourceParser;
+
+public class TaskImporterTest {
+	
+	private TaskImporter importer;
+	
+	@Before
+	public void setUp() {
+		importer = new TaskImporter(new ForkJoinPool(4));
+	}
+	
+	@Test
+	public void importFiles_BundledTasks() {
+		TaskImporter.Result result = importer.importFiles(Arrays.asList(TaskSourceParser.BUNDLED_TASKS), 
+				new ArrayList<int[]>());
+		assertFalse(result.hasErrors());
+		assertEquals(TaskSourceParser.BUNDLED_TASKS.length, result.getTasksPerFile().size());
+		assertEquals(TaskSourceParser.BUNDLED_TASKS.length, result.getTasks().size());
+		assertEquals(Arrays.asList(TaskSourceParser.BUNDLED_TASKS), 
+				new ArrayList<>(result.getTasksPerFile().keySet()));
+	}
+	
+	@Test
+	public void importFiles_MissingFile() {
+		List<String> filenames = new ArrayList<>();
+		filenames.add("resources/tasks/dig.txt");
+		filenames.add("resources/tasks/missing.txt");
+		TaskImporter.Result result = importer.importFiles(filenames, new ArrayList<int[]>());
+		assertTrue(result.hasErrors());
+		assertEquals(1, result.getErrors().size());
+		assertFalse(result.getErrors().get("resources/tasks/missing.txt").isEmpty());
+		assertEquals(1, result.getTasks().size());
+	}
+	
+	@Test
+	public void importDirectory() throws IOException {
+		TaskImporter.Result result = importer.importDirectory("resources/tasks", new ArrayList<int[]>());
+		assertFalse(result.hasErrors());
+		assertEquals(TaskSourceParser.BUNDLED_TASKS.length, result.getTasks().size());
+	}
+	
+	@Test
+	public void importInto() {
+		Scheduler scheduler = new Scheduler();
+		List<int[]> cubes = new ArrayList<>();
+		cubes.add(new int[] {1, 1, 1});
+		cubes.add(new int[] {2, 2, 2});
+		TaskImporter.Result result = importer.importInto(scheduler, Arrays.asList(TaskSourceParser.BUNDLED_TASKS), 
+				cubes);
+		assertEquals(2 * TaskSourceParser.BUNDLED_TASKS.length, scheduler.getNbNotAssignedTasks());
+		assertEquals(result.getTasks().size(), scheduler.getNbNotAssignedTasks());
+		for (int i = 1; i < scheduler.getNbNotAssignedTasks(); i++) {
+			assertTrue(scheduler.getNotAssignedTaskAt(i).getPriority() >= 
+					scheduler.getNotAssignedTaskAt(i + 1).getPriority());
+		}
+	}
+
+}
@@ -0,0 +1,46 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import hillbillies.model.Task;
+import hillbillies.part3.programs.TaskParser;
+import hillbillies.program.TaskFactory;
+import hillbillies.program.TaskSourceParser;
+
+public class TaskSourceParserTest {
+	
+	@Test
+	public void parse_BundledTasks() throws IOException {
+		for (String filename : TaskSourceParser.BUNDLED_TASKS) {
+			String source = TaskSourceParser.readSource(filename);
+			List<Task> expected = TaskParser.parseTasksFromString(source, new TaskFactory(), new ArrayList<int[]>());
+			List<Task> tasks = TaskSourceParser.parse(source, new TaskFactory(), new ArrayList<int[]>());
+			assertEquals(expected.size(), tasks.size());
+			assertEquals(expected.get(0).getName(), tasks.get(0).getName());
+			assertEquals(expected.get(0).getPriority(), tasks.get(0).getPriority());
+			assertEquals(expected.get(0).getStatement().getClass(), tasks.get(0).getStatement().getClass());
+			assertEquals(expected.get(0).getStatement().isWellFormed(), tasks.get(0).getStatement().isWellFormed());
+		}
+	}
+	
+	@Test
+	public void parse_SyntaxError() {
+		List<String> errors = new ArrayList<>();
+		assertNull(TaskSourceParser.parse("name: \"broken\"", new TaskFactory(), new ArrayList<int[]>(), errors));
+		assertFalse(errors.isEmpty());
+		List<Task> tasks = TaskSourceParser.parse("name: \"goto\"\npriority : 5\nactivities : moveTo (1, 1, 1);", 
+				new TaskFactory(), new ArrayList<int[]>());
+		assertEquals(1, tasks.size());
+		assertEquals("goto", tasks.get(0).getName());
+	}
+	
+	@Test
+	public void warmUp() {
+		assertEquals(TaskSourceParser.BUNDLED_TASKS.length, TaskSourceParser.warmUp());
+	}
+
+}
@@ -0,0 +1,75 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import hillbillies.model.Task;
+import hillbillies.program.TaskTemplateCache;
+import hillbillies.world.Coordinate;
+
+public class TaskTemplateCacheTest {
+	
+	private static final String GOTO = "name: \"goto\"\npriority : 5\nactivities : moveTo (1, 1, 1);";
+	private static final String WORK = "name: \"work\"\npriority : 3\nactivities : work here;";
+	
+	private TaskTemplateCache cache;
+	
+	@Before
+	public void setUp() {
+		cache = new TaskTemplateCache(1);
+	}
+	
+	@Test (expected = IllegalArgumentException.class)
+	public void constructor_IllegalCapacity() {
+		new TaskTemplateCache(0);
+	}
+	
+	@Test
+	public void createTasks_ParsesOnce() {
+		List<Task> first = cache.createTasks(GOTO, new ArrayList<int[]>());
+		List<Task> second = cache.createTasks(GOTO, new ArrayList<int[]>());
+		assertEquals(1, cache.getNbMisses());
+		assertEquals(1, cache.getNbHits());
+		assertEquals(1, first.size());
+		assertEquals(1, second.size());
+		assertNotSame(first.get(0), second.get(0));
+		assertSame(first.get(0).getStatement(), second.get(0).getStatement());
+		assertSame(first.get(0).getCompiledStatement(), second.get(0).getCompiledStatement());
+		assertEquals("goto", second.get(0).getName());
+		assertEquals(5, second.get(0).getPriority());
+	}
+	
+	@Test
+	public void createTasks_SelectedCubes() {
+		cache.createTasks(GOTO, new ArrayList<int[]>());
+		List<int[]> cubes = new ArrayList<>();
+		cubes.add(new int[] {1, 2, 3});
+		cubes.add(new int[] {4, 5, 6});
+		List<Task> tasks = cache.createTasks(GOTO, cubes);
+		assertEquals(2, tasks.size());
+		assertEquals(new Coordinate(1, 2, 3).toCenter().getCubePosition(), 
+				tasks.get(0).getSelectedPosition().getCubePosition());
+		assertEquals(new Coordinate(4, 5, 6).toCenter().getCubePosition(), 
+				tasks.get(1).getSelectedPosition().getCubePosition());
+	}
+	
+	@Test
+	public void createTasks_EvictsLeastRecentlyUsed() {
+		cache.createTasks(GOTO, new ArrayList<int[]>());
+		cache.createTasks(WORK, new ArrayList<int[]>());
+		assertEquals(1, cache.size());
+		cache.createTasks(GOTO, new ArrayList<int[]>());
+		assertEquals(3, cache.getNbMisses());
+		assertEquals(0, cache.getNbHits());
+	}
+	
+	@Test
+	public void createTasks_SyntaxError() {
+		assertNull(cache.createTasks("name: \"broken\"", new ArrayList<int[]>()));
+		assertEquals(0, cache.size());
+	}
+
+}
@@ -6,11 +6,13 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.SplittableRandom;
 import org.junit.Before;
 import org.junit.Test;
 import hillbillies.model.Boulder;
 import hillbillies.model.Entity;
 import hillbillies.model.Faction;
+import hillbillies.model.ItemEntity;
 import hillbillies.model.Log;
 import hillbillies.model.Unit;
 import hillbillies.model.World;
@@ -137,6 +139,39 @@ public class WorldTest {
 		assertNull(world.getAllEntitiesOf(Boulder.ENTITY_ID));
 	}
 	
+	@Test (expected=UnsupportedOperationException.class)
+	public void getAllUnits_ReadOnly() {
+		world.getAllUnits().add(new Unit(new int[] {1,1,1}, "BBB", 50, 50, 50, 50, false));
+	}
+	
+	@Test
+	public void getAllEntities_RemoveWhileIterating() {
+		for (int i = 0; i < 3; i++) {
+			new Boulder(world, new Position(i,0,0)).spawn();
+		}
+		int visited = 0;
+		for (Entity entity : world.getAllEntities()) {
+			if (entity instanceof Boulder) {
+				((Boulder) entity).despawn();
+			}
+			visited++;
+		}
+		assertEquals(4, visited);
+		assertEquals(1, world.getNbEntities());
+		assertTrue(world.getAllBoulders().isEmpty());
+		world.advanceTime(0.1);
+		assertEquals(1, world.getAllEntities().size());
+	}
+	
+	@Test
+	public void getHandleOf() {
+		Boulder boulder = new Boulder(world, new Position(0,0,0));
+		assertEquals(-1, world.getHandleOf(boulder));
+		boulder.spawn();
+		assertTrue(world.getHandleOf(boulder) >= 0);
+		assertNotEquals(world.getHandleOf(randomUnit), world.getHandleOf(boulder));
+	}
+	
 	@Test
 	public void addEntity() {
 		Boulder boulder = new Boulder(world, new Position(0,0,0));
@@ -169,6 +204,83 @@ public class WorldTest {
 		assertEquals(entities, world.getEntitiesAt(new Position(0,0,0), Log.ENTITY_ID));
 	}
 	
+	@Test
+	public void entitiesInCube() {
+		assertTrue(world.entitiesInCube(new Position(0.2,0.7,0.9)).contains(randomUnit));
+		assertTrue(world.entitiesInCube(new Position(1,0,0)).isEmpty());
+	}
+	
+	@Test
+	public void entitiesInCube_AfterMove() {
+		randomUnit.setPosition(new Position(2.5,2.5,0.5));
+		assertFalse(world.entitiesInCube(new Position(0,0,0)).contains(randomUnit));
+		assertTrue(world.entitiesInCube(new Position(2,2,0)).contains(randomUnit));
+	}
+	
+	@Test
+	public void entitiesInCube_AfterRemove() {
+		Boulder boulder = new Boulder(world, new Position(3,3,0));
+		boulder.spawn();
+		assertTrue(world.entitiesInCube(new Position(3,3,0)).contains(boulder));
+		boulder.despawn();
+		assertTrue(world.entitiesInCube(new Position(3,3,0)).isEmpty());
+	}
+	
+	@Test
+	public void entitiesInBox() {
+		Boulder boulder = new Boulder(world, new Position(2,2,0));
+		boulder.spawn();
+		List<Entity> entities = world.entitiesInBox(new Position(-1,-1,-1), new Position(1,1,1));
+		assertTrue(entities.contains(randomUnit));
+		assertFalse(entities.contains(boulder));
+		assertTrue(world.entitiesInBox(new Position(0,0,0), new Position(4,4,4)).contains(boulder));
+	}
+	
+	@Test
+	public void entitiesWithinRadius() {
+		Boulder boulder = new Boulder(world, new Position(2,0,0));
+		boulder.spawn();
+		assertTrue(world.entitiesWithinRadius(new Position(0.5,0.5,0.5), 1.5).contains(randomUnit));
+		assertFalse(world.entitiesWithinRadius(new Position(0.5,0.5,0.5), 1.5).contains(boulder));
+		assertTrue(world.entitiesWithinRadius(new Position(0.5,0.5,0.5), 2).contains(boulder));
+	}
+	
+	@Test
+	public void getClosestEntities() {
+		Boulder near = new Boulder(world, new Position(1,0,0));
+		Boulder far = new Boulder(world, new Position(4,4,0));
+		near.spawn();
+		far.spawn();
+		List<Entity> closest = world.getClosestEntities(new Position(0.5,0.5,0.5), 2, e -> true);
+		assertEquals(2, closest.size());
+		assertEquals(randomUnit, closest.get(0));
+		assertEquals(near, closest.get(1));
+	}
+	
+	@Test
+	public void getClosestEntity_OfType() {
+		Boulder near = new Boulder(world, new Position(3,4,0));
+		Boulder far = new Boulder(world, new Position(4,4,4));
+		near.spawn();
+		far.spawn();
+		assertEquals(near, world.getClosestEntity(new Position(0,0,0), Boulder.class));
+		assertNull(world.getClosestEntity(new Position(0,0,0), Log.class));
+		assertEquals(near, world.getClosestEntity(new Position(0,0,0), ItemEntity.class));
+	}
+	
+	@Test
+	public void getClosestUnit_Enemy() throws ModelException {
+		Unit friend = new Unit(new int[] {1,0,0}, "BBB", 50, 50, 50, 50, false);
+		facade.addUnit(friend, world);
+		Faction faction = randomUnit.getFaction();
+		assertNotEquals(faction, friend.getFaction());
+		assertEquals(friend, faction.getClosestEnemy(randomUnit));
+		assertNull(faction.getClosestMember(randomUnit));
+		assertEquals(randomUnit, world.getClosestUnit(new Position(4,4,4), u -> u.getFaction() == faction));
+		friend.terminate();
+		assertNull(faction.getClosestEnemy(randomUnit));
+	}
+	
 	@Test
 	public void hasAsFaction() {
 		assertTrue(world.hasAsFaction(randomUnit.getFaction()));
@@ -243,6 +355,378 @@ public class WorldTest {
 		assertTrue(unit.doesDefaultBehavior());
 	}
 	
+	@Test
+	public void getClosestWorkshop() {
+		assertEquals(new Position(1.5,1.5,2.5), world.getClosestWorkshop(new Position(0,0,0)));
+		world.setAt(new Position(4,4,4), Cube.WORKBENCH);
+		assertEquals(2, world.getNbWorkshops());
+		assertEquals(new Position(4.5,4.5,4.5), world.getClosestWorkshop(new Position(4,4,3)));
+	}
+	
+	@Test
+	public void getClosestWorkshop_AfterRemoval() {
+		world.setAt(new Position(1,1,2), Cube.AIR);
+		assertEquals(0, world.getNbWorkshops());
+		assertNull(world.getClosestWorkshop(new Position(0,0,0)));
+	}
+	
+	@Test
+	public void getNbSpawnPositions() {
+		assertEquals(25, world.getNbSpawnPositions());
+		world.setAt(new Position(2,2,0), Cube.ROCK);
+		assertEquals(25, world.getNbSpawnPositions());
+		world.setAt(new Position(1,1,2), Cube.ROCK);
+		assertEquals(25, world.getNbSpawnPositions());
+		world.setAt(new Position(1,1,0), Cube.AIR);
+		assertEquals(26, world.getNbSpawnPositions());
+	}
+	
+	@Test
+	public void createRandomUnits() {
+		List<Unit> units = world.createRandomUnits(10, false);
+		assertEquals(10, units.size());
+		for (Unit unit : units) {
+			assertTrue(world.hasAsEntity(unit));
+			assertTrue(world.isPassable(unit.getPosition()));
+			assertTrue(world.hasUnderlyingSolid(unit.getPosition()));
+		}
+	}
+	
+	@Test
+	public void populationLimits_Default() {
+		assertEquals(World.MAX_UNITS, world.getMaxNbUnits());
+		assertEquals(World.MAX_FACTIONS, world.getMaxNbFactions());
+		assertEquals(Faction.MAX_UNITS, world.getMaxNbUnitsPerFaction());
+		assertEquals(Faction.MAX_UNITS, randomUnit.getFaction().getMaxNbUnits());
+	}
+	
+	@Test
+	public void populationLimits_Raised() {
+		world.setPopulationLimits(300, 2, 150);
+		assertEquals(299, world.createRandomUnits(400, false).size());
+		assertEquals(300, world.getAllUnits().size());
+		assertEquals(2, world.getNbFactions());
+		for (Faction faction : world.getAllFactions()) {
+			assertEquals(150, faction.getNbUnits());
+			assertTrue(faction.hasProperUnits());
+		}
+	}
+	
+	@Test
+	public void populationLimits_FactionsFull() {
+		world.setPopulationLimits(10, 1, 3);
+		assertEquals(2, world.createRandomUnits(5, false).size());
+		assertEquals(3, world.getAllUnits().size());
+		Unit unit = new Unit(new int[] {0,0,0}, "AAA", 50, 50, 50, 50, false);
+		world.addUnit(unit);
+		assertFalse(world.hasAsEntity(unit));
+		assertNull(unit.getFaction());
+	}
+	
+	@Test (expected = IllegalArgumentException.class)
+	public void setMaxNbUnits_IllegalCase() {
+		world.setMaxNbUnits(0);
+	}
+	
+	@Test (expected = IllegalArgumentException.class)
+	public void setPopulationLimits_IllegalCase() {
+		world.setPopulationLimits(10, -1, 10);
+	}
+	
+	@Test
+	public void getRandomUnit() {
+		assertEquals(randomUnit, world.getRandomUnit());
+		randomUnit.terminate();
+		assertNull(world.getRandomUnit());
+	}
+	
+	@Test
+	public void advanceTime_GameTime() {
+		World other = new World(new int[3][3][3], new DefaultTerrainChangeListener());
+		for (int i = 0; i < 10; i++) {
+			world.advanceTime(0.1);
+		}
+		other.advanceTime(0.2);
+		assertEquals(10, world.getNbTicks());
+		assertEquals(1.0, world.getGameTime(), 1e-9);
+		assertEquals(1, other.getNbTicks());
+		assertEquals(0.2, other.getGameTime(), 1e-9);
+	}
+	
+	@Test
+	public void advanceTime_ForcedRest() {
+		for (int i = 0; i < 898; i++) {
+			world.advanceTime(0.2);
+		}
+		assertFalse(randomUnit.isResting());
+		world.advanceTime(0.2);
+		assertTrue(randomUnit.isResting());
+	}
+	
+	@Test
+	public void advanceTime_SameSeed() {
+		int[][][] types = new int[10][10][3];
+		types[5][5][0] = TYPE_TREE;
+		types[2][7][0] = TYPE_ROCK;
+		World first = new World(types, new DefaultTerrainChangeListener(), 42L);
+		World second = new World(types, new DefaultTerrainChangeListener(), 42L);
+		first.createRandomUnits(10, true);
+		second.createRandomUnits(10, true);
+		for (int i = 0; i < 300; i++) {
+			first.advanceTime(0.1);
+			second.advanceTime(0.1);
+		}
+		assertEquals(42L, first.getSeed());
+		List<Unit> firstUnits = new ArrayList<>(first.getAllUnits());
+		List<Unit> secondUnits = new ArrayList<>(second.getAllUnits());
+		assertEquals(firstUnits.size(), secondUnits.size());
+		for (int i = 0; i < firstUnits.size(); i++) {
+			Unit unit = firstUnits.get(i);
+			Unit other = secondUnits.get(i);
+			assertEquals(unit.getName(), other.getName());
+			assertEquals(unit.getFaction().getName(), other.getFaction().getName());
+			assertEquals(unit.getPosition(), other.getPosition());
+			assertEquals(unit.getNbHitPoints(), other.getNbHitPoints());
+			assertEquals(unit.getNbExperiencePoints(), other.getNbExperiencePoints());
+		}
+		assertEquals(first.getAllBoulders().size(), second.getAllBoulders().size());
+		assertEquals(first.getAllLogs().size(), second.getAllLogs().size());
+	}
+	
+	@Test
+	public void advanceTime_WorkingUnitSleeps() {
+		randomUnit.workAt(0, 0, 0);
+		world.advanceTime(0.2);
+		assertTrue(world.isAsleep(randomUnit));
+		for (int i = 1; i < 49; i++) {
+			world.advanceTime(0.2);
+		}
+		assertTrue(randomUnit.isWorking());
+		world.advanceTime(0.2);
+		world.advanceTime(0.2);
+		assertFalse(randomUnit.isWorking());
+		assertFalse(world.isAsleep(randomUnit));
+		assertEquals(10, randomUnit.getNbExperiencePoints());
+	}
+	
+	@Test
+	public void advanceTime_SleepingUnitLeavesActiveEntities() {
+		int nbActive = world.getNbActiveEntities();
+		randomUnit.workAt(0, 0, 0);
+		world.advanceTime(0.2);
+		assertTrue(world.isAsleep(randomUnit));
+		assertEquals(nbActive - 1, world.getNbActiveEntities());
+		for (int i = 1; i < 51; i++) {
+			world.advanceTime(0.2);
+		}
+		assertFalse(world.isAsleep(randomUnit));
+		assertEquals(nbActive, world.getNbActiveEntities());
+		assertEquals(10, randomUnit.getNbExperiencePoints());
+	}
+	
+	@Test
+	public void advanceTime_TerrainChangeWakesUnit() {
+		randomUnit.setNbHitPoints(1);
+		randomUnit.rest();
+		world.advanceTime(0.2);
+		assertTrue(world.isAsleep(randomUnit));
+		world.setAt(new Position(4, 4, 4), Cube.ROCK);
+		assertTrue(world.isAsleep(randomUnit));
+		world.setAt(new Position(1, 0, 0), Cube.ROCK);
+		assertFalse(world.isAsleep(randomUnit));
+		assertTrue(randomUnit.isResting());
+	}
+	
+	@Test
+	public void advanceTime_AttackWakesUnit() throws ModelException {
+		Unit attacker = new Unit(new int[] {1,0,0}, "BBB", 50, 50, 50, 50, false);
+		facade.addUnit(attacker, world);
+		randomUnit.setNbHitPoints(1);
+		randomUnit.rest();
+		world.advanceTime(0.2);
+		assertTrue(world.isAsleep(randomUnit));
+		attacker.attack(randomUnit);
+		assertFalse(world.isAsleep(randomUnit));
+		world.advanceTime(0.2);
+		assertFalse(world.isAsleep(randomUnit));
+	}
+	
+	@Test
+	public void advanceTime_ItemEntitySleeps() {
+		Boulder boulder = new Boulder(world, new Position(1, 1, 2));
+		boulder.spawn();
+		world.advanceTime(0.2);
+		assertTrue(world.isAsleep(boulder));
+		world.setAt(new Position(3, 3, 3), Cube.ROCK);
+		assertTrue(world.isAsleep(boulder));
+		world.setAt(new Position(1, 1, 1), Cube.AIR);
+		assertFalse(world.isAsleep(boulder));
+		for (int i = 0; i < 10; i++) {
+			world.advanceTime(0.2);
+		}
+		assertFalse(boulder.isFalling());
+		assertTrue(world.isAsleep(boulder));
+		assertEquals(new Position(1.5, 1.5, 1.5), boulder.getPosition());
+	}
+	
+	@Test
+	public void advanceTime_SleepingItemEntityLeavesActiveEntities() {
+		Boulder boulder = new Boulder(world, new Position(1, 1, 2));
+		boulder.spawn();
+		int nbActive = world.getNbActiveEntities();
+		world.advanceTime(0.2);
+		assertTrue(world.isAsleep(boulder));
+		assertEquals(nbActive - 1, world.getNbActiveEntities());
+		world.setAt(new Position(1, 1, 1), Cube.AIR);
+		assertEquals(nbActive, world.getNbActiveEntities());
+		for (int i = 0; i < 10; i++) {
+			world.advanceTime(0.2);
+		}
+		assertTrue(world.isAsleep(boulder));
+		assertEquals(nbActive - 1, world.getNbActiveEntities());
+		assertEquals(new Position(1.5, 1.5, 1.5), boulder.getPosition());
+	}
+	
+	@Test
+	public void advanceTime_PreparedPathsSameAsSerial() {
+		World serial = createMaze(false);
+		World prepared = createMaze(true);
+		for (int i = 0; i < 200; i++) {
+			if (i == 50) {
+				serial.setAt(new Position(4, 2, 0), Cube.ROCK);
+				prepared.setAt(new Position(4, 2, 0), Cube.ROCK);
+			}
+			serial.advanceTime(0.1);
+			prepared.advanceTime(0.1);
+		}
+		assertSamePositions(serial, prepared);
+	}
+	
+	@Test
+	public void advanceTime_PreparedDefaultBehaviourSameAsSerial() {
+		World serial = createField(false);
+		World prepared = createField(true);
+		for (int i = 0; i < 300; i++) {
+			serial.advanceTime(0.1);
+			prepared.advanceTime(0.1);
+		}
+		assertSamePositions(serial, prepared);
+	}
+	
+	@Test
+	public void advanceTime_PreparedPathsSameAsSerialWithTerrainChanges() {
+		for (long seed = 0; seed < 3; seed++) {
+			World serial = createQuarry(seed, false);
+			World prepared = createQuarry(seed, true);
+			int version = prepared.getWorldVersion();
+			for (int i = 0; i < 300; i++) {
+				if (i % 25 == 0) {
+					orderMove(serial, i / 25);
+					orderMove(prepared, i / 25);
+				}
+				serial.advanceTime(0.1);
+				prepared.advanceTime(0.1);
+				assertSameState(serial, prepared);
+			}
+			assertTrue(prepared.getWorldVersion() > version);
+		}
+	}
+	
+	/**
+	 * Order the first unit of the given world to move to the position of
+	 * another one of its units.
+	 */
+	private void orderMove(World world, int round) {
+		List<Unit> units = new ArrayList<>(world.getAllUnits());
+		units.get(0).moveTo(units.get(1 + round % (units.size() - 1)).getPosition());
+	}
+	
+	private void assertSameState(World serial, World prepared) {
+		List<Entity> serialEntities = new ArrayList<>(serial.getAllEntities());
+		List<Entity> preparedEntities = new ArrayList<>(prepared.getAllEntities());
+		assertEquals(serialEntities.size(), preparedEntities.size());
+		for (int i = 0; i < serialEntities.size(); i++) {
+			assertEquals(serialEntities.get(i).getPosition(), preparedEntities.get(i).getPosition());
+		}
+		for (int x = 0; x < serial.getSizeX(); x++) {
+			for (int y = 0; y < serial.getSizeY(); y++) {
+				for (int z = 0; z < serial.getSizeZ(); z++) {
+					Position position = new Position(x, y, z);
+					assertEquals(serial.getAt(position), prepared.getAt(position));
+				}
+			}
+		}
+	}
+	
+	private void assertSamePositions(World serial, World prepared) {
+		List<Unit> serialUnits = new ArrayList<>(serial.getAllUnits());
+		List<Unit> preparedUnits = new ArrayList<>(prepared.getAllUnits());
+		assertEquals(serialUnits.size(), preparedUnits.size());
+		for (int i = 0; i < serialUnits.size(); i++) {
+			assertEquals(serialUnits.get(i).getPosition(), preparedUnits.get(i).getPosition());
+		}
+	}
+	
+	/**
+	 * Create a world of 10x10x1 air cubes, with a wall along x == 5, holding
+	 * twenty units walking from one side of the wall to the other.
+	 */
+	private World createMaze(boolean isPreparingPaths) {
+		int[][][] types = new int[10][10][1];
+		for (int y = 1; y < 10; y++) {
+			types[5][y][0] = TYPE_ROCK;
+		}
+		World maze = new World(types, new DefaultTerrainChangeListener());
+		maze.setPreparingPaths(isPreparingPaths);
+		maze.setPopulationLimits(20, 1, 20);
+		for (int i = 0; i < 20; i++) {
+			Unit unit = new Unit(new int[] {i % 5, i / 2, 0}, "AAA", 50, 50, 50, 50, false);
+			maze.addUnit(unit);
+			unit.moveTo(new Position(9 - i % 4, 9 - i / 2, 0));
+		}
+		return maze;
+	}
+	
+	/**
+	 * Create a world of 16x16x4 cubes with the given seed, with a rock floor
+	 * strewn with rocks and trees, holding forty units performing default behaviour.
+	 */
+	private World createQuarry(long seed, boolean isPreparingPaths) {
+		SplittableRandom random = new SplittableRandom(seed);
+		int[][][] types = new int[16][16][4];
+		for (int x = 0; x < 16; x++) {
+			for (int y = 0; y < 16; y++) {
+				types[x][y][0] = TYPE_ROCK;
+				int roll = random.nextInt(10);
+				if (roll == 0) {
+					types[x][y][1] = TYPE_ROCK;
+				} else if (roll == 1) {
+					types[x][y][1] = TYPE_TREE;
+				}
+			}
+		}
+		World quarry = new World(types, new DefaultTerrainChangeListener(), seed);
+		quarry.setPreparingPaths(isPreparingPaths);
+		quarry.setPopulationLimits(40, 5, 40);
+		quarry.createRandomUnits(40, true);
+		return quarry;
+	}
+	
+	/**
+	 * Create a world of 12x12x1 air cubes with a fixed seed, holding twenty
+	 * units performing default behaviour.
+	 */
+	private World createField(boolean isPreparingPaths) {
+		World field = new World(new int[12][12][1], new DefaultTerrainChangeListener(), 42L);
+		field.setPreparingPaths(isPreparingPaths);
+		field.setPopulationLimits(20, 2, 20);
+		for (int i = 0; i < 20; i++) {
+			Unit unit = new Unit(new int[] {i % 12, i / 2, 0}, "AAA", 50, 50, 50, 50, true);
+			field.addUnit(unit);
+		}
+		return field;
+	}
+	
 	@Test
 	public void isValidPosition_TrueCase() {
 		assertTrue(world.isValidPosition(new Position(0,0,0)));